@@ -0,0 +1,88 @@
+package com.chat.client;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+
+/**
+ * Cette classe affiche sur la console les lignes produites par le gestionnaire d'événements du client, sans
+ * que le thread qui lit la connexion attende après la console. Les lignes sont mises dans une file et ce thread
+ * les écrit par paquets, en une seule écriture, à intervalle régulier. La file est bornée : si la console
+ * n'arrive pas à suivre, les lignes les plus anciennes sont abandonnées et leur nombre est signalé.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class AfficheurConsole extends Thread {
+
+    private final PrintStream sortie;
+    private final int capacite;
+    private final long periode;
+    //Lignes en attente d'affichage, de la plus ancienne à la plus récente :
+    private final ArrayDeque<String> lignes = new ArrayDeque<>();
+    //Nombre de lignes abandonnées depuis le dernier affichage :
+    private long lignesPerdues;
+
+    /**
+     * Construit un afficheur.
+     *
+     * @param sortie   PrintStream Flux sur lequel les lignes sont écrites
+     * @param capacite int Nombre maximal de lignes en attente d'affichage
+     * @param periode  long Intervalle (en millisecondes) entre deux affichages
+     */
+    public AfficheurConsole(PrintStream sortie, int capacite, long periode) {
+        super("AfficheurConsole");
+        this.sortie = sortie;
+        this.capacite = capacite;
+        this.periode = periode;
+        setDaemon(true);
+    }
+
+    /**
+     * Ajoute une ligne à afficher. Cette méthode ne bloque jamais sur la console.
+     *
+     * @param ligne String la ligne à afficher
+     */
+    public void afficher(String ligne) {
+        synchronized (lignes) {
+            if (lignes.size() >= capacite) {
+                lignes.pollFirst();
+                lignesPerdues++;
+            }
+            lignes.addLast(ligne);
+        }
+    }
+
+    /**
+     * Écrit sur la console, en une seule écriture, toutes les lignes en attente.
+     */
+    public void vider() {
+        StringBuilder sb = new StringBuilder();
+        synchronized (lignes) {
+            if (lignes.isEmpty())
+                return;
+            if (lignesPerdues > 0) {
+                sb.append("\t\t(").append(lignesPerdues).append(" lignes non affichees)").append(System.lineSeparator());
+                lignesPerdues = 0;
+            }
+            for (String s = lignes.pollFirst(); s != null; s = lignes.pollFirst())
+                sb.append(s).append(System.lineSeparator());
+        }
+        sortie.print(sb);
+        sortie.flush();
+    }
+
+    /**
+     * Méthode principale du thread. Affiche les lignes en attente à chaque période.
+     */
+    public void run() {
+        while (!interrupted()) {
+            try {
+                Thread.sleep(periode);
+            } catch (InterruptedException e) {
+                break;
+            }
+            vider();
+        }
+        vider();
+    }
+}
@@ -1,30 +1,42 @@
 /*
  Etats du client :
-DISCONNECTED : le client est dconnect
+DISCONNECTED : le client est déconnecté
 SEARCHING : le client recherche le serveur
-NOTFOUND : le client n'a pas trouv le serveur
-CONNECTING : le serveur a t trouv mais le client attend que le serveur valide la demande (utilisateur+mot de passe)
-REFUSED : le serveur a refus la connexion car l'utilisateur ou son mot de passe sont incorrects
-CONNECTED : le client est connect 
-DISCONNECTING : le client est entrain de se dconnecter
+NOTFOUND : le client n'a pas trouvé le serveur
+CONNECTING : le serveur a été trouvé mais le client attend que le serveur valide la demande (utilisateur+mot de passe)
+REFUSED : le serveur a refusé la connexion car l'utilisateur ou son mot de passe sont incorrects
+CONNECTED : le client est connecté 
+DISCONNECTING : le client est entrain de se déconnecter
 */
 
 package com.chat.client;
 
 import java.net.Socket;
 import java.io.*;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.commun.evenement.GestionnaireEvenement;
 import com.commun.net.Connexion;
+import com.commun.net.FabriqueSockets;
+import com.commun.net.Transport;
 import com.commun.thread.Lecteur;
 import com.commun.evenement.Evenement;
 import com.commun.evenement.EvenementUtil;
 import com.commun.thread.ThreadEcouteurDeTexte;
 
 /**
- * Cette classe reprsente un client capable de se connecter  un serveur.
+ * Cette classe représente un client capable de se connecter à un serveur.
  *
- * @author Abdelmoumne Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
+ * @author Abdelmoumène Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
  * @version 1.0
  * @since 2023-09-01
  */
@@ -32,86 +44,300 @@ public class Client implements Lecteur {
 
     private String adrServeur = Config.ADRESSE_SERVEUR;
     private int portServeur = Config.PORT_SERVEUR;
-    private boolean connecte;
+    private boolean tls = Config.TLS;
+    //Ouvre le transport vers le serveur à la place d'un socket, si elle est spécifiée :
+    private Transport.Fabrique fabriqueTransport;
+    private volatile EtatClient etat = EtatClient.DISCONNECTED;
     private Connexion connexion;
     private GestionnaireEvenement gestionnaireEvenementClient;
     private ThreadEcouteurDeTexte vt;
+    //Jeton remis par le serveur pour reprendre la session après une perte de connexion :
+    private volatile String jetonReprise;
+    //Numéro du dernier message du chat public reçu :
+    private volatile long dernierNumero;
+    //Indique si le client demande une connexion fiable :
+    private boolean fiable = Config.FIABLE;
+    //Numéro du dernier texte numéroté reçu sur une connexion fiable et moment du dernier acquittement envoyé :
+    private volatile long dernierRecu;
+    private long momentAcquittement;
+    private final Random hasard = new Random();
+    //Requêtes envoyées avec envoyerRequete() qui attendent leur réponse, par identifiant :
+    private final Map<String, CompletableFuture<Evenement>> requetesEnAttente = new ConcurrentHashMap<>();
+    private final AtomicLong compteurRequetes = new AtomicLong();
+    //Termine en erreur les requêtes restées sans réponse après Config.DELAI_REQUETE, pour tous les clients :
+    private static final ScheduledThreadPoolExecutor delaisRequetes = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "delais requetes");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        delaisRequetes.setRemoveOnCancelPolicy(true);
+    }
+    //Affiche les textes reçus sans bloquer le thread écouteur de texte :
+    private final AfficheurConsole afficheur = new AfficheurConsole(System.out, Config.TAILLE_AFFICHAGE,
+            Config.PERIODE_AFFICHAGE);
 
     /**
-     * Connecte le client au serveur en utilisant un socket. Si la connexion russit, un objet
-     * Connexion est cr qui cre les flux d'entre/sortie permettant de communiquer du texte
+     * Connecte le client au serveur en utilisant un socket. Si la connexion réussit, un objet
+     * Connexion est créé qui crée les flux d'entrée/sortie permettant de communiquer du texte
      * avec le serveur.
      *
-     * @return boolean true, si la connexion a russi. false, si la connexion choue
-     * ou si le client tait dj connect.
+     * @return boolean true, si la connexion a réussi. false, si la connexion échoue
+     * ou si le client était déjà connecté.
      */
-    public boolean connecter() {
+    public synchronized boolean connecter() {
         boolean resultat = false;
         if (this.isConnecte()) //deja connecte
             return resultat;
 
-        try {
-            Socket socket = new Socket(adrServeur, portServeur);
-            connexion = new Connexion(socket);
-            this.setAdrServeur(adrServeur);
-            this.setPortServeur(portServeur);
-
+        etat = EtatClient.SEARCHING;
+        dernierRecu = 0; //Nouvelle session
+        dernierNumero = 0;
+        Connexion nouvelle = ouvrirConnexion();
+        if (nouvelle != null) {
+            connexion = nouvelle;
+            etat = EtatClient.CONNECTING;
             //On cree l'ecouteur d'evenements pour le client :
             gestionnaireEvenementClient = new GestionnaireEvenementClient(this);
+            if (afficheur.getState() == Thread.State.NEW)
+                afficheur.start();
 
-            //Dmarrer le thread inspecteur de texte:
-            vt = new ThreadEcouteurDeTexte(this);
+            //Démarrer le thread inspecteur de texte. La lecture est bloquante, il n'y a donc pas de délai entre
+            //deux lectures : le texte est traité dès qu'il arrive.
+            vt = new ThreadEcouteurDeTexte(this, 0);
             vt.start();  //la methode run() de l'ecouteur de texte s'execute en parallele avec le reste du programme.
             resultat = true;
-            this.setConnecte(true);
-        } catch (IOException e) {
-            this.deconnecter();
+        } else {
+            etat = EtatClient.NOTFOUND;
         }
         return resultat;
     }
 
+    /*
+      Ouvre le socket (ou le transport) vers le serveur et retourne l'objet Connexion créé dessus, ou null si le
+      serveur n'a pas pu être joint.
+    */
+    private Connexion ouvrirConnexion() {
+        try {
+            if (fabriqueTransport != null)
+                return new Connexion(fabriqueTransport.ouvrir());
+            Socket socket = FabriqueSockets.creerSocket(adrServeur, portServeur, tls);
+            return new Connexion(socket);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /*
+      Appelée par le thread écouteur de texte quand la connexion est perdue sans que le client se soit déconnecté.
+      Le client tente de se reconnecter en doublant le délai entre deux tentatives (avec une part aléatoire, pour
+      que tous les clients coupés en même temps ne reviennent pas en même temps). S'il a reçu un jeton, il demande
+      au serveur de reprendre sa session à partir du dernier message reçu. La connexion est ouverte hors du verrou
+      du client : deconnecter() n'attend pas la fin d'une tentative.
+    */
+    private void reconnecter() {
+        long delai = Config.DELAI_RECONNEXION_MIN;
+
+        synchronized (this) {
+            if (etat == EtatClient.DISCONNECTING || etat == EtatClient.DISCONNECTED)
+                return;
+            connexion.close();
+            etat = EtatClient.SEARCHING;
+        }
+        annulerRequetes();
+        for (int i = 0; i < Config.TENTATIVES_RECONNEXION; i++) {
+            try {
+                Thread.sleep(delai / 2 + (long) (hasard.nextDouble() * delai / 2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (etat != EtatClient.SEARCHING && etat != EtatClient.NOTFOUND) //deconnecter() a été appelée
+                return;
+            Connexion nouvelle = ouvrirConnexion();
+            synchronized (this) {
+                if (etat != EtatClient.SEARCHING && etat != EtatClient.NOTFOUND) { //Pendant la tentative
+                    if (nouvelle != null)
+                        nouvelle.close();
+                    return;
+                }
+                if (nouvelle != null) {
+                    connexion = nouvelle;
+                    etat = EtatClient.CONNECTING;
+                    if (jetonReprise != null)
+                        connexion.envoyer("RESUME " + jetonReprise + " " + dernierNumero);
+                    return;
+                }
+                etat = EtatClient.NOTFOUND;
+            }
+            delai = Math.min(delai * 2, Config.DELAI_RECONNEXION_MAX);
+        }
+        etat = EtatClient.DISCONNECTED;
+        Thread.currentThread().interrupt(); //Arrête le thread écouteur de texte
+    }
+
     /**
-     * Dconnecte le client, s'il est connect, en fermant l'objet Connexion. Le texte "exit" est envoy au serveur
-     * pour l'informer de la dconnexion. Le thread couteur de texte est arrt.
+     * Déconnecte le client, s'il est connecté, en fermant l'objet Connexion. Le texte "exit" est envoyé au serveur
+     * pour l'informer de la déconnexion. Le thread écouteur de texte est arrêté.
      *
-     * @return boolean true, si le client s'est dconnect, false, s'il tait dj dconnect
+     * @return boolean true, si le client s'est déconnecté, false, s'il était déjà déconnecté
      */
-    public boolean deconnecter() {
-        if (!isConnecte())
+    public synchronized boolean deconnecter() {
+        boolean connecte = isConnecte();
+        if (!connecte && etat != EtatClient.SEARCHING && etat != EtatClient.NOTFOUND)
             return false;
 
-        connexion.envoyer("exit");
-        connexion.close();
+        etat = EtatClient.DISCONNECTING;
+        if (connecte) {
+            connexion.envoyer("exit");
+            connexion.close();
+        }
         if (vt != null)
             vt.interrupt();
-        this.setConnecte(false);
+        etat = EtatClient.DISCONNECTED;
+        annulerRequetes();
+        afficheur.vider();
         return true;
     }
+
+    /*
+      Termine en erreur toutes les requêtes qui attendent encore leur réponse : la connexion sur laquelle elles
+      ont été envoyées n'existe plus.
+    */
+    private void annulerRequetes() {
+        Iterator<CompletableFuture<Evenement>> it = requetesEnAttente.values().iterator();
+        while (it.hasNext()) {
+            CompletableFuture<Evenement> reponse = it.next();
+            it.remove();
+            reponse.completeExceptionally(new IOException("Connexion perdue"));
+        }
+    }
     /**
-     * Cette mthode vrifie s'il y a du texte qui arrive sur la connexion du client et, si c'est le cas, elle cre
-     * un vnement contenant les donnes du texte et demande au gestionnaire d'vnement client de traiter l'vnement.
+     * Cette méthode attend que du texte arrive sur la connexion du client et, dès qu'il arrive, elle crée
+     * un événement contenant les données du texte et demande au gestionnaire d'événement client de traiter l'événement.
+     * Si la connexion est perdue, le client tente de se reconnecter.
      *
-     * @author Abdelmoumne Toudeft
+     * @author Abdelmoumène Toudeft
      * @version 1.0
      * @since   2023-09-20
      */
     public void lire() {
 
-        String[] t;
+        String[] t, r;
         Evenement evenement;
-        String texte = connexion.getAvailableText();
+        String texte = connexion.lireTexte();
 
+        if (texte == null) { //La connexion a été fermée
+            reconnecter();
+            return;
+        }
         if (!"".equals(texte)){
+
+            if (texte.startsWith("@")) { //Texte numéroté d'une connexion fiable
+                texte = recevoirNumerote(texte);
+                if (texte == null) //Doublon d'un texte déjà reçu
+                    return;
+            }
+            r = EvenementUtil.extraireIdRequete(texte);
+            if (r[0] != null) { //Réponse à une requête envoyée avec envoyerRequete()
+                CompletableFuture<Evenement> reponse = requetesEnAttente.remove(r[0]);
+                if (reponse != null) {
+                    t = EvenementUtil.extraireInfosEvenement(r[1]);
+                    reponse.complete(new Evenement(connexion, t[0], t[1], r[0]));
+                    return;
+                }
+                texte = r[1];
+            }
             t = EvenementUtil.extraireInfosEvenement(texte);
+            switch (t[0]) {
+                case "TOKEN": //Jeton de reprise de session, propre au client
+                    jetonReprise = t[1];
+                    if (fiable) {
+                        connexion.envoyer("RELIABLE " + dernierRecu);
+                        momentAcquittement = System.currentTimeMillis();
+                    }
+                    return;
+                case "REFUSED": //Le serveur n'a pas accepté la reprise de session
+                    jetonReprise = null;
+                    dernierRecu = 0;
+                    dernierNumero = 0; //Nouvelle session
+                    etat = EtatClient.REFUSED;
+                    break;
+                case "OK":
+                    etat = EtatClient.CONNECTED;
+                    break;
+                case "HIST":
+                    etat = EtatClient.CONNECTED;
+                    for (String s : t[1].split("\n"))
+                        noterNumero(s);
+                    break;
+                case "MSG":
+                    if (!noterNumero(t[1])) //Déjà reçu dans l'historique, avant une reprise de session
+                        return;
+                    break;
+            }
             evenement = new Evenement(connexion,t[0],t[1]);
             gestionnaireEvenementClient.traiter(evenement);
         }
     }
 
+    /*
+      Retient le numéro d'un message reçu du chat public (format : numero alias >> message). Retourne false si
+      le message a déjà été reçu.
+    */
+    private boolean noterNumero(String message) {
+        int i = message.indexOf(' ');
+        try {
+            long numero = Long.parseLong(i == -1 ? message : message.substring(0, i));
+            if (numero <= dernierNumero)
+                return false;
+            dernierNumero = numero;
+        } catch (NumberFormatException e) {
+        }
+        return true;
+    }
+
+    /*
+      Traite un texte numéroté (@numero texte) d'une connexion fiable : retourne le texte sans son numéro, ou null
+      si le texte a déjà été reçu (le serveur renvoie après une reconnexion les textes qui n'ont pas été acquittés).
+      Les textes reçus sont acquittés au plus une fois par Config.PERIODE_ACQUITTEMENT.
+    */
+    private String recevoirNumerote(String texte) {
+        int i = texte.indexOf(' ');
+        long numero, maintenant;
+        try {
+            numero = Long.parseLong(i == -1 ? texte.substring(1) : texte.substring(1, i));
+        } catch (NumberFormatException e) {
+            return texte;
+        }
+        if (numero <= dernierRecu)
+            return null;
+        if (numero > dernierRecu + 1)
+            afficheur.afficher("\t\t" + (numero - dernierRecu - 1) + " texte(s) du serveur perdu(s)");
+        dernierRecu = numero;
+        maintenant = System.currentTimeMillis();
+        if (maintenant - momentAcquittement >= Config.PERIODE_ACQUITTEMENT) {
+            connexion.envoyer("ACK " + dernierRecu);
+            momentAcquittement = maintenant;
+        }
+        return i == -1 ? "" : texte.substring(i + 1);
+    }
+
     /**
-     * Spcifie un gestionnaire d'vnements pour le client.
+     * Retourne l'afficheur utilisé pour afficher les textes reçus du serveur sur la console.
+     *
+     * @return AfficheurConsole l'afficheur du client
+     */
+    public AfficheurConsole getAfficheur() {
+        return afficheur;
+    }
+
+    /**
+     * Spécifie un gestionnaire d'événements pour le client.
+
      * @param gestionnaireEvenementClient
-     * @author Abdelmoumne Toudeft
+     * @author Abdelmoumène Toudeft
      * @version 1.0
      * @since   2025-10-02
      */
@@ -120,10 +346,10 @@ public class Client implements Lecteur {
     }
 
     /**
-     * Cette mthode retourne l'adresse IP du serveur sur lequel ce client se connecte.
+     * Cette méthode retourne l'adresse IP du serveur sur lequel ce client se connecte.
      *
      * @return String l'adresse IP du serveur dans le format "192.168.25.32"
-     * @author Abdelmoumne Toudeft
+     * @author Abdelmoumène Toudeft
      * @version 1.0
      * @since   2023-09-20
      */
@@ -134,47 +360,137 @@ public class Client implements Lecteur {
         this.adrServeur = adrServeur;
     }
     /**
-     * Indique si le client est connect  un serveur..
+     * Indique si le client est connecté à un serveur..
      *
-     * @return boolean true si le client est connect et false sinon
+     * @return boolean true si le client est connecté et false sinon
      */
     public boolean isConnecte() {
-        return connecte;
+        return etat == EtatClient.CONNECTING || etat == EtatClient.REFUSED || etat == EtatClient.CONNECTED;
     }
 
     /**
-     * Marque ce client comme tant connect ou dconnect.
+     * Marque ce client comme étant connecté ou déconnecté.
      *
-     * @param connecte boolean Si true, marque le client comme tant connect, si false, le marque comme dconnect
+     * @param connecte boolean Si true, marque le client comme étant connecté, si false, le marque comme déconnecté
      */
     public void setConnecte(boolean connecte) {
-        this.connecte = connecte;
+        this.etat = connecte ? EtatClient.CONNECTED : EtatClient.DISCONNECTED;
     }
 
     /**
-     * Retourne le port d'coute du serveur auquel ce client se connecte.
+     * Retourne l'état du client.
      *
-     * @return int Port d'coute du serveur
+     * @return EtatClient l'état du client
+     */
+    public EtatClient getEtat() {
+        return etat;
+    }
+
+    /**
+     * Retourne le port d'écoute du serveur auquel ce client se connecte.
+     *
+     * @return int Port d'écoute du serveur
      */
     public int getPortServeur() {
         return portServeur;
     }
 
     /**
-     * Spcifie le port d'coute du serveur sur lequel ce client se connecte.
+     * Spécifie le port d'écoute du serveur sur lequel ce client se connecte.
      *
-     * @param portServeur int Port d'coute du serveur
+     * @param portServeur int Port d'écoute du serveur
      */
     public void setPortServeur(int portServeur) {
         this.portServeur = portServeur;
     }
 
+    /**
+     * Indique si la connexion au serveur est chiffrée avec TLS.
+     *
+     * @return boolean true si la connexion est chiffrée et false sinon
+     */
+    public boolean isTls() {
+        return tls;
+    }
+
+    /**
+     * Spécifie si la connexion au serveur est chiffrée avec TLS. N'a d'effet qu'à la prochaine connexion.
+     *
+     * @param tls boolean true pour chiffrer la connexion
+     */
+    public void setTls(boolean tls) {
+        this.tls = tls;
+    }
+
+    /**
+     * Spécifie comment ouvrir le transport vers le serveur, à la place d'un socket vers l'adresse et le port du
+     * serveur. Permet par exemple de connecter le client à un serveur du même programme avec un TransportMemoire.
+     * N'a d'effet qu'à la prochaine connexion.
+     *
+     * @param fabrique Transport.Fabrique ouvre le transport, ou null pour utiliser un socket
+     */
+    public void setFabriqueTransport(Transport.Fabrique fabrique) {
+        this.fabriqueTransport = fabrique;
+    }
+
+    /**
+     * Indique si le client demande une connexion fiable.
+     *
+     * @return boolean true si la connexion est fiable et false sinon
+     */
+    public boolean isFiable() {
+        return fiable;
+    }
+
+    /**
+     * Spécifie si le client demande une connexion fiable. N'a d'effet qu'à la prochaine connexion.
+     *
+     * @param fiable boolean true pour demander une connexion fiable
+     */
+    public void setFiable(boolean fiable) {
+        this.fiable = fiable;
+    }
+
     /**
      * Envoie un texte au serveur en utilisant un objet Connexion.
      *
-     * @param s String texte  envoyer
+     * @param s String texte à envoyer
      */
     public void envoyer(String s) {
         this.connexion.envoyer(s);
     }
+
+    /**
+     * Envoie une requête au serveur sans attendre sa réponse. La requête est précédée d'un identifiant unique
+     * (#identifiant) que le serveur rappelle dans sa réponse : plusieurs requêtes peuvent ainsi être en cours
+     * en même temps sur la même connexion. La réponse n'est pas transmise au gestionnaire d'événements.
+     * <p>
+     * La réponse est complétée par le thread écouteur de texte : un traitement long doit être fait avec les
+     * méthodes ...Async() de CompletableFuture pour ne pas retarder la lecture des textes suivants.
+     *
+     * Le serveur ne répond pas à PONG, ACK, RELIABLE ni EXIT : ces commandes s'envoient avec envoyer().
+     *
+     * @param requete String requête à envoyer, par exemple "LIST"
+     * @return CompletableFuture&lt;Evenement&gt; la réponse du serveur. Elle se termine en erreur si la
+     * connexion est perdue avant l'arrivée de la réponse, ou si la réponse n'est pas arrivée après
+     * Config.DELAI_REQUETE millisecondes (TimeoutException).
+     */
+    public CompletableFuture<Evenement> envoyerRequete(String requete) {
+        String id = Long.toString(compteurRequetes.incrementAndGet());
+        CompletableFuture<Evenement> reponse = new CompletableFuture<>();
+        requetesEnAttente.put(id, reponse);
+        if (!isConnecte()) {
+            requetesEnAttente.remove(id);
+            reponse.completeExceptionally(new IOException("Client deconnecte"));
+            return reponse;
+        }
+        ScheduledFuture<?> delai = delaisRequetes.schedule(() -> {
+            if (requetesEnAttente.remove(id, reponse))
+                reponse.completeExceptionally(new TimeoutException("Pas de reponse a " + requete));
+        }, Config.DELAI_REQUETE, TimeUnit.MILLISECONDS);
+        reponse.whenComplete((e, ex) -> delai.cancel(false));
+        this.connexion.envoyer("#" + id + " " + requete);
+        return reponse;
+    }
+
 }
\ No newline at end of file
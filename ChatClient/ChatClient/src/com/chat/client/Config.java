@@ -12,4 +12,45 @@ public interface Config {
      * Port d'écoute du serveur.
      */
     int PORT_SERVEUR = 8888;
+    /**
+     * Indique si les connexions sont chiffrées avec TLS (propriété système chat.tls). Voir FabriqueSockets.
+     */
+    boolean TLS = Boolean.getBoolean("chat.tls");
+
+    /**
+     * Délai (en millisecondes) avant la première tentative de reconnexion après une perte de connexion.
+     * Le délai double à chaque tentative.
+     */
+    long DELAI_RECONNEXION_MIN = 500;
+    /**
+     * Délai maximal (en millisecondes) entre deux tentatives de reconnexion.
+     */
+    long DELAI_RECONNEXION_MAX = 30000;
+    /**
+     * Nombre de tentatives de reconnexion avant d'abandonner.
+     */
+    int TENTATIVES_RECONNEXION = 10;
+    /**
+     * Intervalle (en millisecondes) entre deux affichages des textes reçus du serveur.
+     */
+    long PERIODE_AFFICHAGE = 33;
+    /**
+     * Nombre maximal de lignes en attente d'affichage.
+     */
+    int TAILLE_AFFICHAGE = 10000;
+    /**
+     * Indique si le client demande une connexion fiable (propriété système chat.fiable) : le serveur numérote
+     * ses textes et renvoie après une reconnexion ceux que le client n'a pas reçus.
+     */
+    boolean FIABLE = Boolean.getBoolean("chat.fiable");
+    /**
+     * Intervalle minimal (en millisecondes) entre deux acquittements (ACK) des textes reçus sur une connexion
+     * fiable. Un seul acquittement couvre tous les textes reçus depuis le précédent.
+     */
+    long PERIODE_ACQUITTEMENT = 200;
+    /**
+     * Délai (en millisecondes) après lequel une requête envoyée avec envoyerRequete() qui n'a pas reçu de réponse
+     * se termine en erreur.
+     */
+    long DELAI_REQUETE = 30 * 1000;
 }
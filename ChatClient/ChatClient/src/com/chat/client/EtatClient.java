@@ -0,0 +1,38 @@
+package com.chat.client;
+
+/**
+ * États possibles d'un client.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public enum EtatClient {
+    /**
+     * Le client est déconnecté.
+     */
+    DISCONNECTED,
+    /**
+     * Le client recherche le serveur.
+     */
+    SEARCHING,
+    /**
+     * Le client n'a pas trouvé le serveur.
+     */
+    NOTFOUND,
+    /**
+     * Le serveur a été trouvé mais le client attend que le serveur valide son arrivée (alias ou reprise de session).
+     */
+    CONNECTING,
+    /**
+     * Le serveur a refusé la reprise de session : le client doit fournir un alias.
+     */
+    REFUSED,
+    /**
+     * Le client est connecté.
+     */
+    CONNECTED,
+    /**
+     * Le client est en train de se déconnecter.
+     */
+    DISCONNECTING
+}
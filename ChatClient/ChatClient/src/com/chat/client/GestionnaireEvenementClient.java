@@ -1,9 +1,16 @@
 package com.chat.client;
 
 import com.commun.evenement.Evenement;
+import com.commun.evenement.EvenementUtil;
 import com.commun.evenement.GestionnaireEvenement;
 import com.commun.net.Connexion;
 
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
 /**
  * Cette classe représente un gestionnaire d'événement d'un client. Lorsqu'un client reçoit un texte d'un serveur,
  * il crée un événement à partir du texte reçu et alerte ce gestionnaire qui réagit en gérant l'événement.
@@ -33,6 +40,8 @@ public class GestionnaireEvenementClient implements GestionnaireEvenement {
         Object source = evenement.getSource();
         String typeEvenement, arg;
         String[] membres, invAlias;
+        //Les lignes sont affichées par l'afficheur du client, pour ne pas bloquer la lecture sur la console :
+        AfficheurConsole afficheur = client.getAfficheur();
 
         if (source instanceof Connexion) {
             typeEvenement = evenement.getType();
@@ -41,50 +50,130 @@ public class GestionnaireEvenementClient implements GestionnaireEvenement {
                 case "END" : //Le serveur demande de fermer la connexion
                     client.deconnecter(); //On ferme la connexion
                     break;
+                case "PING" : //Le serveur vérifie que le client est toujours là
+                    client.envoyer("PONG");
+                    break;
                 case "LIST" : //Le serveur a renvoyé la liste des connectés
+
                     arg = evenement.getArgument();
                     membres = arg.split(":");
-                    System.out.println("\t\t"+membres.length+" personnes dans le salon :");
+                    afficheur.afficher("\t\t"+membres.length+" personnes dans le salon :");
                     for (String s:membres)
-                        System.out.println("\t\t\t- "+s);
+                        afficheur.afficher("\t\t\t- "+s);
+                    break;
+                case "PRESENCE" : //Arrivées (+alias) et départs (-alias) regroupés, sous la forme +a1:-a2 ...
+                    arg = evenement.getArgument();
+                    List<String> arrives = new ArrayList<>(), partis = new ArrayList<>();
+                    for (String s:arg.split(":")) {
+                        if (s.startsWith("+"))
+                            arrives.add(s.substring(1));
+                        else if (s.startsWith("-"))
+                            partis.add(s.substring(1));
+                    }
+                    if (!arrives.isEmpty())
+                        afficheur.afficher("\t\tArrivé(s) : " + String.join(", ", arrives));
+                    if (!partis.isEmpty())
+                        afficheur.afficher("\t\tParti(s) : " + String.join(", ", partis));
                     break;
                 /******************* CHAT PUBLIC *******************/
+
                 case "HIST" : //Le serveur a renvoyé l'historique des messages du chat public
                     arg = evenement.getArgument();
                     membres = arg.split("\n");
                     for (String s:membres)
-                        System.out.println("\t\t\t."+s);
+                        afficheur.afficher("\t\t\t."+sansNumero(s));
+                    break;
+                case "SEARCH" : //Résultats d'une recherche dans l'historique, dans le même format que HIST
+                    arg = evenement.getArgument();
+                    if ("".equals(arg)) {
+                        afficheur.afficher("\t\tAucun message trouve.");
+                        break;
+                    }
+                    membres = arg.split("\n");
+                    afficheur.afficher("\t\t" + membres.length + " message(s) trouve(s) :");
+                    for (String s:membres)
+                        afficheur.afficher("\t\t\t."+sansNumero(s));
+                    break;
+                case "MSG" : //Message du chat public, sous la forme numero alias >> message
+
+                    afficheur.afficher("\t\t\t."+sansNumero(evenement.getArgument()));
+                    break;
+                case "FILTERED" : //Le serveur a refusé le message (MSG ou PRV) : il contient un terme interdit
+                    afficheur.afficher("\t\tMessage refuse : il contient un terme interdit.");
+                    break;
+                case "REFUSED" : //Le serveur a refusé la reprise de la session
+                    afficheur.afficher("\t\tSession expiree, saisissez a nouveau votre alias.");
                     break;
                 /******************* CHAT PRIVÉ *******************/
+                case "PRV" : //Message privé, sous la forme expediteur message
+                    membres = EvenementUtil.extraireInfosEvenement(evenement.getArgument());
+                    afficheur.afficher("\t\t[prive] " + membres[0] + " >> " + membres[1]);
+                    break;
+                case "OFFLINE" : //Messages privés reçus pendant l'absence, sous la forme moment alias >> message
+                    arg = evenement.getArgument();
+                    DateFormat format = new SimpleDateFormat("dd/MM HH:mm");
+                    for (String s:arg.split("\n")) {
+                        membres = EvenementUtil.extraireInfosEvenement(s);
+                        try {
+                            membres[0] = format.format(new Date(Long.parseLong(membres[0])));
+                        } catch (NumberFormatException e) {
+                        }
+                        afficheur.afficher("\t\t[prive, " + membres[0] + "] " + membres[1]);
+                    }
+                    break;
+                case "PRVOK" : //Message privé envoyé au destinataire ou déposé dans sa boîte aux lettres
+                    break;
+                case "PRVKO" :
+                    afficheur.afficher("\t\tLa boite aux lettres de " + evenement.getArgument() + " est pleine.");
+                    break;
+                case "IGNOREOK" : //Les messages de l'alias ne sont plus reçus
+                    afficheur.afficher("\t\t" + evenement.getArgument() + " est ignore.");
+                    break;
+                case "IGNOREKO" :
+                    afficheur.afficher("\t\tImpossible d'ignorer " + evenement.getArgument() + ".");
+                    break;
+                case "UNIGNOREOK" :
+                    afficheur.afficher("\t\t" + evenement.getArgument() + " n'est plus ignore.");
+                    break;
+
                 case "JOIN" :
                     arg = evenement.getArgument();
-                    System.out.println(arg + " vous a envoyé une invitation à un chat privé (JOIN/DECLINE alias " +
+                    afficheur.afficher(arg + " vous a envoyé une invitation à un chat privé (JOIN/DECLINE alias " +
                             "pour accepter ou refuser)");
                     break;
                 case "JOINOK" :
                     arg = evenement.getArgument();
-                    System.out.println(arg + " Vous êtes en chat privé avec "+arg+" (PRV alias msg pour lui envoyer " +
+                    afficheur.afficher(arg + " Vous êtes en chat privé avec "+arg+" (PRV alias msg pour lui envoyer " +
                             "un message en privé)");
                     break;
                 case "DECLINE" :
                     arg = evenement.getArgument();
-                    System.out.println(arg + " a refuse/annule l'invitation a chatter en prive.");
+                    afficheur.afficher(arg + " a refuse/annule l'invitation a chatter en prive.");
                     break;
                 case "INV" : //Le serveur a renvoyé la liste des invitations reçues
                     arg = evenement.getArgument();
                     invAlias = arg.split(":");
-                    System.out.println("\t\tInvitations reçues :");
+                    afficheur.afficher("\t\tInvitations reçues :");
                     for (String s:invAlias)
-                        System.out.println("\t\t\t- "+s);
+                        afficheur.afficher("\t\t\t- "+s);
                     break;
                 case "QUIT" :
                     arg = evenement.getArgument();
-                    System.out.println(arg +" a quitté le salon privé.");
+                    afficheur.afficher(arg +" a quitté le salon privé.");
                     break;
                 /******************* TRAITEMENT PAR DÉFAUT *******************/
                 default: //Afficher le texte recu du serveur :
-                    System.out.println("\t\t\t."+evenement.getType()+" "+evenement.getArgument());
+                    afficheur.afficher("\t\t\t."+evenement.getType()+" "+evenement.getArgument());
             }
         }
     }
+
+    /*
+      Retire le numéro de séquence au début d'un message du chat public.
+    */
+    private static String sansNumero(String message) {
+        int i = message.indexOf(' ');
+        return (i == -1) ? message : message.substring(i + 1);
+    }
+
 }
\ No newline at end of file
@@ -1,52 +1,78 @@
 package com.commun.evenement;
 /**
- * Cette classe reprsente un vnement. Un vnement est caractris par sa
- * source (objet sur lequel s'est produit l'vnement) son type (String) et peut avoir des
- * arguments regroups dans une chaine de caractres (String).
+ * Cette classe représente un événement. Un événement est caractérisé par sa
+ * source (objet sur lequel s'est produit l'événement) son type (String) et peut avoir des
+ * arguments regroupés dans une chaine de caractères (String).
  *
- * @author Abdelmoumne Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
+ * @author Abdelmoumène Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
  * @version 1.0
  * @since 2023-09-01
  */
 public class Evenement {
     private Object source;
     private final String type, argument;
+    private final String idRequete;
 
     /**
-     * Construit un vnement.
+     * Construit un événement.
      *
-     * @param source La source de l'vnement
-     * @param type Le type de l'vnement
-     * @param argument Chaine de caractres contenant les arguments de l'vnement
+     * @param source La source de l'événement
+     * @param type Le type de l'événement
+     * @param argument Chaine de caractères contenant les arguments de l'événement
      */
     public Evenement(Object source, String type, String argument) {
         this.source = source;
         this.type = type;
         this.argument = argument;
+        this.idRequete = null;
     }
 
     /**
-     * Retourne la source de l'vnement
+     * Construit un événement correspondant à une requête qui attend une réponse.
      *
-     * @return Object source de l'vnement
+     * @param source    La source de l'événement
+     * @param type      Le type de l'événement
+     * @param argument  Chaine de caractères contenant les arguments de l'événement
+     * @param idRequete Identifiant de la requête, à rappeler dans la réponse (null si aucun)
+     */
+    public Evenement(Object source, String type, String argument, String idRequete) {
+        this.source = source;
+        this.type = type;
+        this.argument = argument;
+        this.idRequete = idRequete;
+    }
+
+    /**
+     * Retourne la source de l'événement
+     *
+     * @return Object source de l'événement
      */
     public Object getSource() {
         return source;
     }
     /**
-     * Retourne le type de l'vnement
+     * Retourne le type de l'événement
      *
-     * @return String type de l'vnement
+     * @return String type de l'événement
      */
     public String getType() {
         return type;
     }
     /**
-     * Retourne l'argument de l'vnement
+     * Retourne l'argument de l'événement
      *
-     * @return String argument de l'vnement
+     * @return String argument de l'événement
      */
     public String getArgument() {
         return argument;
     }
+
+    /**
+     * Retourne l'identifiant de la requête à laquelle correspond l'événement
+     *
+     * @return String identifiant de la requête, ou null si l'événement n'attend pas de réponse identifiée
+     */
+    public String getIdRequete() {
+        return idRequete;
+    }
 }
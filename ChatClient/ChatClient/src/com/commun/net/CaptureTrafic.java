@@ -0,0 +1,187 @@
+package com.commun.net;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cette classe enregistre le trafic reçu par les connexions dans un fichier binaire compact, pour pouvoir le
+ * rejouer plus tard (voir RejeuTrafic). Chaque enregistrement contient :
+ * <ul>
+ *     <li>son type (1 octet) : OUVERTURE d'une connexion, TRAME reçue ou FERMETURE d'une connexion</li>
+ *     <li>le temps écoulé depuis l'enregistrement précédent, en microsecondes (varint)</li>
+ *     <li>l'identifiant de la connexion (varint)</li>
+ *     <li>pour une TRAME : la longueur du texte (varint) suivie du texte en UTF-8</li>
+ * </ul>
+ * Le fichier commence par "CHCP", la version du format et le moment du début de la capture (millisecondes).
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class CaptureTrafic {
+    public static final byte OUVERTURE = 1;
+    public static final byte TRAME = 2;
+    public static final byte FERMETURE = 3;
+    private static final int MAGIQUE = 0x43484350; //"CHCP"
+    private static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private long dernierMoment = System.nanoTime();
+
+    /**
+     * Commence une capture dans un fichier, qui est remplacé s'il existe.
+     *
+     * @param fichier File le fichier de la capture
+     * @throws IOException si le fichier ne peut pas être créé
+     */
+    public CaptureTrafic(File fichier) throws IOException {
+        this(new FileOutputStream(fichier));
+    }
+
+    /**
+     * Commence une capture dans un flux.
+     *
+     * @param os OutputStream le flux où la capture est écrite
+     * @throws IOException si l'en-tête ne peut pas être écrit
+     */
+    public CaptureTrafic(OutputStream os) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(os, 64 * 1024));
+        out.writeInt(MAGIQUE);
+        out.writeInt(VERSION);
+        out.writeLong(System.currentTimeMillis());
+    }
+
+    /**
+     * Enregistre un événement d'une connexion. Les erreurs d'écriture sont ignorées : la capture ne doit jamais
+     * gêner le trafic.
+     *
+     * @param type      byte OUVERTURE, TRAME ou FERMETURE
+     * @param connexion long l'identifiant de la connexion
+     * @param texte     String le texte reçu, pour une TRAME
+     */
+    public synchronized void enregistrer(byte type, long connexion, String texte) {
+        long maintenant = System.nanoTime();
+        try {
+            out.writeByte(type);
+            ecrireVarint(out, (maintenant - dernierMoment) / 1000);
+            ecrireVarint(out, connexion);
+            if (type == TRAME) {
+                byte[] octets = texte.getBytes(StandardCharsets.UTF_8);
+                ecrireVarint(out, octets.length);
+                out.write(octets);
+            }
+        } catch (IOException e) {
+            return;
+        }
+        //Le temps non compté (moins d'une microseconde) est reporté à l'enregistrement suivant :
+        dernierMoment += (maintenant - dernierMoment) / 1000 * 1000;
+    }
+
+    /**
+     * Termine la capture et ferme le fichier.
+     */
+    public synchronized void fermer() {
+        try {
+            out.close();
+        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * Un enregistrement lu dans une capture.
+     */
+    public static final class Enregistrement {
+        public final byte type;
+        //Moment de l'enregistrement, en microsecondes depuis le début de la capture :
+        public final long moment;
+        public final long connexion;
+        public final String texte;
+
+        private Enregistrement(byte type, long moment, long connexion, String texte) {
+            this.type = type;
+            this.moment = moment;
+            this.connexion = connexion;
+            this.texte = texte;
+        }
+    }
+
+    /**
+     * Lit les enregistrements d'une capture, dans l'ordre.
+     */
+    public static final class Lecture {
+        private final DataInputStream in;
+        private final long debut;
+        private long moment;
+
+        /**
+         * Ouvre une capture en lecture.
+         *
+         * @param is InputStream le flux de la capture
+         * @throws IOException si le flux n'est pas une capture
+         */
+        public Lecture(InputStream is) throws IOException {
+            in = new DataInputStream(is);
+            if (in.readInt() != MAGIQUE || in.readInt() != VERSION)
+                throw new IOException("Ce n'est pas une capture de trafic");
+            debut = in.readLong();
+        }
+
+        /**
+         * @return long le moment du début de la capture, en millisecondes
+         */
+        public long getDebut() {
+            return debut;
+        }
+
+        /**
+         * Lit l'enregistrement suivant.
+         *
+         * @return Enregistrement l'enregistrement, ou null à la fin de la capture
+         * @throws IOException si la capture ne peut pas être lue
+         */
+        public Enregistrement suivant() throws IOException {
+            int type = in.read();
+            if (type < 0)
+                return null;
+            try {
+                moment += lireVarint(in);
+                long connexion = lireVarint(in);
+                String texte = null;
+                if (type == TRAME) {
+                    byte[] octets = new byte[(int) lireVarint(in)];
+                    in.readFully(octets);
+                    texte = new String(octets, StandardCharsets.UTF_8);
+                }
+                return new Enregistrement((byte) type, moment, connexion, texte);
+            } catch (EOFException e) { //Capture interrompue au milieu d'un enregistrement
+                return null;
+            }
+        }
+    }
+
+    private static void ecrireVarint(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long lireVarint(DataInputStream in) throws IOException {
+        long v = 0;
+        int decalage = 0, b;
+        do {
+            b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << decalage;
+            decalage += 7;
+        } while ((b & 0x80) != 0);
+        return v;
+    }
+}
@@ -1,89 +1,762 @@
 package com.commun.net;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Cette classe reprsente un point de connexion d'un client vers un serveur ou d'un serveur vers un client.
- * Encapsule le socket utilis pour la connexion ainsi que les flux de caractres pour envoyer et recevoir du texte.
+ * Cette classe représente un point de connexion d'un client vers un serveur ou d'un serveur vers un client.
+ * Encapsule le transport utilisé pour la connexion (un socket ou un tuyau en mémoire, voir Transport) ainsi que
+ * la conversion des textes envoyés et reçus en octets. Les octets passent par des tampons empruntés à
+ * ReserveTampons.PARTAGEE le temps d'une lecture ou d'une écriture : une connexion inactive n'en garde aucun.
  *
- * @author Abdelmoumne Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
+ * @author Abdelmoumène Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
  * @version 1.0
  * @since 2023-09-01
  */
 public class Connexion {
 
-    private Socket socket;
-    private PrintWriter os;
-    private BufferedInputStream is;
+    /**
+     * Caractère ajouté après chaque texte envoyé. Il permet de séparer les textes qui arrivent ensemble
+     * lors d'une même lecture.
+     */
+    public static final char FIN_TRAME = '\0';
+    /**
+     * Nombre de textes de la voie prioritaire envoyés à la suite avant de laisser passer un texte de la voie de
+     * masse, quand les deux voies ont des textes en attente (valeur par défaut, voir setPoidsPrioritaire()).
+     */
+    public static final int POIDS_PRIORITAIRE = 4;
+    /**
+     * Nombre maximal de textes en attente dans la voie de masse. Au-delà, les plus anciens sont abandonnés, ou la
+     * connexion est coupée si elle est fiable (valeur par défaut, voir setTailleMaxMasse()).
+     */
+    public static final int TAILLE_MAX_MASSE = 4096;
+    /**
+     * Nombre maximal de textes en attente dans la voie prioritaire. Au-delà, la connexion est coupée (valeur par
+     * défaut, voir setTailleMaxPrioritaire()).
+     */
+    public static final int TAILLE_MAX_PRIORITAIRE = 1024;
+    /**
+     * Longueur maximale, en octets, d'un texte reçu (valeur par défaut, voir setTailleMaxTrame()). Une connexion
+     * qui envoie un texte plus long sans FIN_TRAME est fermée.
+     */
+    public static final int TAILLE_MAX_TRAME = 1024 * 1024;
+    //Taille des tampons empruntés pour lire et pour écrire (ils sont agrandis au besoin) :
+    private static final int TAILLE_LECTURE = 2048;
+    private static final int TAILLE_ECRITURE = 8192;
+    //Jeu de caractères des textes, le même des deux côtés :
+    private static final Charset JEU_CARACTERES = Charset.defaultCharset();
+    //Attente maximale, en millisecondes, de l'envoi des textes prioritaires lors de la fermeture :
+    private static final long ATTENTE_FERMETURE = 200;
+
+    private static final AtomicLong compteur = new AtomicLong();
+    //Capture du trafic reçu par toutes les connexions, si elle est activée :
+    private static volatile CaptureTrafic capture;
+    //Threads qui écrivent les textes en attente, si l'appelant ne doit pas les écrire lui-même :
+    private static volatile Executor ecrivain;
+    //Valeurs en vigueur de POIDS_PRIORITAIRE, TAILLE_MAX_MASSE, TAILLE_MAX_PRIORITAIRE et TAILLE_MAX_TRAME,
+    //modifiables pendant le fonctionnement :
+    private static volatile int poidsPrioritaire = POIDS_PRIORITAIRE;
+    private static volatile int tailleMaxMasse = TAILLE_MAX_MASSE;
+    private static volatile int tailleMaxPrioritaire = TAILLE_MAX_PRIORITAIRE;
+    private static volatile int tailleMaxTrame = TAILLE_MAX_TRAME;
+
+    private final long id = compteur.incrementAndGet();
+    private final Transport transport;
+    private final ReserveTampons reserve = ReserveTampons.PARTAGEE;
     private String alias;
+    //Numéro de membre attribué par le serveur, -1 si la connexion n'en a pas :
+    private int membre = -1;
+    //Octets reçus qui ne forment pas encore un texte complet (sans FIN_TRAME), null s'il n'y en a pas :
+    private ByteBuffer recus;
+    //Indique si une écriture ou une lecture a échoué, si l'autre bout a fermé la connexion ou si un texte reçu
+    //était trop long :
+    private volatile boolean enErreur;
+    //Moment (System.currentTimeMillis()) de la dernière réception de données :
+    private volatile long derniereReception = System.currentTimeMillis();
+    //Fenêtre de retransmission, si la connexion est fiable :
+    private FenetreEmission fenetre;
+    //Textes en attente d'envoi : la voie prioritaire (réponses, commandes de contrôle) passe devant la voie de
+    //masse (messages diffusés à tous) :
+    private final ArrayDeque<String> prioritaire = new ArrayDeque<>();
+    private final ArrayDeque<String> masse = new ArrayDeque<>();
+    //Textes déjà numérotés à renvoyer, qui passent avant tous les autres (voir activerFiabilite()) :
+    private final ArrayDeque<String> rejeu = new ArrayDeque<>();
+    //Indique si un thread est en train d'écrire les textes en attente :
+    private boolean enEcriture;
+    //Nombre de textes prioritaires écrits depuis le dernier texte de masse :
+    private int nbPrioritairesSuivis;
+    //Nombre de textes de masse abandonnés parce que la voie était pleine :
+    private long nbAbandonnes;
+    //Indique si la connexion a été coupée parce qu'une voie était pleine (voir couper()) :
+    private boolean coupee;
+    //Nombre de textes ajoutés à la voie prioritaire et de textes prioritaires écrits, et actions qui attendent
+    //l'écriture des textes prioritaires envoyés avant elles (voir apresEnvoi()), dans l'ordre :
+    private long nbPrioritairesAjoutes, nbPrioritairesEcrits;
+    private final ArrayDeque<Attente> attentes = new ArrayDeque<>();
+
+    /**
+     * Construit une connexion sur un transport.
+     *
+     * @param transport Transport Le transport sur lequel la connexion est créée
+     */
+    public Connexion(Transport transport) {
+        this.transport = transport;
+        CaptureTrafic c = capture;
+        if (c != null)
+            c.enregistrer(CaptureTrafic.OUVERTURE, id, null);
+    }
 
     /**
-     * Construit une connexion sur un socket, initialisant les flux de caractres utiliss par le socket.
+     * Construit une connexion sur un socket, initialisant les flux de caractères utilisés par le socket.
      *
-     * @param s Socket Le socket sur lequel la connexion est cre
+     * @param s Socket Le socket sur lequel la connexion est créée
      */
     public Connexion(Socket s) {
+        this(s, null);
+    }
+
+    /**
+     * Construit une connexion chiffrée sur un socket TLS créé par-dessus un socket brut.
+     *
+     * @param s    Socket Le socket TLS sur lequel la connexion est créée
+     * @param brut Socket Le socket sous-jacent au socket TLS
+     */
+    public Connexion(Socket s, Socket brut) {
+        this(transportSocket(s, brut));
+    }
+
+    /*
+      Crée le transport d'un socket, ou retourne null si le socket n'est pas utilisable.
+    */
+    private static Transport transportSocket(Socket s, Socket brut) {
         try {
-            socket = s;
-            is = new BufferedInputStream(socket.getInputStream());
-            os = new PrintWriter(socket.getOutputStream());
+            return new TransportSocket(s, brut);
         } catch (IOException e) {
+            return null;
         }
     }
 
     /**
-     * Vrifie si du texte est arriv sur la connexion et le retourne. Retourne la chaine vide s'il n'y a pas de texte.
+     * Vérifie si du texte est arrivé sur la connexion et le retourne. Retourne la chaine vide s'il n'y a pas de texte.
+     * Si l'autre bout a fermé la connexion (fin du flux, quand le transport permet de la voir sans bloquer), la
+     * connexion est mise en erreur (voir isEnErreur()).
      *
-     * @return String le texte reu, ou la chaine vide, si aucun texte n'est arriv.
+     * @return String le texte reçu, ou la chaine vide, si aucun texte n'est arrivé.
      */
     public String getAvailableText() {
-        String t = "";
+        String t = extraireTexte();
+        if (t != null)
+            return t;
         try {
-            byte buf[] = new byte[2000];    //buffer de lecture
-
-            if (is.available() <= 0)
-                return "";
-            //Lire le inputstream
-            is.read(buf);
-            t = (new String(buf)).trim();
-            //System.out.println(texte);
-            //Effacer le buffer
-            buf = null;
+            int n;
+            while ((n = remplir(false)) > 0) {
+                t = extraireTexte();
+                if (t != null)
+                    return t;
+            }
+            if (n < 0)
+                enErreur = true;
         } catch (IOException e) {
+            enErreur = true;
+        }
+        return "";
+    }
+
+    /**
+     * Attend que du texte arrive sur la connexion et le retourne. Contrairement à getAvailableText(), cette
+     * méthode bloque le thread appelant jusqu'à l'arrivée de données et détecte la fermeture de la connexion
+     * par l'autre bout.
+     *
+     * @return String le texte reçu, ou null si la connexion a été fermée.
+     */
+    public String lireTexte() {
+        String t = extraireTexte();
+        try {
+            while (t == null) {
+                if (remplir(true) < 0)
+                    return null;
+                t = extraireTexte();
+            }
+        } catch (IOException e) {
+            return null;
         }
         return t;
     }
 
+    /*
+      Lit les octets disponibles à la suite de ceux déjà reçus. S'il n'y en a aucun, bloque si attendre est vrai
+      et retourne 0 sinon. Retourne le nombre d'octets lus, ou -1 si la connexion a été fermée. Le tampon de
+      réception ne grandit pas au-delà de tailleMaxTrame + 1 octets : un texte sans FIN_TRAME plus long que
+      tailleMaxTrame met la connexion en erreur et la ferme, sans attendre l'envoi des textes en attente.
+    */
+    private int remplir(boolean attendre) throws IOException {
+        int n;
+        if (transport == null)
+            return -1;
+        if (recus == null) {
+            recus = reserve.emprunter(TAILLE_LECTURE);
+        } else if (!recus.hasRemaining()) {
+            int max = tailleMaxTrame;
+            if (recus.capacity() > max) {
+                enErreur = true;
+                rendreRecus();
+                CaptureTrafic c = capture;
+                if (c != null && !isFermee())
+                    c.enregistrer(CaptureTrafic.FERMETURE, id, null);
+                transport.fermer();
+                throw new IOException("texte recu trop long (plus de " + max + " octets)");
+            }
+            recus = reserve.agrandir(recus, (int) Math.min(2L * recus.capacity(), max + 1L));
+        }
+        try {
+            n = attendre ? transport.lire(recus) : transport.lireDisponible(recus);
+        } catch (IOException e) {
+            rendreRecus();
+            throw e;
+        }
+        if (n > 0)
+            derniereReception = System.currentTimeMillis();
+        else if (n < 0 || recus.position() == 0)
+            rendreRecus();
+        return n;
+    }
+
+    private void rendreRecus() {
+        reserve.rendre(recus);
+        recus = null;
+    }
+
+    /*
+      Retire des octets reçus le premier texte complet et le retourne, ou retourne null s'il n'y en a pas.
+    */
+    private String extraireTexte() {
+        if (recus == null)
+            return null;
+        for (int i = 0; i < recus.position(); i++) {
+            if (recus.get(i) == FIN_TRAME) {
+                byte[] octets = new byte[i];
+                recus.flip();
+                recus.get(octets);
+                recus.get(); //FIN_TRAME
+                recus.compact();
+                if (recus.position() == 0)
+                    rendreRecus();
+                String t = new String(octets, JEU_CARACTERES).trim();
+                CaptureTrafic c = capture;
+                if (c != null)
+                    c.enregistrer(CaptureTrafic.TRAME, id, t);
+                return t;
+            }
+        }
+        return null;
+    }
+
     /**
-     * Envoie un texte sur la connexion
+     * Envoie un texte sur la connexion par la voie prioritaire. Plusieurs threads peuvent envoyer du texte en même
+     * temps sur la même connexion sans que les textes se mélangent. Sur une connexion fiable, le texte est précédé
+     * de son numéro (@numero texte) et conservé jusqu'à son acquittement.
      *
-     * @param texte String texte envoy
+     * @param texte String texte envoyé
      */
     public void envoyer(String texte) {
-        os.print(texte);
-        os.flush();
+        boolean coupe;
+        synchronized (this) {
+            coupe = ajouter(prioritaire, tailleMaxPrioritaire, texte);
+        }
+        terminerEnvoi(coupe);
+    }
+
+    /**
+     * Envoie un texte sur la connexion par la voie de masse, pour les textes diffusés à tous (messages du chat,
+     * présence) : les textes envoyés par envoyer() passent devant eux. Si le client ne lit pas assez vite et que
+     * getTailleMaxMasse() textes de masse sont déjà en attente, le plus ancien est abandonné ; une connexion fiable
+     * n'abandonne rien, elle est coupée et le client retrouve les textes en attente dans la fenêtre après RESUME.
+     *
+     * @param texte String texte envoyé
+     */
+    public void envoyerEnMasse(String texte) {
+        boolean coupe;
+        synchronized (this) {
+            coupe = ajouter(masse, tailleMaxMasse, texte);
+        }
+        terminerEnvoi(coupe);
     }
 
     /**
-     * Ferme la connexion en fermant le socket et les flux utiliss.
+     * Envoie plusieurs textes d'un coup sur la connexion par la voie de masse (voir envoyerEnMasse(String)). Les
+     * textes sont mis en attente ensemble, ce qui permet à l'écriture de les rassembler dans un même tampon et de
+     * les envoyer en une fois, au lieu d'une écriture par texte.
      *
-     * @return true si la connexion a t ferme correctement et false, sinon.
+     * @param textes List les textes envoyés, dans l'ordre ; la liste n'est pas modifiée
+     */
+    public void envoyerEnMasse(List<String> textes) {
+        boolean coupe = false;
+        synchronized (this) {
+            for (int i = 0; i < textes.size(); i++)
+                coupe |= ajouter(masse, tailleMaxMasse, textes.get(i));
+        }
+        terminerEnvoi(coupe);
+    }
+
+    /*
+      Ajoute un texte à une voie qui garde au plus max textes. Quand la voie est pleine, la connexion est coupée
+      si elle est fiable ou si c'est la voie prioritaire ; sinon, le plus ancien texte de masse est abandonné. Après
+      la coupure, les textes envoyés vont directement dans la fenêtre, ou sont perdus si la connexion n'est pas
+      fiable. Retourne true si la connexion vient d'être coupée. Appelée avec le verrou de la connexion.
+    */
+    private boolean ajouter(ArrayDeque<String> voie, int max, String texte) {
+        boolean coupe = false;
+        if (!coupee && voie.size() >= max) {
+            if (fenetre == null && voie == masse) {
+                masse.poll();
+                nbAbandonnes++;
+            } else {
+                couper();
+                coupe = true;
+            }
+        }
+        if (!coupee) {
+            voie.add(texte);
+            if (voie == prioritaire)
+                nbPrioritairesAjoutes++;
+        } else if (fenetre != null)
+            fenetre.ajouter(texte);
+        return coupe;
+    }
+
+    /*
+      Coupe la connexion d'un client qui ne lit plus ce qu'on lui envoie : sur une connexion fiable, tous les
+      textes en attente sont numérotés dans la fenêtre, dans l'ordre où ils auraient été envoyés, pour que le client
+      les reçoive après RESUME sur une nouvelle connexion. La connexion est mise en erreur (voir isEnErreur()) ;
+      son transport est fermé par terminerEnvoi(). Appelée avec le verrou de la connexion.
+    */
+    private void couper() {
+        coupee = true;
+        enErreur = true;
+        if (fenetre != null) {
+            for (String t : prioritaire)
+                fenetre.ajouter(t);
+            for (String t : masse)
+                fenetre.ajouter(t);
+        }
+        prioritaire.clear();
+        masse.clear();
+        rejeu.clear(); //Déjà dans la fenêtre
+        attentes.clear(); //Leurs textes ne seront jamais écrits
+    }
+
+    /**
+     * Exécute une action quand tous les textes envoyés jusqu'ici par envoyer() auront été écrits sur le transport
+     * (sur une connexion fiable, ils restent aussi dans la fenêtre jusqu'à leur acquittement). L'action est
+     * exécutée tout de suite s'ils le sont déjà, sinon par le thread qui écrit le dernier d'entre eux ; elle ne
+     * l'est jamais si l'écriture échoue ou si la connexion est coupée avant. Permet, par exemple, de ne considérer
+     * un envoi comme fait qu'une fois ses octets partis.
+     *
+     * @param action Runnable l'action, qui doit être courte
+     */
+    public void apresEnvoi(Runnable action) {
+        synchronized (this) {
+            if (nbPrioritairesEcrits < nbPrioritairesAjoutes) {
+                attentes.add(new Attente(nbPrioritairesAjoutes, action));
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /*
+      Note que des textes prioritaires ont été écrits et exécute les actions qui n'attendaient plus qu'eux, hors du
+      verrou de la connexion.
+    */
+    private void noterEcrits(int n) {
+        List<Runnable> pretes = null;
+        synchronized (this) {
+            nbPrioritairesEcrits += n;
+            while (!attentes.isEmpty() && attentes.peek().seuil <= nbPrioritairesEcrits) {
+                if (pretes == null)
+                    pretes = new ArrayList<>();
+                pretes.add(attentes.poll().action);
+            }
+        }
+        if (pretes != null)
+            for (Runnable action : pretes)
+                action.run();
+    }
+
+    /*
+      Fait écrire les textes qu'on vient d'ajouter ou, si la connexion vient d'être coupée, la ferme. La fermeture
+      peut attendre un écrivain bloqué sur le client : elle se fait dans un thread à part, pour ne pas bloquer le
+      thread qui envoie.
+    */
+    private void terminerEnvoi(boolean coupe) {
+        if (!coupe) {
+            demarrerEcriture();
+            return;
+        }
+        Thread t = new Thread(this::close, "fermeture connexion " + id);
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /*
+      Fait écrire les textes en attente par l'écrivain des connexions ou, s'il n'y en a pas, par le thread appelant.
+      Un seul thread écrit à la fois : si un autre écrit déjà, il écrira aussi les textes qu'on vient d'ajouter.
+    */
+    private void demarrerEcriture() {
+        synchronized (this) {
+            if (enEcriture)
+                return;
+            enEcriture = true;
+        }
+        Executor e = ecrivain;
+        if (e != null) {
+            try {
+                e.execute(this::ecrireEnAttente);
+                return;
+            } catch (RejectedExecutionException ex) { //Écrivain arrêté
+            }
+        }
+        ecrireEnAttente();
+    }
+
+    /*
+      Écrit les textes en attente, hors du verrou de la connexion pour que d'autres threads puissent en ajouter
+      pendant une écriture bloquée par un client lent. Les textes renvoyés par activerFiabilite() passent en
+      premier, puis les textes prioritaires, en laissant passer un texte de masse tous les poidsPrioritaire
+      textes prioritaires. Les textes prioritaires sont envoyés tout de suite ; les textes de masse sont rassemblés
+      dans un tampon emprunté, envoyé quand il est plein ou quand il n'y a plus rien en attente.
+    */
+    private void ecrireEnAttente() {
+        String t;
+        boolean prio = false, dePrioritaire;
+        ByteBuffer tampon = null; //Textes écrits mais pas encore envoyés
+        int nbPrio = 0; //Textes de la voie prioritaire dans le tampon
+        try {
+            while (true) {
+                synchronized (this) {
+                    dePrioritaire = false;
+                    t = rejeu.poll();
+                    if (t == null) {
+                        prio = !prioritaire.isEmpty()
+                                && (masse.isEmpty() || nbPrioritairesSuivis < poidsPrioritaire);
+                        t = prio ? prioritaire.poll() : masse.poll();
+                        if (t != null) {
+                            dePrioritaire = prio;
+                            nbPrioritairesSuivis = prio ? nbPrioritairesSuivis + 1 : 0;
+                            if (fenetre != null)
+                                t = "@" + fenetre.ajouter(t) + " " + t;
+                        }
+                    }
+                    if (t == null && tampon == null) {
+                        enEcriture = false;
+                        notifyAll();
+                        return;
+                    }
+                }
+                if (t != null) {
+                    byte[] octets = (t + FIN_TRAME).getBytes(JEU_CARACTERES);
+                    if (tampon != null && tampon.remaining() < octets.length) {
+                        envoyerTampon(tampon, nbPrio);
+                        nbPrio = 0;
+                        if (tampon.capacity() < octets.length) {
+                            reserve.rendre(tampon);
+                            tampon = null;
+                        }
+                    }
+                    if (tampon == null)
+                        tampon = reserve.emprunter(Math.max(TAILLE_ECRITURE, octets.length));
+                    tampon.put(octets);
+                    if (dePrioritaire)
+                        nbPrio++;
+                }
+                if (t == null || prio) {
+                    envoyerTampon(tampon, nbPrio);
+                    nbPrio = 0;
+                    reserve.rendre(tampon);
+                    tampon = null;
+                }
+            }
+        } catch (RuntimeException e) {
+            reserve.rendre(tampon);
+            synchronized (this) {
+                enEcriture = false;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    /*
+      Envoie le contenu d'un tampon et le vide. Une erreur d'écriture est notée (voir isEnErreur()) : les textes
+      suivants sont perdus, comme le serait tout ce qui est envoyé à un client disparu. Les actions attendant
+      l'écriture des nbPrioritaires textes prioritaires du tampon (voir apresEnvoi()) sont exécutées après un envoi
+      réussi.
+    */
+    private void envoyerTampon(ByteBuffer tampon, int nbPrioritaires) {
+        tampon.flip();
+        try {
+            transport.ecrire(tampon);
+            if (nbPrioritaires > 0)
+                noterEcrits(nbPrioritaires);
+        } catch (IOException e) {
+            enErreur = true;
+        }
+        tampon.clear();
+    }
+
+    /**
+     * Rend la connexion fiable : les textes de la fenêtre que l'autre bout n'a pas reçus sont renvoyés, puis
+     * tous les textes envoyés sont numérotés et conservés dans la fenêtre. La fenêtre peut venir d'une connexion
+     * précédente, ce qui permet de renvoyer après une reconnexion les textes perdus avec l'ancienne connexion.
+     *
+     * @param fenetre     FenetreEmission la fenêtre de retransmission
+     * @param dernierRecu long numéro du dernier texte reçu par l'autre bout
+     */
+    public void activerFiabilite(FenetreEmission fenetre, long dernierRecu) {
+        synchronized (this) {
+            fenetre.acquitter(dernierRecu);
+            rejeu.addAll(fenetre.rejouer(dernierRecu));
+            this.fenetre = fenetre;
+        }
+        demarrerEcriture();
+    }
+
+    /**
+     * Retourne la fenêtre de retransmission de la connexion.
+     *
+     * @return FenetreEmission la fenêtre, ou null si la connexion n'est pas fiable
+     */
+    public synchronized FenetreEmission getFenetre() {
+        return fenetre;
+    }
+
+
+    /**
+     * Ferme la connexion en fermant le transport et les flux utilisés. Les textes de masse en attente sont
+     * abandonnés ; les textes prioritaires en attente (END, par exemple) sont envoyés avant la fermeture, si le
+     * client les lit en moins de ATTENTE_FERMETURE millisecondes.
+     *
+     * @return true si la connexion a été fermée correctement et false, sinon.
      */
     public boolean close() {
+        synchronized (this) {
+            masse.clear();
+            long limite = System.currentTimeMillis() + ATTENTE_FERMETURE, reste;
+            while ((enEcriture || !prioritaire.isEmpty())
+                    && (reste = limite - System.currentTimeMillis()) > 0) {
+                try {
+                    wait(reste);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        CaptureTrafic c = capture;
+        if (c != null && !isFermee())
+            c.enregistrer(CaptureTrafic.FERMETURE, id, null);
+        if (transport == null)
+            return false;
         try {
             //envoyer("Connexion closed !");
-            is.close();
-            os.close();
-            socket.close();
+            transport.fermer();
         } catch (IOException e) {
             return false;
         }
         return true;
     }
 
+    /**
+     * Retourne le moment de la dernière réception de données sur la connexion (ou de sa création, si rien n'a
+     * encore été reçu). Permet de détecter les connexions inactives.
+     *
+     * @return long le moment de la dernière réception, en millisecondes (System.currentTimeMillis())
+     */
+    public long getDerniereReception() {
+        return derniereReception;
+    }
+
+    /**
+     * Indique si un envoi sur la connexion a échoué, par exemple parce que l'autre bout a disparu, si l'autre bout
+     * a fermé la connexion (voir getAvailableText()), si la connexion a été coupée parce que l'autre bout ne lisait
+     * plus, ou si l'autre bout a envoyé un texte plus long que getTailleMaxTrame().
+     *
+     * @return boolean true si une erreur d'écriture ou de réception s'est produite
+     */
+    public boolean isEnErreur() {
+        return transport == null || enErreur;
+    }
+
+    /**
+     * Retourne le nombre de textes de masse abandonnés parce que le client ne les lisait pas assez vite.
+     *
+     * @return long le nombre de textes abandonnés
+     */
+    public synchronized long getNbAbandonnes() {
+        return nbAbandonnes;
+    }
+
+    /**
+     * Retourne le nombre de textes en attente d'envoi, dans toutes les voies.
+     *
+     * @return int le nombre de textes en attente
+     */
+    public synchronized int getNbEnAttente() {
+        return prioritaire.size() + masse.size() + rejeu.size();
+    }
+
+    /**
+     * Indique si la connexion est fiable (voir activerFiabilite()).
+     *
+     * @return boolean true si la connexion est fiable
+     */
+    public synchronized boolean isFiable() {
+        return fenetre != null;
+    }
+
+    /**
+     * Indique si la connexion a été fermée de ce côté.
+     *
+     * @return boolean true si la connexion est fermée
+     */
+    public boolean isFermee() {
+        return transport == null || transport.isFerme();
+    }
+
+    /**
+     * Retourne l'identifiant de la connexion, unique dans le programme.
+     *
+     * @return long l'identifiant de la connexion
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Active ou arrête la capture du trafic reçu par toutes les connexions : l'ouverture et la fermeture de chaque
+     * connexion et chaque texte reçu sont enregistrés, avec leur moment et l'identifiant de la connexion.
+     *
+     * @param c CaptureTrafic la capture, ou null pour l'arrêter
+     */
+    public static void setCapture(CaptureTrafic c) {
+        capture = c;
+    }
+
+    /**
+     * Spécifie qui écrit les textes envoyés sur toutes les connexions. Sans écrivain, le thread qui envoie un
+     * texte l'écrit lui-même et peut donc rester bloqué sur un client qui ne lit pas ; un serveur donne un
+     * écrivain à ses connexions pour que ses threads ne dépendent pas de la vitesse des clients.
+     *
+     * @param e Executor l'écrivain, ou null pour que les textes soient écrits par le thread qui les envoie
+     */
+    public static void setEcrivain(Executor e) {
+        ecrivain = e;
+    }
+
+    /**
+     * Retourne le nombre de textes prioritaires envoyés à la suite avant de laisser passer un texte de masse.
+     *
+     * @return int le poids de la voie prioritaire
+     */
+    public static int getPoidsPrioritaire() {
+        return poidsPrioritaire;
+    }
+
+    /**
+     * Spécifie le nombre de textes prioritaires envoyés à la suite avant de laisser passer un texte de masse,
+     * pour toutes les connexions.
+     *
+     * @param poids int le poids de la voie prioritaire, au moins 1
+     */
+    public static void setPoidsPrioritaire(int poids) {
+        if (poids < 1)
+            throw new IllegalArgumentException("Poids invalide : " + poids);
+        poidsPrioritaire = poids;
+    }
+
+    /**
+     * Retourne le nombre maximal de textes en attente dans la voie de masse de chaque connexion.
+     *
+     * @return int le nombre maximal de textes de masse
+     */
+    public static int getTailleMaxMasse() {
+        return tailleMaxMasse;
+    }
+
+    /**
+     * Spécifie le nombre maximal de textes en attente dans la voie de masse de chaque connexion. Une connexion
+     * qui en a déjà plus les garde, mais abandonne le plus ancien à chaque nouveau texte, ou est coupée si elle
+     * est fiable.
+     *
+     * @param taille int le nombre maximal de textes de masse, au moins 1
+     */
+    public static void setTailleMaxMasse(int taille) {
+        if (taille < 1)
+            throw new IllegalArgumentException("Taille invalide : " + taille);
+        tailleMaxMasse = taille;
+    }
+
+    /**
+     * Retourne le nombre maximal de textes en attente dans la voie prioritaire de chaque connexion.
+     *
+     * @return int le nombre maximal de textes prioritaires
+     */
+    public static int getTailleMaxPrioritaire() {
+        return tailleMaxPrioritaire;
+    }
+
+    /**
+     * Spécifie le nombre maximal de textes en attente dans la voie prioritaire de chaque connexion. Une connexion
+     * qui reçoit un texte prioritaire de plus est coupée : un client qui envoie des commandes sans lire les
+     * réponses ne peut donc pas faire grandir sa voie prioritaire sans limite.
+     *
+     * @param taille int le nombre maximal de textes prioritaires, au moins 1
+     */
+    public static void setTailleMaxPrioritaire(int taille) {
+        if (taille < 1)
+            throw new IllegalArgumentException("Taille invalide : " + taille);
+        tailleMaxPrioritaire = taille;
+    }
+
+    /**
+     * Retourne la longueur maximale d'un texte reçu.
+     *
+     * @return int la longueur maximale, en octets
+     */
+    public static int getTailleMaxTrame() {
+        return tailleMaxTrame;
+    }
+
+    /**
+     * Spécifie la longueur maximale d'un texte reçu par chaque connexion. Une connexion qui reçoit un texte plus
+     * long, sans FIN_TRAME, est mise en erreur (voir isEnErreur()) et fermée : le tampon de réception d'un client
+     * qui n'envoie jamais FIN_TRAME ne peut donc pas grandir sans limite.
+     *
+     * @param taille int la longueur maximale, en octets, au moins TAILLE_LECTURE
+     */
+    public static void setTailleMaxTrame(int taille) {
+        if (taille < TAILLE_LECTURE)
+            throw new IllegalArgumentException("Taille invalide : " + taille);
+        tailleMaxTrame = taille;
+    }
+
+    /**
+     * Retourne la capture du trafic en cours.
+     *
+     * @return CaptureTrafic la capture, ou null si le trafic n'est pas capturé
+     */
+    public static CaptureTrafic getCapture() {
+        return capture;
+    }
+
     public String getAlias() {
         return alias;
     }
@@ -91,4 +764,32 @@ public class Connexion {
     public void setAlias(String alias) {
         this.alias = alias;
     }
+
+    /**
+     * Retourne le numéro de membre que le serveur a attribué à cette connexion. Contrairement à getId(), ce numéro
+     * est réutilisé après le départ du membre : les numéros des présents restent petits et peuvent servir
+     * d'indices dans des tableaux.
+     *
+     * @return int le numéro de membre, ou -1 si la connexion n'en a pas
+     */
+    public int getMembre() {
+        return membre;
+    }
+
+    public void setMembre(int membre) {
+        this.membre = membre;
+    }
+
+    /*
+      Action qui attend que seuil textes prioritaires aient été écrits (voir apresEnvoi()).
+    */
+    private static final class Attente {
+        private final long seuil;
+        private final Runnable action;
+
+        private Attente(long seuil, Runnable action) {
+            this.seuil = seuil;
+            this.action = action;
+        }
+    }
 }
\ No newline at end of file
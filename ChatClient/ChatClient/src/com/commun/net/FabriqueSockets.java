@@ -0,0 +1,84 @@
+package com.commun.net;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.net.Socket;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Classe utilitaire qui crée les sockets utilisés par les clients et les serveurs, en clair ou chiffrés avec TLS.
+ * <p>
+ * Les sockets TLS sont tous créés à partir du même SSLContext. Les sessions TLS négociées sont donc conservées
+ * dans son cache : un client qui se reconnecte au même serveur reprend sa session (tickets de session TLS 1.3)
+ * au lieu de refaire une poignée de main complète.
+ * <p>
+ * Les clés et certificats sont ceux des propriétés système standard de Java (javax.net.ssl.keyStore,
+ * javax.net.ssl.keyStorePassword pour le serveur, javax.net.ssl.trustStore, javax.net.ssl.trustStorePassword
+ * pour le client). Pour faire des essais en local avec un certificat auto-signé :
+ * <pre>
+ * keytool -genkeypair -alias chat -keyalg EC -dname CN=localhost -validity 365 -keystore serveur.p12 -storepass secret
+ * keytool -exportcert -alias chat -keystore serveur.p12 -storepass secret -file chat.cer
+ * keytool -importcert -noprompt -alias chat -file chat.cer -keystore client.p12 -storepass secret
+ * </pre>
+ * puis lancer le serveur avec -Dchat.tls=true -Djavax.net.ssl.keyStore=serveur.p12 -Djavax.net.ssl.keyStorePassword=secret
+ * et le client avec -Dchat.tls=true -Djavax.net.ssl.trustStore=client.p12 -Djavax.net.ssl.trustStorePassword=secret
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class FabriqueSockets {
+    /*
+      Contructeur privé pour empêcher l'instanciation (inutile) de la classe.
+    */
+    private FabriqueSockets() {
+    }
+
+    /**
+     * Ouvre un socket vers un serveur.
+     *
+     * @param adresse String adresse du serveur
+     * @param port    int port d'écoute du serveur
+     * @param tls     boolean true pour chiffrer la connexion avec TLS
+     * @return Socket le socket connecté
+     * @throws IOException si la connexion échoue
+     */
+    public static Socket creerSocket(String adresse, int port, boolean tls) throws IOException {
+        if (!tls)
+            return new Socket(adresse, port);
+        return getContexteTLS().getSocketFactory().createSocket(adresse, port);
+    }
+
+    /**
+     * Chiffre avec TLS une connexion acceptée par un serveur et mène la poignée de main jusqu'au bout : le socket
+     * retourné peut ensuite être lu et écrit par deux threads en même temps sans que l'un d'eux ait à mener la
+     * poignée de main. Bloque jusqu'à la fin de la poignée de main ; pour la limiter dans le temps, il suffit de
+     * fermer le socket accepté. Le socket retourné est construit par-dessus le socket accepté, qui reste
+     * utilisable pour savoir si des données chiffrées sont arrivées (voir TransportSocket).
+     *
+     * @param brut Socket le socket accepté par le serveur
+     * @return Socket le socket TLS, côté serveur
+     * @throws IOException si le contexte TLS ne peut pas être initialisé ou si la poignée de main échoue
+     */
+    public static Socket securiser(Socket brut) throws IOException {
+        SSLSocket socket = (SSLSocket) getContexteTLS().getSocketFactory().createSocket(brut,
+                brut.getInetAddress().getHostAddress(), brut.getPort(), true);
+        socket.setUseClientMode(false);
+        socket.startHandshake();
+        return socket;
+    }
+
+    /**
+     * Retourne le contexte TLS partagé par tous les sockets TLS.
+     *
+     * @return SSLContext le contexte TLS
+     * @throws IOException si le contexte TLS ne peut pas être initialisé (magasin de clés introuvable...)
+     */
+    public static SSLContext getContexteTLS() throws IOException {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("TLS non disponible : " + e.getMessage(), e);
+        }
+    }
+}
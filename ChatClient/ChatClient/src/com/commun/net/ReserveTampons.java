@@ -0,0 +1,173 @@
+package com.commun.net;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cette classe représente une réserve de tampons hors du tas (ByteBuffer direct) partagée par les connexions.
+ * Une connexion n'emprunte un tampon que le temps d'une lecture ou d'une écriture et le rend dès qu'elle n'en a plus
+ * besoin : une connexion inactive n'en garde aucun. Les tampons sont rangés par classes de taille (puissances de 2,
+ * de TAILLE_MIN à TAILLE_MAX octets) ; un tampon rendu est réutilisé par le prochain emprunt de sa classe. Chaque
+ * classe garde au plus MAX_LIBRES tampons libres, les autres sont laissés au ramasse-miettes.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class ReserveTampons {
+    /**
+     * Taille de la plus petite classe de tampons, en octets.
+     */
+    public static final int TAILLE_MIN = 512;
+    /**
+     * Taille de la plus grande classe de tampons, en octets. Un emprunt plus grand reçoit un tampon sur le tas,
+     * qui n'est pas conservé.
+     */
+    public static final int TAILLE_MAX = 64 * 1024;
+    /**
+     * Nombre maximal de tampons libres conservés dans chaque classe.
+     */
+    public static final int MAX_LIBRES = 1024;
+
+    /**
+     * Réserve utilisée par toutes les connexions.
+     */
+    public static final ReserveTampons PARTAGEE = new ReserveTampons();
+
+    private final Classe[] classes;
+    private final AtomicLong nbHorsClasse = new AtomicLong();
+
+    /**
+     * Construit une réserve vide.
+     */
+    public ReserveTampons() {
+        int n = Integer.numberOfTrailingZeros(TAILLE_MAX) - Integer.numberOfTrailingZeros(TAILLE_MIN) + 1;
+        classes = new Classe[n];
+        for (int i = 0; i < n; i++)
+            classes[i] = new Classe(TAILLE_MIN << i);
+    }
+
+    /**
+     * Emprunte un tampon vide (position 0, limite égale à sa capacité) d'au moins taille octets.
+     *
+     * @param taille int la taille minimale du tampon
+     * @return ByteBuffer le tampon, à rendre avec rendre()
+     */
+    public ByteBuffer emprunter(int taille) {
+        if (taille > TAILLE_MAX) {
+            nbHorsClasse.incrementAndGet();
+            return ByteBuffer.allocate(taille);
+        }
+        Classe c = classes[indice(taille)];
+        ByteBuffer b = c.libres.poll();
+        c.nbEmprunts.incrementAndGet();
+        c.nbEmpruntes.incrementAndGet();
+        if (b == null) {
+            c.nbCrees.incrementAndGet();
+            return ByteBuffer.allocateDirect(c.taille);
+        }
+        c.nbLibres.decrementAndGet();
+        b.clear();
+        return b;
+    }
+
+    /**
+     * Rend un tampon emprunté. Le tampon ne doit plus être utilisé ensuite.
+     *
+     * @param b ByteBuffer le tampon, ou null
+     */
+    public void rendre(ByteBuffer b) {
+        if (b == null || !b.isDirect())
+            return;
+        Classe c = classes[indice(b.capacity())];
+        c.nbEmpruntes.decrementAndGet();
+        if (c.nbLibres.incrementAndGet() > MAX_LIBRES) {
+            c.nbLibres.decrementAndGet();
+            return;
+        }
+        c.libres.add(b);
+    }
+
+    /**
+     * Emprunte un tampon plus grand et y copie le contenu d'un tampon emprunté, qui est rendu.
+     *
+     * @param b      ByteBuffer le tampon à agrandir, en mode écriture (position : fin du contenu)
+     * @param taille int la taille minimale du nouveau tampon
+     * @return ByteBuffer le nouveau tampon, en mode écriture
+     */
+    public ByteBuffer agrandir(ByteBuffer b, int taille) {
+        ByteBuffer nouveau = emprunter(taille);
+        b.flip();
+        nouveau.put(b);
+        rendre(b);
+        return nouveau;
+    }
+
+    /**
+     * Retourne le nombre d'octets des tampons empruntés en ce moment.
+     *
+     * @return long le nombre d'octets empruntés
+     */
+    public long getOctetsEmpruntes() {
+        long n = 0;
+        for (Classe c : classes)
+            n += (long) c.nbEmpruntes.get() * c.taille;
+        return n;
+    }
+
+    /**
+     * Retourne le nombre d'octets des tampons libres conservés par la réserve.
+     *
+     * @return long le nombre d'octets libres
+     */
+    public long getOctetsLibres() {
+        long n = 0;
+        for (Classe c : classes)
+            n += (long) c.nbLibres.get() * c.taille;
+        return n;
+    }
+
+    /**
+     * Retourne les statistiques de la réserve : pour chaque classe utilisée, le nombre d'emprunts, de tampons
+     * créés (emprunts qui n'ont pas trouvé de tampon libre), de tampons empruntés en ce moment et de tampons libres.
+     *
+     * @return String les statistiques, une ligne par classe
+     */
+    public String getStatistiques() {
+        StringBuilder s = new StringBuilder();
+        s.append("empruntes ").append(getOctetsEmpruntes()).append(" octets, libres ").append(getOctetsLibres())
+                .append(" octets, hors classe ").append(nbHorsClasse.get());
+        for (Classe c : classes) {
+            if (c.nbEmprunts.get() == 0)
+                continue;
+            s.append('\n').append(c.taille).append(" : emprunts ").append(c.nbEmprunts.get())
+                    .append(", crees ").append(c.nbCrees.get())
+                    .append(", empruntes ").append(c.nbEmpruntes.get())
+                    .append(", libres ").append(c.nbLibres.get());
+        }
+        return s.toString();
+    }
+
+    /*
+      Indice de la plus petite classe dont les tampons ont au moins taille octets.
+    */
+    private static int indice(int taille) {
+        if (taille <= TAILLE_MIN)
+            return 0;
+        return 32 - Integer.numberOfLeadingZeros(taille - 1) - Integer.numberOfTrailingZeros(TAILLE_MIN);
+    }
+
+    private static final class Classe {
+        private final int taille;
+        private final ConcurrentLinkedQueue<ByteBuffer> libres = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger nbLibres = new AtomicInteger();
+        private final AtomicInteger nbEmpruntes = new AtomicInteger();
+        private final AtomicLong nbEmprunts = new AtomicLong();
+        private final AtomicLong nbCrees = new AtomicLong();
+
+        private Classe(int taille) {
+            this.taille = taille;
+        }
+    }
+}
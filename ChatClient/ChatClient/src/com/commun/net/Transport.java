@@ -0,0 +1,69 @@
+package com.commun.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Cette interface représente le moyen de transport des octets d'une connexion : un socket (TransportSocket), un
+ * canal de socket non bloquant (TransportCanal) ou un tuyau en mémoire entre deux connexions du même programme
+ * (TransportMemoire). Connexion découpe les octets reçus
+ * en textes et les textes envoyés en octets, sans savoir comment ils voyagent.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public interface Transport {
+
+    /**
+     * Lit des octets reçus dans un tampon, à partir de sa position. Bloque jusqu'à l'arrivée d'au moins un octet.
+     *
+     * @param b ByteBuffer le tampon où les octets sont copiés, au plus b.remaining()
+     * @return int le nombre d'octets lus, ou -1 si le transport a été fermé
+     * @throws IOException si la lecture échoue
+     */
+    int lire(ByteBuffer b) throws IOException;
+
+    /**
+     * Lit les octets déjà reçus dans un tampon, à partir de sa position, sans bloquer.
+     *
+     * @param b ByteBuffer le tampon où les octets sont copiés, au plus b.remaining()
+     * @return int le nombre d'octets lus, 0 si aucun octet n'est arrivé, ou -1 si le transport a été fermé
+     * @throws IOException si la lecture échoue
+     */
+    int lireDisponible(ByteBuffer b) throws IOException;
+
+    /**
+     * Envoie tous les octets d'un tampon, de sa position à sa limite.
+     *
+     * @param b ByteBuffer le tampon à envoyer
+     * @throws IOException si l'écriture échoue
+     */
+    void ecrire(ByteBuffer b) throws IOException;
+
+    /**
+     * Ferme le transport. L'autre bout reçoit la fin des octets après ceux déjà envoyés.
+     *
+     * @throws IOException si la fermeture échoue
+     */
+    void fermer() throws IOException;
+
+    /**
+     * Indique si le transport a été fermé de ce côté.
+     *
+     * @return boolean true si le transport est fermé
+     */
+    boolean isFerme();
+
+    /**
+     * Ouvre un transport vers un serveur. Permet à un client de se connecter autrement que par un socket.
+     */
+    interface Fabrique {
+        /**
+         * Ouvre un transport.
+         *
+         * @return Transport le transport ouvert
+         * @throws IOException si le transport ne peut pas être ouvert
+         */
+        Transport ouvrir() throws IOException;
+    }
+}
@@ -0,0 +1,162 @@
+package com.commun.net;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Transport des octets entre deux connexions du même programme, sans socket : chacun des deux bouts écrit dans
+ * un tuyau en mémoire que l'autre lit. Permet de faire fonctionner un serveur et un grand nombre de clients dans
+ * le même programme, pour mesurer le coût du code du chat sans celui du réseau.
+ * <p>
+ * Le tuyau peut simuler un réseau : les octets écrits n'arrivent qu'après une latence et à un débit donnés.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class TransportMemoire implements Transport {
+    private final Tuyau entree;
+    private final Tuyau sortie;
+    private volatile boolean ferme;
+
+    private TransportMemoire(Tuyau entree, Tuyau sortie) {
+        this.entree = entree;
+        this.sortie = sortie;
+    }
+
+    /**
+     * Crée les deux bouts d'un transport en mémoire, sans latence et sans limite de débit.
+     *
+     * @return TransportMemoire[] les deux bouts : ce qui est écrit dans l'un est lu dans l'autre
+     */
+    public static TransportMemoire[] creerPaire() {
+        return creerPaire(0, 0);
+    }
+
+    /**
+     * Crée les deux bouts d'un transport en mémoire qui simule un réseau. La latence et le débit s'appliquent
+     * dans chacune des deux directions.
+     *
+     * @param latence long délai d'arrivée des octets, en millisecondes
+     * @param debit   long nombre d'octets transmis par seconde, 0 pour ne pas limiter le débit
+     * @return TransportMemoire[] les deux bouts : ce qui est écrit dans l'un est lu dans l'autre
+     */
+    public static TransportMemoire[] creerPaire(long latence, long debit) {
+        Tuyau aller = new Tuyau(latence * 1000000, debit), retour = new Tuyau(latence * 1000000, debit);
+        return new TransportMemoire[]{new TransportMemoire(retour, aller), new TransportMemoire(aller, retour)};
+    }
+
+    @Override
+    public int lire(ByteBuffer b) throws IOException {
+        return entree.lire(b, true);
+    }
+
+    @Override
+    public int lireDisponible(ByteBuffer b) throws IOException {
+        return entree.lire(b, false);
+    }
+
+    @Override
+    public void ecrire(ByteBuffer b) throws IOException {
+        if (ferme)
+            throw new IOException("Transport ferme");
+        sortie.ecrire(b);
+    }
+
+    /**
+     * Ferme ce bout du transport : l'autre bout lit encore les octets déjà envoyés, puis la fin du transport ;
+     * ses écritures échouent.
+     */
+    @Override
+    public void fermer() {
+        ferme = true;
+        sortie.fermer();
+        entree.fermer();
+    }
+
+    @Override
+    public boolean isFerme() {
+        return ferme;
+    }
+
+    /*
+      Octets en transit dans une direction. Chaque écriture devient un morceau qui n'est lisible qu'à partir de
+      son moment d'arrivée : fin de sa transmission au débit du tuyau (après celle des morceaux précédents), plus
+      la latence.
+    */
+    private static final class Tuyau {
+        private final long latence, debit;
+        private final ArrayDeque<Morceau> morceaux = new ArrayDeque<>();
+        //Moment (System.nanoTime()) où la transmission du dernier morceau se termine :
+        private long finTransmission;
+        private boolean ferme;
+
+        private Tuyau(long latence, long debit) {
+            this.latence = latence;
+            this.debit = debit;
+        }
+
+        private synchronized void ecrire(ByteBuffer b) throws IOException {
+            if (ferme)
+                throw new IOException("Transport ferme");
+            int longueur = b.remaining();
+            if (longueur == 0)
+                return;
+            byte[] octets = new byte[longueur];
+            b.get(octets);
+            long debutTransmission = Math.max(System.nanoTime(), finTransmission);
+            finTransmission = debutTransmission + (debit > 0 ? longueur * 1000000000L / debit : 0);
+            morceaux.add(new Morceau(octets, finTransmission + latence));
+            notifyAll();
+        }
+
+        private synchronized int lire(ByteBuffer b, boolean attendre) throws IOException {
+            while (true) {
+                int n = 0;
+                Morceau m;
+                long maintenant = System.nanoTime();
+                while (b.hasRemaining() && (m = morceaux.peek()) != null && m.arrivee - maintenant <= 0) {
+                    int k = Math.min(b.remaining(), m.octets.length - m.lus);
+                    b.put(m.octets, m.lus, k);
+                    m.lus += k;
+                    n += k;
+                    if (m.lus == m.octets.length)
+                        morceaux.poll();
+                }
+                if (n > 0 || !b.hasRemaining())
+                    return n;
+                m = morceaux.peek();
+                if (m == null && ferme)
+                    return -1;
+                if (!attendre)
+                    return 0;
+                try {
+                    if (m == null)
+                        wait();
+                    else
+                        wait(Math.max(1, (m.arrivee - maintenant) / 1000000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+
+        private synchronized void fermer() {
+            ferme = true;
+            notifyAll();
+        }
+    }
+
+    private static final class Morceau {
+        private final byte[] octets;
+        private final long arrivee;
+        private int lus;
+
+        private Morceau(byte[] octets, long arrivee) {
+            this.octets = octets;
+            this.arrivee = arrivee;
+        }
+    }
+}
@@ -1,26 +1,38 @@
 package com.commun.thread;
 /**
- * Cette classe permet de crer des threads capables de lire continuellement
+ * Cette classe permet de créer des threads capables de lire continuellement
  * sur un objet de type Lecteur.
  *
- * @author Abdelmoumne Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
+ * @author Abdelmoumène Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
  * @version 1.0
  * @since 2023-09-01
  */
 public class ThreadEcouteurDeTexte extends Thread {
 	Lecteur lecteur;
+	long delai;
 
 	/**
 	 * Construit un thread sur un lecteur
 	 * @param lecteur Le lecteur sur lequel le thread va lire
 	 */
 	public ThreadEcouteurDeTexte(Lecteur lecteur)
+	 {
+		 this(lecteur, 100);
+	 }
+
+	/**
+	 * Construit un thread sur un lecteur avec un délai entre deux lectures
+	 * @param lecteur Le lecteur sur lequel le thread va lire
+	 * @param delai Délai en millisecondes entre deux lectures, 0 si la méthode lire() du lecteur est bloquante
+	 */
+	public ThreadEcouteurDeTexte(Lecteur lecteur, long delai)
 	 {
 		 this.lecteur = lecteur;
+		 this.delai = delai;
 	 }
 
 	/**
-	 * Mthode principale du thread. Cette mthode appelle continuellement la mthode lire() du
+	 * Méthode principale du thread. Cette méthode appelle continuellement la méthode lire() du
 	 * lecteur (client ou serveur)
 	 */
 	public void run()
@@ -28,10 +40,13 @@ public class ThreadEcouteurDeTexte extends Thread {
 		while (!interrupted())
 		{
 			lecteur.lire();
+			if (delai <= 0)
+				continue;
 			try
 			{
-			  Thread.sleep(100);
+			  Thread.sleep(delai);
 			}
+
 			catch (InterruptedException e)
 			{
 				break;
@@ -0,0 +1,205 @@
+package com.chat.programme;
+
+import com.chat.serveur.ServeurChat;
+import com.commun.net.Connexion;
+import com.commun.net.ReserveTampons;
+import com.commun.net.TransportMemoire;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Programme qui mesure le serveur de chat sans réseau : le serveur et des clients simulés fonctionnent dans le même
+ * programme et communiquent par des TransportMemoire. Les clients s'identifient, puis quelques-uns d'entre eux
+ * envoient des messages au chat public ; le programme mesure le temps d'identification, le débit des messages
+ * livrés et leur temps de livraison. Il affiche aussi l'état de la réserve de tampons des connexions après chaque
+ * étape.
+ * <p>
+ * Utilisation : BancMemoire nbClients [nbEmetteurs] [messagesParEmetteur] [latence] [debit], où latence est en
+ * millisecondes et debit en octets par seconde (0 : pas de limite). messagesParEmetteur ne doit pas dépasser la
+ * rafale autorisée par le serveur (Config.RAFALE_COMMANDES), sinon les messages en trop sont refusés.
+ * Le journal et les boîtes aux lettres du serveur sont créés dans un dossier temporaire ; ce que le serveur écrit
+ * dans la console est ignoré pendant la mesure.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class BancMemoire {
+    //Attente maximale de chaque étape, en millisecondes :
+    private static final long ATTENTE_MAX = 120000;
+    //Nombre maximal de temps de livraison conservés pour le calcul des centiles :
+    private static final int NB_ECHANTILLONS = 1000000;
+
+    private final List<Connexion> clients = new ArrayList<>();
+    private volatile long nbIdentifies, nbLivres;
+    private final long[] echantillons = new long[NB_ECHANTILLONS];
+    private int nbEchantillons;
+
+    /**
+     * Méthode principale du programme.
+     *
+     * @param args Arguments du programme : nbClients [nbEmetteurs] [messagesParEmetteur] [latence] [debit]
+     * @throws IOException si le dossier temporaire ne peut pas être créé
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Utilisation : BancMemoire nbClients [nbEmetteurs] [messagesParEmetteur] [latence] "
+                    + "[debit]");
+            return;
+        }
+        int nbClients = Integer.parseInt(args[0]);
+        int nbEmetteurs = args.length > 1 ? Integer.parseInt(args[1]) : Math.min(10, nbClients);
+        int nbMessages = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long latence = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        long debit = args.length > 4 ? Long.parseLong(args[4]) : 0;
+
+        File dossier = Files.createTempDirectory("banc").toFile();
+        System.setProperty("chat.historique", new File(dossier, "historique").getPath());
+        System.setProperty("chat.boites", new File(dossier, "boites").getPath());
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int debut, int longueur) {
+            }
+        }));
+        try {
+            new BancMemoire().mesurer(console, nbClients, nbEmetteurs, nbMessages, latence, debit);
+        } finally {
+            System.setOut(console);
+            supprimer(dossier);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Démarre un serveur, y connecte les clients simulés, fait envoyer les messages et affiche les mesures.
+     *
+     * @param console     PrintStream où afficher les mesures
+     * @param nbClients   int nombre de clients simulés
+     * @param nbEmetteurs int nombre de clients qui envoient des messages
+     * @param nbMessages  int nombre de messages envoyés par chaque émetteur
+     * @param latence     long latence des transports, en millisecondes
+     * @param debit       long débit des transports, en octets par seconde (0 : pas de limite)
+     */
+    public void mesurer(PrintStream console, int nbClients, int nbEmetteurs, int nbMessages, long latence,
+                        long debit) {
+        ServeurChat serveur = new ServeurChat(0); //Port choisi par le système : les clients n'utilisent pas de socket
+        if (!serveur.demarrer()) {
+            console.println("Le serveur n'a pas demarre");
+            return;
+        }
+        Thread lecteur = new Thread(this::lireClients);
+        lecteur.setDaemon(true);
+
+        long debut = System.nanoTime();
+        for (int i = 0; i < nbClients; i++) {
+            TransportMemoire[] paire = TransportMemoire.creerPaire(latence, debit);
+            serveur.accepter(new Connexion(paire[1]));
+            Connexion client = new Connexion(paire[0]);
+            client.envoyer("c" + i);
+            clients.add(client);
+        }
+        lecteur.start();
+        attendre(() -> nbIdentifies >= nbClients);
+        double duree = (System.nanoTime() - debut) / 1e9;
+        console.println(nbIdentifies + "/" + nbClients + " clients identifies en " + String.format("%.3f", duree)
+                + " s");
+        console.println("Tampons : " + ReserveTampons.PARTAGEE.getStatistiques());
+
+        long attendus = (long) nbEmetteurs * nbMessages * (nbClients - 1);
+        debut = System.nanoTime();
+        for (int m = 0; m < nbMessages; m++)
+            for (int i = 0; i < nbEmetteurs; i++)
+                clients.get(i).envoyer("MSG t=" + System.nanoTime());
+        attendre(() -> nbLivres >= attendus);
+        duree = (System.nanoTime() - debut) / 1e9;
+        console.println((long) nbEmetteurs * nbMessages + " messages, " + nbLivres + "/" + attendus + " livraisons en "
+                + String.format("%.3f", duree) + " s (" + String.format("%.0f", nbLivres / duree) + " livraisons/s)");
+        afficherCentiles(console);
+        console.println("Tampons : " + ReserveTampons.PARTAGEE.getStatistiques());
+
+        for (Connexion client : clients)
+            client.envoyer("EXIT");
+        serveur.arreter();
+    }
+
+    /*
+      Lit les textes reçus par tous les clients simulés, dans un seul thread.
+    */
+    private void lireClients() {
+        String texte;
+        boolean recu;
+        while (true) {
+            recu = false;
+            for (int i = 0; i < clients.size(); i++) {
+                while (!"".equals(texte = clients.get(i).getAvailableText())) {
+                    recu = true;
+                    if (texte.startsWith("TOKEN "))
+                        nbIdentifies++;
+                    else if (texte.startsWith("MSG "))
+                        noterLivraison(texte);
+                }
+            }
+            if (!recu)
+                Thread.yield();
+        }
+    }
+
+    /*
+      Note le temps de livraison d'un message "MSG numero alias >> t=moment".
+    */
+    private void noterLivraison(String texte) {
+        int i = texte.lastIndexOf("t=");
+        if (i >= 0 && nbEchantillons < NB_ECHANTILLONS) {
+            try {
+                echantillons[nbEchantillons++] = System.nanoTime() - Long.parseLong(texte.substring(i + 2).trim());
+            } catch (NumberFormatException e) {
+                nbEchantillons--;
+            }
+        }
+        nbLivres++;
+    }
+
+    private void afficherCentiles(PrintStream console) {
+        long[] l = Arrays.copyOf(echantillons, nbEchantillons);
+        if (l.length == 0)
+            return;
+        Arrays.sort(l);
+        console.println("Temps de livraison (ms) : p50 " + ms(l, 50) + ", p90 " + ms(l, 90) + ", p99 " + ms(l, 99)
+                + ", max " + String.format("%.3f", l[l.length - 1] / 1e6));
+    }
+
+    private static String ms(long[] l, int centile) {
+        return String.format("%.3f", l[Math.min(l.length - 1, (int) Math.ceil(l.length * centile / 100.0) - 1)] / 1e6);
+    }
+
+    private static void attendre(BooleanSupplier condition) {
+        long limite = System.currentTimeMillis() + ATTENTE_MAX;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < limite) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void supprimer(File f) {
+        File[] contenu = f.listFiles();
+        if (contenu != null)
+            for (File c : contenu)
+                supprimer(c);
+        f.delete();
+    }
+}
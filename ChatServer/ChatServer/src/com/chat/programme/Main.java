@@ -7,16 +7,17 @@ import com.chat.serveur.Serveur;
 import java.util.Scanner;
 
 /**
- * Programme simple de dmonstration d'un serveur. Le programme dmarre un serveur qui se met  couter
- * l'arrive de connexions.
+ * Programme simple de démonstration d'un serveur. Le programme démarre un serveur qui se met à écouter
+ * l'arrivée de connexions. Les lignes saisies dans la console, sauf EXIT, sont des commandes d'administration
+ * (voir CanalAdmin).
  *
- * @author Abdelmoumne Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
+ * @author Abdelmoumène Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
  * @version 1.0
  * @since 2023-09-01
  */
 public class Main {
 	/**
-	 * Mthode principale du programme.
+	 * Méthode principale du programme.
 	 *
 	 * @param args Arguments du programme
 	 */
@@ -30,10 +31,11 @@ public class Main {
             System.out.println("Serveur a l'ecoute sur le port " + serveur.getPort());
         }
 
-        System.out.println("Saisissez EXIT pour arreter le serveur.");
+        System.out.println("Saisissez EXIT pour arreter le serveur, HELP pour les commandes d'administration.");
         saisie = clavier.nextLine();
         while (!"EXIT".equals(saisie)) {
-            System.out.println("??? Saisissez EXIT pour arreter le serveur.");
+            if (serveur.getAdmin() != null && !saisie.trim().isEmpty())
+                System.out.println(serveur.getAdmin().executer(saisie));
             saisie = clavier.nextLine();
         }
         serveur.arreter();
@@ -0,0 +1,252 @@
+package com.chat.programme;
+
+import com.chat.serveur.Config;
+import com.commun.evenement.EvenementUtil;
+import com.commun.net.CaptureTrafic;
+import com.commun.net.Connexion;
+import com.commun.net.FabriqueSockets;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Programme qui rejoue contre un serveur le trafic capturé par un autre serveur (propriété système chat.capture,
+ * voir CaptureTrafic). Chaque connexion capturée est recréée et ses textes sont renvoyés dans le même ordre,
+ * au même rythme, plus vite ou aussi vite que possible. Le premier texte d'une connexion (l'alias) est renvoyé tel
+ * quel ; les suivants reçoivent un identifiant de requête (#identifiant) pour mesurer le temps de réponse du
+ * serveur, sauf PONG, ACK, RELIABLE et EXIT qui n'ont pas de réponse identifiée.
+ * <p>
+ * Utilisation : RejeuTrafic fichier [vitesse] [adresse] [port], où vitesse est 1 (rythme de la capture, par
+ * défaut), un facteur d'accélération (2 pour deux fois plus vite, 0.5 pour deux fois moins vite) ou max.
+ * Les reprises de session (RESUME) échouent contre un autre serveur : leurs jetons n'y existent pas.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class RejeuTrafic {
+    //Attente maximale des réponses après le dernier texte, en millisecondes :
+    private static final long ATTENTE_FIN = 5000;
+
+    private final String adresse;
+    private final int port;
+    //Facteur d'accélération, 0 pour rejouer aussi vite que possible :
+    private final double vitesse;
+    private final Map<Long, Rejouee> connexions = new HashMap<>();
+    //Moment d'envoi (System.nanoTime()) de chaque requête qui attend sa réponse :
+    private final Map<String, Long> enAttente = new ConcurrentHashMap<>();
+    private final AtomicLong compteurRequetes = new AtomicLong();
+    private final AtomicInteger nbRefus = new AtomicInteger();
+    private long[] latences = new long[1024];
+    private int nbLatences;
+    private long nbTextes, retardMax, retardTotal, finReponses;
+
+    /**
+     * Prépare le rejeu contre un serveur.
+     *
+     * @param adresse String l'adresse du serveur
+     * @param port    int le port du serveur
+     * @param vitesse double le facteur d'accélération, 0 pour rejouer aussi vite que possible
+     */
+    public RejeuTrafic(String adresse, int port, double vitesse) {
+        this.adresse = adresse;
+        this.port = port;
+        this.vitesse = vitesse;
+    }
+
+    /**
+     * Méthode principale du programme.
+     *
+     * @param args Arguments du programme : fichier [vitesse] [adresse] [port]
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Utilisation : RejeuTrafic fichier [vitesse|max] [adresse] [port]");
+            return;
+        }
+        double vitesse = 1;
+        if (args.length > 1)
+            vitesse = "max".equalsIgnoreCase(args[1]) ? 0 : Double.parseDouble(args[1]);
+        String adresse = args.length > 2 ? args[2] : "127.0.0.1";
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : Config.PORT_SERVEUR;
+
+        RejeuTrafic rejeu = new RejeuTrafic(adresse, port, vitesse);
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(args[0]))) {
+            rejeu.rejouer(new CaptureTrafic.Lecture(in));
+        } catch (IOException e) {
+            System.out.println("Rejeu erreur : " + e.getMessage());
+            return;
+        }
+        rejeu.afficherRapport();
+    }
+
+    /**
+     * Rejoue une capture, puis attend les réponses du serveur (au plus ATTENTE_FIN) et ferme les connexions.
+     *
+     * @param capture CaptureTrafic.Lecture la capture à rejouer
+     * @throws IOException si la capture ne peut pas être lue
+     */
+    public void rejouer(CaptureTrafic.Lecture capture) throws IOException {
+        CaptureTrafic.Enregistrement e;
+        Rejouee r;
+        long debut = System.nanoTime(), retard;
+
+        while ((e = capture.suivant()) != null) {
+            if (vitesse > 0) { //Attend le moment de l'enregistrement, à l'échelle
+                long cible = debut + (long) (e.moment * 1000 / vitesse);
+                while (cible - System.nanoTime() > 0)
+                    LockSupport.parkNanos(cible - System.nanoTime());
+                retard = System.nanoTime() - cible;
+                retardMax = Math.max(retardMax, retard);
+                retardTotal += retard;
+            }
+            switch (e.type) {
+                case CaptureTrafic.OUVERTURE:
+                    connexions.put(e.connexion, ouvrir());
+                    break;
+                case CaptureTrafic.TRAME:
+                    r = connexions.get(e.connexion);
+                    if (r == null) //Connexion ouverte avant le début de la capture
+                        connexions.put(e.connexion, r = ouvrir());
+                    if (r != null)
+                        envoyer(r, e.texte);
+                    break;
+                case CaptureTrafic.FERMETURE:
+                    r = connexions.remove(e.connexion);
+                    if (r != null) {
+                        r.aFermer = true;
+                        if (r.enAttente.get() == 0)
+                            r.cnx.close();
+                    }
+                    break;
+            }
+        }
+        long limite = System.currentTimeMillis() + ATTENTE_FIN;
+        while (!enAttente.isEmpty() && System.currentTimeMillis() < limite)
+            LockSupport.parkNanos(1000000);
+        for (Rejouee rejouee : connexions.values())
+            rejouee.cnx.close();
+        finReponses = System.nanoTime() - debut;
+    }
+
+    /**
+     * Affiche le nombre de textes envoyés, le débit obtenu et la répartition des temps de réponse du serveur.
+     */
+    public synchronized void afficherRapport() {
+        long[] l = Arrays.copyOf(latences, nbLatences);
+        Arrays.sort(l);
+        double duree = finReponses / 1e9;
+        System.out.println("Textes envoyes : " + nbTextes + " en " + String.format("%.3f", duree) + " s ("
+                + String.format("%.0f", nbTextes / Math.max(duree, 1e-9)) + " textes/s)");
+        System.out.println("Reponses : " + nbLatences + ", sans reponse : " + enAttente.size()
+                + ", THROTTLE : " + nbRefus.get());
+        if (l.length > 0)
+            System.out.println("Temps de reponse (ms) : p50 " + ms(centile(l, 50)) + ", p90 " + ms(centile(l, 90))
+                    + ", p99 " + ms(centile(l, 99)) + ", max " + ms(l[l.length - 1]));
+        if (vitesse > 0 && nbTextes > 0)
+            System.out.println("Retard sur la capture (ms) : moyen " + ms(retardTotal / nbTextes)
+                    + ", max " + ms(retardMax));
+    }
+
+    /*
+      Ouvre une connexion vers le serveur et démarre le thread qui lit ses réponses.
+    */
+    private Rejouee ouvrir() {
+        Connexion cnx;
+        try {
+            cnx = new Connexion(FabriqueSockets.creerSocket(adresse, port, Config.TLS));
+        } catch (IOException e) {
+            System.out.println("Rejeu erreur de connexion : " + e.getMessage());
+            return null;
+        }
+        Rejouee r = new Rejouee(cnx);
+        Thread lecteur = new Thread(() -> lireReponses(r));
+        lecteur.setDaemon(true);
+        lecteur.start();
+        return r;
+    }
+
+    /*
+      Envoie un texte capturé, avec un nouvel identifiant de requête s'il attend une réponse.
+    */
+    private void envoyer(Rejouee r, String texte) {
+        nbTextes++;
+        if (!r.identifiee) { //L'alias ou RESUME
+            r.identifiee = true;
+            r.cnx.envoyer(texte);
+            return;
+        }
+        texte = EvenementUtil.extraireIdRequete(texte)[1]; //Identifiant de la capture, remplacé par celui du rejeu
+        String commande = texte.indexOf(' ') < 0 ? texte : texte.substring(0, texte.indexOf(' '));
+        switch (commande) {
+            case "PONG":
+            case "ACK":
+            case "RELIABLE":
+            case "EXIT":
+                r.cnx.envoyer(texte);
+                break;
+            default:
+                String id = Long.toString(compteurRequetes.incrementAndGet());
+                r.enAttente.incrementAndGet();
+                enAttente.put(id, System.nanoTime());
+                r.cnx.envoyer("#" + id + " " + texte);
+        }
+    }
+
+    /*
+      Lit les réponses du serveur sur une connexion et note le temps de réponse des requêtes identifiées.
+    */
+    private void lireReponses(Rejouee r) {
+        String texte;
+        while ((texte = r.cnx.lireTexte()) != null) {
+            if (texte.startsWith("@") && texte.indexOf(' ') > 0) //Texte numéroté d'une connexion fiable
+                texte = texte.substring(texte.indexOf(' ') + 1);
+            if (!texte.startsWith("#") || texte.indexOf(' ') < 0)
+                continue;
+            Long envoi = enAttente.remove(texte.substring(1, texte.indexOf(' ')));
+            if (envoi == null)
+                continue;
+            noterLatence(System.nanoTime() - envoi);
+            if (texte.contains(" THROTTLE "))
+                nbRefus.incrementAndGet();
+            if (r.enAttente.decrementAndGet() == 0 && r.aFermer)
+                r.cnx.close();
+        }
+    }
+
+    private synchronized void noterLatence(long nanos) {
+        if (nbLatences == latences.length)
+            latences = Arrays.copyOf(latences, nbLatences * 2);
+        latences[nbLatences++] = nanos;
+    }
+
+    private static long centile(long[] l, int c) {
+        return l[Math.min(l.length - 1, (int) Math.ceil(l.length * c / 100.0) - 1)];
+    }
+
+    private static String ms(long nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+
+    /*
+      Connexion recréée pour une connexion de la capture.
+    */
+    private static final class Rejouee {
+        private final Connexion cnx;
+        //Nombre de requêtes de cette connexion qui attendent leur réponse :
+        private final AtomicInteger enAttente = new AtomicInteger();
+        private boolean identifiee;
+        private volatile boolean aFermer;
+
+        private Rejouee(Connexion cnx) {
+            this.cnx = cnx;
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.chat.serveur;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cette classe représente les boîtes aux lettres des utilisateurs absents : les messages privés qui leur sont
+ * envoyés sont conservés sur disque jusqu'à leur prochaine arrivée.
+ * <p>
+ * Les messages sont ajoutés à la fin d'un journal découpé en segments (fichiers segment-NNNNNN.log) : un
+ * enregistrement DEPOT par message et un enregistrement LIVRAISON quand des messages ont été livrés, avec le
+ * moment du dépôt du dernier d'entre eux (les messages déposés ensuite restent dans la boîte). Seules les positions
+ * des messages en attente sont gardées en mémoire (8 octets par message), par alias ; le texte des messages reste
+ * sur le disque. Au démarrage, l'index est reconstruit en relisant les segments dans l'ordre.
+ * <p>
+ * Les messages livrés laissent des enregistrements morts dans les segments. Quand ils occupent plus de la moitié
+ * du journal, un thread de compaction recopie les messages encore en attente dans un nouveau segment et supprime
+ * les anciens, pendant que les dépôts continuent dans le segment actif.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class BoitesAuxLettres {
+    private static final byte DEPOT = 1;
+    private static final byte LIVRAISON = 2;
+    //Une position est le numéro du segment (bits 40 et plus) suivi de la position dans le segment :
+    private static final int BITS_POSITION = 40;
+
+    private final File dossier;
+    private final long tailleSegment;
+    private final int tailleBoite;
+    //Segments ouverts, par numéro. Les enregistrements sont ajoutés au segment actif :
+    private final TreeMap<Integer, FileChannel> segments = new TreeMap<>();
+    private int actif;
+    private long finActif;
+    //Moment du dernier dépôt. Les moments des dépôts sont strictement croissants, pour que livrer() ne retire
+    //jamais un message déposé pendant la même milliseconde que le dernier message livré :
+    private long dernierDepot;
+    //Positions des messages en attente, par alias en minuscules :
+    private final Map<String, Boite> index = new HashMap<>();
+    //Taille du journal et taille des enregistrements qui ne servent plus, en tout et par segment :
+    private long octetsTotal, octetsMorts;
+    private final Map<Integer, Long> octetsMortsParSegment = new HashMap<>();
+    private final AtomicBoolean compactionEnCours = new AtomicBoolean();
+
+    /**
+     * Ouvre les boîtes aux lettres conservées dans un dossier, en le créant au besoin.
+     *
+     * @param dossier       File le dossier des segments
+     * @param tailleSegment long Taille (en octets) à partir de laquelle un nouveau segment est commencé
+     * @param tailleBoite   int Nombre maximal de messages en attente dans une boîte
+     * @throws IOException si le dossier ou les segments ne peuvent pas être lus
+     */
+    public BoitesAuxLettres(File dossier, long tailleSegment, int tailleBoite) throws IOException {
+        this.dossier = dossier;
+        this.tailleSegment = tailleSegment;
+        this.tailleBoite = tailleBoite;
+        if (!dossier.isDirectory() && !dossier.mkdirs())
+            throw new IOException("Impossible de creer le dossier " + dossier);
+        File[] fichiers = dossier.listFiles();
+        for (File f : fichiers == null ? new File[0] : fichiers) {
+            String nom = f.getName();
+            if (nom.endsWith(".tmp")) //Compaction interrompue
+                Files.delete(f.toPath());
+            else if (nom.startsWith("segment-") && nom.endsWith(".log")) {
+                int numero;
+                try {
+                    numero = Integer.parseInt(nom.substring(8, nom.length() - 4));
+                } catch (NumberFormatException e) { //Fichier étranger aux boîtes
+                    System.out.println("boites aux lettres : fichier ignore " + f);
+                    continue;
+                }
+                segments.put(numero, ouvrir(f));
+            }
+        }
+        for (Map.Entry<Integer, FileChannel> e : segments.entrySet())
+            relire(e.getKey(), e.getValue());
+        actif = segments.isEmpty() ? 1 : segments.lastKey();
+        if (segments.isEmpty())
+            segments.put(actif, ouvrir(fichierSegment(actif)));
+        finActif = segments.get(actif).size();
+    }
+
+    /**
+     * Dépose un message dans la boîte d'un utilisateur.
+     *
+     * @param alias      String l'alias du destinataire
+     * @param expediteur String l'alias de l'expéditeur
+     * @param texte      String le message
+     * @return boolean true si le message a été déposé, false si la boîte du destinataire est pleine
+     * @throws IOException si le message ne peut pas être écrit
+     */
+    public synchronized boolean deposer(String alias, String expediteur, String texte) throws IOException {
+        String cle = RegistreMembres.normaliser(alias);
+        Boite boite = index.get(cle);
+        if (boite != null && boite.nb >= tailleBoite)
+            return false;
+        dernierDepot = Math.max(System.currentTimeMillis(), dernierDepot + 1);
+        long position = ajouter(enregistrement(DEPOT, cle, dernierDepot, expediteur, texte));
+        if (boite == null)
+            index.put(cle, boite = new Boite());
+        boite.ajouter(position);
+        return true;
+    }
+
+    /**
+     * Retourne les messages en attente dans la boîte d'un utilisateur, du plus ancien au plus récent, sans vider
+     * la boîte : les messages n'en sont retirés que par livrer(), une fois envoyés. Le numéro de chaque message est
+     * le moment (en millisecondes) de son dépôt.
+     *
+     * @param alias String l'alias de l'utilisateur
+     * @return List&lt;MessageChat&gt; les messages en attente, la liste est vide si la boîte est vide
+     * @throws IOException si les messages ne peuvent pas être lus
+     */
+    public synchronized List<MessageChat> consulter(String alias) throws IOException {
+        List<MessageChat> messages = new ArrayList<>();
+        Boite boite = index.get(RegistreMembres.normaliser(alias));
+        for (int i = 0; boite != null && i < boite.nb; i++) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(lire(boite.positions[i])));
+            in.readByte();
+            in.readUTF();
+            messages.add(new MessageChat(in.readLong(), in.readUTF(), in.readUTF()));
+        }
+        return messages;
+    }
+
+    /**
+     * Retire de la boîte d'un utilisateur les messages qui lui ont été livrés : ceux déposés jusqu'au moment du
+     * dernier message livré. Les messages déposés ensuite restent dans la boîte, et un second appel pour la même
+     * livraison ne retire rien.
+     *
+     * @param alias   String l'alias de l'utilisateur
+     * @param dernier long le numéro (moment du dépôt) du dernier message livré, voir consulter()
+     * @throws IOException si la livraison ne peut pas être écrite
+     */
+    public void livrer(String alias, long dernier) throws IOException {
+        String cle = RegistreMembres.normaliser(alias);
+        boolean compacter;
+        synchronized (this) {
+            Boite boite = index.get(cle);
+            if (boite == null || retirerJusqua(boite, dernier) == 0)
+                return;
+            if (boite.nb == 0)
+                index.remove(cle);
+            byte[] livraison = enregistrement(LIVRAISON, cle, dernier, null, null);
+            mort(ajouter(livraison), livraison.length);
+            compacter = octetsMorts * 2 > octetsTotal && octetsTotal > tailleSegment;
+        }
+        if (compacter && compactionEnCours.compareAndSet(false, true)) {
+            Thread t = new Thread(this::compacter, "compaction-boites");
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    /*
+      Retire du début d'une boîte les messages déposés jusqu'au moment dernier, et les compte comme morts.
+      Retourne le nombre de messages retirés.
+    */
+    private int retirerJusqua(Boite boite, long dernier) throws IOException {
+        int n = 0;
+        while (n < boite.nb) {
+            byte[] octets = lire(boite.positions[n]);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(octets));
+            in.readByte();
+            in.readUTF();
+            if (in.readLong() > dernier)
+                break;
+            mort(boite.positions[n++], octets.length);
+        }
+        boite.retirerDebut(n);
+        return n;
+    }
+
+    /**
+     * Retourne le nombre de boîtes qui contiennent des messages en attente.
+     *
+     * @return int le nombre de boîtes non vides
+     */
+    public synchronized int getNbBoites() {
+        return index.size();
+    }
+
+    /**
+     * Ferme les fichiers des segments. Les dépôts et livraisons suivants échouent.
+     */
+    public synchronized void fermer() {
+        for (FileChannel canal : segments.values()) {
+            try {
+                canal.close();
+            } catch (IOException e) {
+            }
+        }
+        segments.clear();
+    }
+
+    /*
+      Recopie les messages en attente des segments terminés dans un nouveau segment, puis supprime ces segments.
+      Le nouveau segment prend un numéro inférieur à celui du nouveau segment actif : à la relecture, ses
+      messages restent avant ceux déposés pendant la compaction.
+    */
+    private void compacter() {
+        int compacte;
+        List<Integer> anciens;
+        //Nouvelle position et taille de chaque message recopié, par ancienne position :
+        Map<Long, long[]> deplacements = new HashMap<>();
+        File temporaire, fichier;
+
+        try {
+            synchronized (this) {
+                if (segments.isEmpty()) //Boîtes fermées
+                    return;
+                compacte = actif + 1;
+                actif = compacte + 1;
+                segments.put(actif, ouvrir(fichierSegment(actif)));
+                finActif = 0;
+                anciens = new ArrayList<>(segments.headMap(compacte).keySet());
+            }
+            fichier = fichierSegment(compacte);
+            temporaire = new File(dossier, fichier.getName() + ".tmp");
+            long copies = 0;
+            try (FileChannel sortie = FileChannel.open(temporaire.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (int numero : anciens) {
+                    FileChannel canal;
+                    synchronized (this) {
+                        canal = segments.get(numero);
+                    }
+                    long pos = 0, fin = canal.size();
+                    while (pos < fin) {
+                        long position = ((long) numero << BITS_POSITION) | pos;
+                        byte[] octets = lire(canal, pos);
+                        if (octets == null)
+                            break;
+                        pos += 4 + octets.length;
+                        if (octets[0] == DEPOT && enAttente(octets, position)) {
+                            deplacements.put(position, new long[]{((long) compacte << BITS_POSITION)
+                                    | sortie.position(), octets.length});
+                            ecrire(sortie, octets);
+                            copies += 4 + octets.length;
+                        }
+                    }
+                }
+                sortie.force(true);
+            }
+            //Un arrêt entre ce renommage et la suppression des anciens segments ferait livrer deux fois les
+            //messages recopiés (jamais zéro fois) :
+            Files.move(temporaire.toPath(), fichier.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            synchronized (this) {
+                segments.put(compacte, ouvrir(fichier));
+                octetsTotal += copies;
+                for (Boite boite : index.values()) {
+                    for (int i = 0; i < boite.nb; i++) {
+                        long[] d = deplacements.remove(boite.positions[i]);
+                        if (d != null)
+                            boite.positions[i] = d[0];
+                    }
+                }
+                //Les messages livrés pendant la copie ne sont plus dans l'index : leur copie est morte.
+                for (long[] d : deplacements.values())
+                    mort(d[0], (int) d[1]);
+                for (int numero : anciens) {
+                    FileChannel canal = segments.remove(numero);
+                    octetsTotal -= canal.size();
+                    Long morts = octetsMortsParSegment.remove(numero);
+                    octetsMorts -= morts == null ? 0 : morts;
+                    canal.close();
+                    Files.delete(fichierSegment(numero).toPath());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("boites aux lettres : compaction impossible : " + e.getMessage());
+        } finally {
+            compactionEnCours.set(false);
+        }
+    }
+
+    /*
+      Ajoute un enregistrement à la fin du segment actif, en commençant un nouveau segment si le segment actif
+      est plein. Retourne la position de l'enregistrement.
+    */
+    private long ajouter(byte[] octets) throws IOException {
+        if (segments.isEmpty())
+            throw new IOException("Boites aux lettres fermees");
+        if (finActif > 0 && finActif + 4 + octets.length > tailleSegment) {
+            actif++;
+            segments.put(actif, ouvrir(fichierSegment(actif)));
+            finActif = 0;
+        }
+        FileChannel canal = segments.get(actif);
+        long position = ((long) actif << BITS_POSITION) | finActif;
+        canal.position(finActif);
+        ecrire(canal, octets);
+        finActif += 4 + octets.length;
+        octetsTotal += 4 + octets.length;
+        return position;
+    }
+
+    /*
+      Relit un segment au démarrage pour reconstruire l'index. Un enregistrement incomplet (arrêt pendant une
+      écriture) termine le segment : il est tronqué à cet endroit. Une livraison écrite sans moment, par une
+      version précédente, vide toute la boîte.
+    */
+    private void relire(int numero, FileChannel canal) throws IOException {
+        long pos = 0;
+        byte[] octets;
+        while ((octets = lire(canal, pos)) != null) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(octets));
+            byte type = in.readByte();
+            String cle = in.readUTF();
+            if (type == DEPOT) {
+                dernierDepot = Math.max(dernierDepot, in.readLong());
+                Boite boite = index.get(cle);
+                if (boite == null)
+                    index.put(cle, boite = new Boite());
+                boite.ajouter(((long) numero << BITS_POSITION) | pos);
+            } else {
+                long dernier = in.available() >= 8 ? in.readLong() : Long.MAX_VALUE;
+                Boite boite = index.get(cle);
+                if (boite != null) {
+                    retirerJusqua(boite, dernier);
+                    if (boite.nb == 0)
+                        index.remove(cle);
+                }
+                mort(((long) numero << BITS_POSITION) | pos, octets.length);
+            }
+            pos += 4 + octets.length;
+        }
+        if (pos < canal.size())
+            canal.truncate(pos);
+        octetsTotal += pos;
+    }
+
+    private boolean enAttente(byte[] octets, long position) throws IOException {
+        String cle = new DataInputStream(new ByteArrayInputStream(octets, 1, octets.length - 1)).readUTF();
+        synchronized (this) {
+            Boite boite = index.get(cle);
+            return boite != null && boite.contient(position);
+        }
+    }
+
+    /*
+      Compte comme mort l'enregistrement (de taille longueur, sans sa longueur) qui commence à position.
+    */
+    private void mort(long position, int longueur) {
+        octetsMorts += 4 + longueur;
+        octetsMortsParSegment.merge((int) (position >>> BITS_POSITION), 4L + longueur, Long::sum);
+    }
+
+    private byte[] lire(long position) throws IOException {
+        FileChannel canal = segments.get((int) (position >>> BITS_POSITION));
+        byte[] octets = canal == null ? null : lire(canal, position & ((1L << BITS_POSITION) - 1));
+        if (octets == null)
+            throw new IOException("Enregistrement introuvable : " + Long.toHexString(position));
+        return octets;
+    }
+
+    /*
+      Lit l'enregistrement (sans sa longueur) qui commence à pos, ou retourne null s'il est incomplet.
+    */
+    private static byte[] lire(FileChannel canal, long pos) throws IOException {
+        ByteBuffer longueur = ByteBuffer.allocate(4);
+        if (canal.read(longueur, pos) < 4)
+            return null;
+        int n = longueur.getInt(0);
+        if (n <= 0 || pos + 4 + n > canal.size())
+            return null;
+        ByteBuffer octets = ByteBuffer.allocate(n);
+        while (octets.hasRemaining() && canal.read(octets, pos + 4 + octets.position()) > 0) ;
+        return octets.hasRemaining() ? null : octets.array();
+    }
+
+    private static void ecrire(FileChannel canal, byte[] octets) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(4 + octets.length);
+        b.putInt(octets.length).put(octets).flip();
+        while (b.hasRemaining())
+            canal.write(b);
+    }
+
+    private static byte[] enregistrement(byte type, String cle, long moment, String expediteur, String texte)
+            throws IOException {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(octets);
+        out.writeByte(type);
+        out.writeUTF(cle);
+        out.writeLong(moment);
+        if (type == DEPOT) {
+            out.writeUTF(expediteur);
+            out.writeUTF(texte);
+        }
+        return octets.toByteArray();
+    }
+
+    private File fichierSegment(int numero) {
+        return new File(dossier, String.format("segment-%06d.log", numero));
+    }
+
+    private static FileChannel ouvrir(File f) throws IOException {
+        return FileChannel.open(f.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    /*
+      Positions des messages en attente d'une boîte, dans l'ordre des dépôts.
+    */
+    private static final class Boite {
+        private long[] positions = new long[2];
+        private int nb;
+
+        private void ajouter(long position) {
+            if (nb == positions.length)
+                positions = Arrays.copyOf(positions, nb * 2);
+            positions[nb++] = position;
+        }
+
+        private void retirerDebut(int n) {
+            System.arraycopy(positions, n, positions, 0, nb - n);
+            nb -= n;
+        }
+
+        private boolean contient(long position) {
+            for (int i = 0; i < nb; i++)
+                if (positions[i] == position)
+                    return true;
+            return false;
+        }
+    }
+}
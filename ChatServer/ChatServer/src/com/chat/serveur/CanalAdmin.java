@@ -0,0 +1,257 @@
+package com.chat.serveur;
+
+import com.commun.net.Connexion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cette classe représente le canal d'administration d'un serveur : des commandes texte, une par ligne, pour
+ * consulter l'état du serveur et modifier ses paramètres pendant son fonctionnement, sans déconnecter les clients.
+ * Les commandes arrivent par un port qui n'accepte que les connexions locales (Config.PORT_ADMIN, utilisable par
+ * exemple avec nc localhost port) ou par la console du serveur (voir Main). Commandes :
+ * <ul>
+ * <li>STATS : statistiques du serveur ;</li>
+ * <li>CONNEXIONS : une ligne par connecté ;</li>
+ * <li>KICK alias|id : déconnecte un client ;</li>
+ * <li>GET [nom] : valeur de tous les paramètres ou d'un seul ;</li>
+ * <li>SET nom valeur : modifie un paramètre ;</li>
+ * <li>HELP : liste des commandes ; QUIT : ferme la connexion d'administration.</li>
+ * </ul>
+ * Le serveur peut ajouter ses propres commandes (voir definirCommande()).
+ * La réponse à chaque commande se termine par une ligne OK ou ERREUR suivie de la raison.
+ * <p>
+ * Les paramètres sont définis par le serveur (voir Serveur.definirParametres()) : chacun est lu et modifié par
+ * des fonctions qui agissent directement sur le composant concerné.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class CanalAdmin {
+    private final Serveur serveur;
+    private final Map<String, Parametre> parametres = new ConcurrentSkipListMap<>();
+    private final Map<String, Function<String, String>> commandes = new ConcurrentSkipListMap<>();
+    private ServerSocket serverSocket;
+
+    /**
+     * Construit le canal d'administration d'un serveur, sans paramètre et sans port.
+     *
+     * @param serveur Serveur le serveur administré
+     */
+    public CanalAdmin(Serveur serveur) {
+        this.serveur = serveur;
+    }
+
+    /**
+     * Définit un paramètre entier.
+     *
+     * @param nom         String le nom du paramètre
+     * @param description String ce que le paramètre règle, avec son unité
+     * @param min         long la plus petite valeur acceptée
+     * @param max         long la plus grande valeur acceptée
+     * @param lire        LongSupplier donne la valeur en vigueur
+     * @param ecrire      LongConsumer applique une nouvelle valeur
+     */
+    public void definir(String nom, String description, long min, long max, LongSupplier lire, LongConsumer ecrire) {
+        parametres.put(nom, new Parametre(description, () -> String.valueOf(lire.getAsLong()), texte -> {
+            long v = Long.parseLong(texte);
+            if (v < min || v > max)
+                throw new IllegalArgumentException("valeur hors de [" + min + ", " + max + "]");
+            ecrire.accept(v);
+        }));
+    }
+
+    /**
+     * Définit un paramètre réel, strictement positif.
+     *
+     * @param nom         String le nom du paramètre
+     * @param description String ce que le paramètre règle, avec son unité
+     * @param lire        DoubleSupplier donne la valeur en vigueur
+     * @param ecrire      DoubleConsumer applique une nouvelle valeur
+     */
+    public void definirReel(String nom, String description, DoubleSupplier lire, DoubleConsumer ecrire) {
+        parametres.put(nom, new Parametre(description, () -> String.valueOf(lire.getAsDouble()), texte -> {
+            double v = Double.parseDouble(texte);
+            if (!(v > 0) || Double.isInfinite(v))
+                throw new IllegalArgumentException("valeur non positive");
+            ecrire.accept(v);
+        }));
+    }
+
+    /**
+     * Ajoute une commande d'administration.
+     *
+     * @param nom    String le nom de la commande, en majuscules
+     * @param action Function reçoit les arguments de la commande (chaîne vide s'il n'y en a pas) et retourne la
+     *               réponse, sans la ligne OK ; peut lever IllegalArgumentException pour répondre ERREUR
+     */
+    public void definirCommande(String nom, Function<String, String> action) {
+        commandes.put(nom, action);
+    }
+
+    /**
+     * Ouvre le port d'administration, sur l'adresse locale seulement. Chaque administrateur connecté est servi par
+     * son propre thread.
+     *
+     * @param port int le port, 0 pour un port choisi par le système
+     * @throws IOException si le port ne peut pas être ouvert
+     */
+    public void ouvrir(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 5, InetAddress.getLoopbackAddress());
+        demarrer("admin", () -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket s = serverSocket.accept();
+                    demarrer("admin " + s.getPort(), () -> servir(s));
+                } catch (IOException e) {
+                    //Port fermé : fin du thread
+                }
+            }
+        });
+    }
+
+    /**
+     * Retourne le port d'administration.
+     *
+     * @return int le port, ou -1 s'il n'est pas ouvert
+     */
+    public int getPort() {
+        return (serverSocket == null) ? -1 : serverSocket.getLocalPort();
+    }
+
+    /**
+     * Ferme le port d'administration. Les administrateurs connectés peuvent finir leur commande.
+     */
+    public void fermer() {
+        try {
+            if (serverSocket != null)
+                serverSocket.close();
+        } catch (IOException e) {
+            System.out.println("admin erreur : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exécute une commande d'administration.
+     *
+     * @param ligne String la commande et ses arguments
+     * @return String la réponse, dont la dernière ligne est OK ou ERREUR suivie de la raison
+     */
+    public String executer(String ligne) {
+        String[] t = ligne.trim().split("\\s+", 3);
+        Function<String, String> action;
+        String commande = t[0].toUpperCase();
+        StringBuilder s = new StringBuilder();
+        try {
+            switch (commande) {
+                case "STATS":
+                    s.append(serveur.getStatistiques()).append('\n');
+                    break;
+                case "CONNEXIONS":
+                    long maintenant = System.currentTimeMillis();
+                    for (Connexion cnx : serveur.getConnectes())
+                        s.append("id=").append(cnx.getId()).append(" alias=").append(cnx.getAlias())
+                                .append(" membre=").append(cnx.getMembre())
+                                .append(" inactif=").append(maintenant - cnx.getDerniereReception()).append("ms")
+                                .append(" attente=").append(cnx.getNbEnAttente())
+                                .append(" abandonnes=").append(cnx.getNbAbandonnes())
+                                .append(" fiable=").append(cnx.isFiable() ? "oui" : "non")
+                                .append(" erreur=").append(cnx.isEnErreur() ? "oui" : "non").append('\n');
+                    break;
+                case "KICK":
+                    if (t.length < 2)
+                        return "ERREUR KICK alias|id";
+                    if (!serveur.exclure(t[1]))
+                        return "ERREUR " + t[1] + " n'est pas connecte";
+                    break;
+                case "GET":
+                    for (Map.Entry<String, Parametre> e : parametres.entrySet())
+                        if (t.length < 2 || e.getKey().equals(t[1]))
+                            s.append(e.getKey()).append(" = ").append(e.getValue().lire.get())
+                                    .append("  (").append(e.getValue().description).append(")\n");
+                    if (t.length >= 2 && s.length() == 0)
+                        return "ERREUR parametre inconnu : " + t[1];
+                    break;
+                case "SET":
+                    if (t.length < 3)
+                        return "ERREUR SET nom valeur";
+                    Parametre p = parametres.get(t[1]);
+                    if (p == null)
+                        return "ERREUR parametre inconnu : " + t[1];
+                    p.ecrire.accept(t[2].trim());
+                    System.out.println("admin : " + t[1] + " = " + p.lire.get());
+                    s.append(t[1]).append(" = ").append(p.lire.get()).append('\n');
+                    break;
+                case "HELP":
+                    s.append("STATS | CONNEXIONS | KICK alias|id | GET [nom] | SET nom valeur | QUIT");
+                    for (String nom : commandes.keySet())
+                        s.append(" | ").append(nom);
+                    s.append('\n');
+                    break;
+                default:
+                    action = commandes.get(commande);
+                    if (action == null)
+                        return "ERREUR commande inconnue (HELP pour la liste)";
+                    String reponse = action.apply(ligne.trim().substring(t[0].length()).trim());
+                    if (!reponse.isEmpty())
+                        s.append(reponse).append('\n');
+            }
+        } catch (IllegalArgumentException e) { //Y compris NumberFormatException
+            return "ERREUR " + e.getMessage();
+        }
+        return s.append("OK").toString();
+    }
+
+    /*
+      Sert un administrateur connecté jusqu'à QUIT ou la fermeture de sa connexion.
+    */
+    private void servir(Socket s) {
+        try (Socket socket = s;
+             BufferedReader entree = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                     StandardCharsets.UTF_8));
+             PrintWriter sortie = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(),
+                     StandardCharsets.UTF_8), true)) {
+            String ligne;
+            while ((ligne = entree.readLine()) != null && !"QUIT".equalsIgnoreCase(ligne.trim()))
+                if (!ligne.trim().isEmpty())
+                    sortie.println(executer(ligne));
+        } catch (IOException e) {
+            //Administrateur déconnecté
+        }
+    }
+
+    private static void demarrer(String nom, Runnable r) {
+        Thread t = new Thread(r, nom);
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private static final class Parametre {
+        private final String description;
+        private final Supplier<String> lire;
+        private final Consumer<String> ecrire;
+
+        private Parametre(String description, Supplier<String> lire,
+                          Consumer<String> ecrire) {
+            this.description = description;
+            this.lire = lire;
+            this.ecrire = ecrire;
+        }
+    }
+}
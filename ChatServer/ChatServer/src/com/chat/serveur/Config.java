@@ -1,11 +1,147 @@
 package com.chat.serveur;
 
 /**
- * Informations sur un serveur, utilises par dfaut.
+ * Informations sur un serveur, utilisées par défaut.
  */
 public interface Config {
     /**
-     * Port d'coute du serveur.
+     * Port d'écoute du serveur.
      */
     int PORT_SERVEUR = 8888;
+    /**
+     * Indique si les connexions sont chiffrées avec TLS (propriété système chat.tls). Voir FabriqueSockets.
+     */
+    boolean TLS = Boolean.getBoolean("chat.tls");
+    /**
+     * Port du canal d'administration, qui n'accepte que les connexions locales (propriété système chat.admin).
+     * Pas de canal d'administration si la propriété n'est pas spécifiée. Voir CanalAdmin.
+     */
+    int PORT_ADMIN = Integer.getInteger("chat.admin", -1);
+    /**
+     * Délai (en millisecondes) laissé à un client pour terminer la poignée de main TLS.
+     */
+    long DELAI_POIGNEE_TLS = 10 * 1000;
+
+    /**
+     * Nombre maximal de messages conservés dans l'historique du chat public.
+     */
+    int TAILLE_HISTORIQUE = 1000;
+    /**
+     * Durée de validité (en millisecondes) d'un jeton de reprise de session.
+     */
+    long DUREE_SESSION = 5 * 60 * 1000;
+    /**
+     * Nombre moyen de commandes par seconde autorisées pour chaque client.
+     */
+    double DEBIT_COMMANDES = 20;
+    /**
+     * Nombre maximal de commandes qu'un client peut envoyer d'un coup.
+     */
+    int RAFALE_COMMANDES = 40;
+    /**
+     * Nombre moyen de messages (MSG) par seconde autorisés pour chaque client.
+     */
+    double DEBIT_MSG = 5;
+    /**
+     * Nombre maximal de messages (MSG) qu'un client peut envoyer d'un coup.
+     */
+    int RAFALE_MSG = 10;
+    /**
+     * Nombre de commandes refusées par minute au-delà duquel un client est déconnecté.
+     */
+    int INFRACTIONS_MAX = 100;
+    /**
+     * Délai (en millisecondes) d'inactivité d'un client après lequel le serveur lui envoie PING.
+     */
+    long DELAI_PING = 30 * 1000;
+    /**
+     * Délai (en millisecondes) d'inactivité après lequel un client qui ne répond pas est déconnecté.
+     */
+    long DELAI_INACTIVITE = 90 * 1000;
+    /**
+     * Délai (en millisecondes) laissé à un nouveau client pour fournir son alias.
+     */
+    long DELAI_IDENTIFICATION = 30 * 1000;
+    /**
+     * Durée (en millisecondes) d'un tick de la roue temporelle qui surveille les délais.
+     */
+    long DUREE_TICK = 100;
+    /**
+     * Nombre de cases de la roue temporelle qui surveille les délais.
+     */
+    int NB_CASES_ROUE = 512;
+    /**
+     * Délai (en millisecondes) pendant lequel les arrivées et départs des membres sont regroupés avant d'être
+     * envoyés aux connectés.
+     */
+    long DELAI_PRESENCE = 250;
+    /**
+     * Taille (en octets) de la fenêtre de retransmission de chaque client qui demande une connexion fiable.
+     */
+    int TAILLE_FENETRE = 64 * 1024;
+    /**
+     * Dossier des boîtes aux lettres des utilisateurs absents (propriété système chat.boites).
+     */
+    String DOSSIER_BOITES = System.getProperty("chat.boites", "boites");
+    /**
+     * Taille (en octets) des segments du journal des boîtes aux lettres.
+     */
+    long TAILLE_SEGMENT_BOITES = 16 * 1024 * 1024;
+    /**
+     * Nombre maximal de messages en attente dans la boîte aux lettres d'un utilisateur.
+     */
+    int TAILLE_BOITE = 1000;
+    /**
+     * Nombre de messages de sa boîte aux lettres envoyés ensemble à un utilisateur qui arrive.
+     */
+    int LOT_BOITE = 50;
+    /**
+     * Dossier du journal des messages du chat public et de son index de recherche (propriété système
+     * chat.historique).
+     */
+    String DOSSIER_HISTORIQUE = System.getProperty("chat.historique", "historique");
+    /**
+     * Nombre maximal de messages renvoyés par une recherche (SEARCH).
+     */
+    int RESULTATS_RECHERCHE = 20;
+    /**
+     * Nombre moyen de recherches (SEARCH) par seconde autorisées pour chaque client.
+     */
+    double DEBIT_RECHERCHE = 2;
+    /**
+     * Nombre maximal de recherches (SEARCH) qu'un client peut envoyer d'un coup.
+     */
+    int RAFALE_RECHERCHE = 5;
+    /**
+     * Nombre maximal d'alias que chaque utilisateur peut ignorer (IGNORE).
+     */
+    int MAX_IGNORES = 200;
+    /**
+     * Dossier des listes de termes interdits, un fichier type.txt par type de texte filtré (propriété système
+     * chat.filtres). Voir FiltreContenu.
+     */
+    String DOSSIER_FILTRES = System.getProperty("chat.filtres", "filtres");
+    /**
+     * Fichier où le trafic reçu des clients est capturé, pour être rejoué avec RejeuTrafic (propriété système
+     * chat.capture). Pas de capture si la propriété n'est pas spécifiée.
+     */
+    String FICHIER_CAPTURE = System.getProperty("chat.capture");
+    /**
+     * Nombre de threads qui traitent les commandes des clients (propriété système chat.traitement), un par
+     * processeur par défaut. 0 pour les traiter dans le thread de lecture. Voir PoolTraitement.
+     */
+    int NB_THREADS_TRAITEMENT = Integer.getInteger("chat.traitement", Runtime.getRuntime().availableProcessors());
+    /**
+     * Nombre maximal de lots de commandes en attente dans la file de chaque thread de traitement.
+     */
+    int TAILLE_FILE_TRAITEMENT = 256;
+    /**
+     * Longueur maximale (en octets) d'un texte reçu d'un client. Un client qui envoie un texte plus long est
+     * déconnecté. Voir Connexion.setTailleMaxTrame().
+     */
+    int TAILLE_MAX_TRAME = 64 * 1024;
+
+
+
+
 }
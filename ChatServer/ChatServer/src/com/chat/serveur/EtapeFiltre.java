@@ -0,0 +1,59 @@
+package com.chat.serveur;
+
+import com.commun.evenement.Evenement;
+import com.commun.evenement.EvenementUtil;
+import com.commun.net.Connexion;
+
+import java.util.List;
+
+/**
+ * Cette classe représente l'étape du pipeline qui filtre les termes interdits (voir FiltreContenu) dans les
+ * messages du chat public (MSG texte) et les messages privés (PRV alias texte). Un message dont les termes sont
+ * masqués est remplacé dans le lot ; un message rejeté en est enlevé et l'expéditeur reçoit FILTERED MSG ou
+ * FILTERED PRV.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class EtapeFiltre extends EtapePipeline {
+    private final FiltreContenu filtre;
+
+    /**
+     * Construit l'étape de filtrage.
+     *
+     * @param filtre FiltreContenu le filtre des termes interdits
+     */
+    public EtapeFiltre(FiltreContenu filtre) {
+        super("filtre");
+        this.filtre = filtre;
+    }
+
+    @Override
+    protected void entree(Connexion cnx, List<Evenement> lot) {
+        int n = 0;
+        for (int i = 0; i < lot.size(); i++) {
+            Evenement evenement = lot.get(i);
+            String type = evenement.getType(), argument = evenement.getArgument(), texte;
+            switch (type) {
+                case "MSG":
+                    texte = filtre.filtrer(type, cnx.getAlias(), argument);
+                    if (texte != argument && texte != null)
+                        evenement = new Evenement(cnx, type, texte, evenement.getIdRequete());
+                    break;
+                case "PRV":
+                    String[] t = EvenementUtil.extraireInfosEvenement(argument);
+                    texte = filtre.filtrer(type, cnx.getAlias(), t[1]);
+                    if (texte != t[1] && texte != null)
+                        evenement = new Evenement(cnx, type, t[0] + " " + texte, evenement.getIdRequete());
+                    break;
+                default:
+                    texte = "";
+            }
+            if (texte == null)
+                repondre(evenement, "FILTERED " + type);
+            else
+                lot.set(n++, evenement);
+        }
+        lot.subList(n, lot.size()).clear();
+    }
+}
@@ -0,0 +1,57 @@
+package com.chat.serveur;
+
+import com.commun.evenement.Evenement;
+import com.commun.net.Connexion;
+
+import java.util.List;
+
+/**
+ * Cette classe représente l'étape du pipeline qui limite le nombre de commandes de chaque client (voir
+ * LimiteurDebit). Les commandes qui dépassent le débit autorisé sont enlevées du lot ; le client est averti par
+ * THROTTLE, et une requête identifiée reçoit toujours sa réponse THROTTLE. Le client qui en envoie trop est
+ * déconnecté et le reste de son lot n'est pas traité.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class EtapeLimiteur extends EtapePipeline {
+    private final Serveur serveur;
+    private final LimiteurDebit limiteur;
+
+    /**
+     * Construit l'étape de limitation d'un serveur.
+     *
+     * @param serveur  Serveur le serveur, qui déconnecte les clients exclus
+     * @param limiteur LimiteurDebit le limiteur du serveur
+     */
+    public EtapeLimiteur(Serveur serveur, LimiteurDebit limiteur) {
+        super("limiteur");
+        this.serveur = serveur;
+        this.limiteur = limiteur;
+    }
+
+    @Override
+    protected void entree(Connexion cnx, List<Evenement> lot) {
+        int n = 0;
+        for (int i = 0; i < lot.size(); i++) {
+            Evenement evenement = lot.get(i);
+            LimiteurDebit.Decision decision = limiteur.verifier(cnx, evenement.getType());
+            switch (decision) {
+                case ACCEPTER:
+                    lot.set(n++, evenement);
+                    break;
+                case EXCLURE:
+                    System.out.println(cnx.getAlias() + " exclu : trop de commandes");
+                    cnx.envoyer("END");
+                    serveur.enlever(cnx);
+                    serveur.fermerPlusTard(cnx); //Pas dans le thread de lecture
+                    lot.clear();
+                    return;
+                default: //Commande ignorée. Une requête identifiée reçoit toujours une réponse.
+                    if (evenement.getIdRequete() != null || decision == LimiteurDebit.Decision.AVERTIR)
+                        repondre(evenement, "THROTTLE " + evenement.getType());
+            }
+        }
+        lot.subList(n, lot.size()).clear();
+    }
+}
@@ -0,0 +1,78 @@
+package com.chat.serveur;
+
+import com.commun.evenement.Evenement;
+import com.commun.net.Connexion;
+
+import java.util.List;
+
+/**
+ * Cette classe représente une étape du pipeline des événements d'un serveur (voir PipelineEvenements) : limitation
+ * du débit, filtrage, mesures... Une étape peut agir dans les deux sens :
+ * <ul>
+ * <li>en entrée, elle reçoit d'un coup tous les événements d'une connexion arrivés depuis la lecture précédente.
+ * Elle peut les enlever du lot, les remplacer ou répondre elle-même au client (voir repondre()) ;</li>
+ * <li>en sortie, elle reçoit chaque réponse envoyée au client qui a fait une requête, et peut la modifier ou la
+ * supprimer.</li>
+ * </ul>
+ * Par défaut, une étape laisse tout passer dans les deux sens.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public abstract class EtapePipeline {
+    private final String nom;
+    //Pipeline dans lequel l'étape a été ajoutée :
+    PipelineEvenements pipeline;
+    //Nombre d'événements reçus en entrée et retenus (enlevés du lot), comptés par le pipeline :
+    volatile long nbRecus, nbRetenus;
+
+    /**
+     * Construit une étape.
+     *
+     * @param nom String le nom de l'étape, affiché dans les statistiques du pipeline
+     */
+    protected EtapePipeline(String nom) {
+        this.nom = nom;
+    }
+
+    /**
+     * Traite les événements arrivés d'une connexion, avant les étapes suivantes et le gestionnaire d'événements.
+     * Les événements restés dans le lot sont passés à l'étape suivante.
+     *
+     * @param cnx Connexion la connexion qui a envoyé les événements
+     * @param lot List les événements, dans l'ordre d'arrivée ; la liste peut être modifiée
+     */
+    protected void entree(Connexion cnx, List<Evenement> lot) {
+    }
+
+    /**
+     * Traite une réponse envoyée à un client, après les étapes suivantes.
+     *
+     * @param cnx    Connexion la connexion du client
+     * @param reponse String la réponse
+     * @return String la réponse à envoyer, ou null pour ne rien envoyer
+     */
+    protected String sortie(Connexion cnx, String reponse) {
+        return reponse;
+    }
+
+    /**
+     * Répond à un événement à la place du gestionnaire d'événements. La réponse passe par la sortie de toutes les
+     * étapes du pipeline.
+     *
+     * @param evenement Evenement l'événement
+     * @param reponse   String la réponse, sans l'identifiant de la requête
+     */
+    protected final void repondre(Evenement evenement, String reponse) {
+        pipeline.repondre(evenement, reponse);
+    }
+
+    /**
+     * Retourne le nom de l'étape.
+     *
+     * @return String le nom de l'étape
+     */
+    public String getNom() {
+        return nom;
+    }
+}
@@ -0,0 +1,262 @@
+package com.chat.serveur;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cette classe représente le filtre des termes interdits dans les textes envoyés par les clients. Chaque type de
+ * texte filtré (MSG pour le chat public, PRV pour les messages privés...) a sa liste de termes, lue dans le fichier
+ * type.txt du dossier des filtres, et son action :
+ * <ul>
+ * <li>MASQUER : les termes trouvés sont remplacés par des * ;</li>
+ * <li>REJETER : le texte n'est pas envoyé ;</li>
+ * <li>SIGNALER : le texte est envoyé tel quel et signalé dans la console du serveur.</li>
+ * </ul>
+ * Dans un fichier de liste, chaque ligne est un terme, sauf les lignes vides, les commentaires (#...) et la ligne
+ * "action MASQUER|REJETER|SIGNALER" (MASQUER par défaut). Les termes sont cherchés sans tenir compte de la casse,
+ * n'importe où dans le texte.
+ * <p>
+ * Chaque liste est compilée en automate d'Aho-Corasick déterminisé : un tableau de transitions par état et par
+ * classe de caractère (les caractères qui n'apparaissent dans aucun terme forment une seule classe). Le texte est
+ * parcouru une seule fois, un accès au tableau par caractère, quel que soit le nombre de termes. Les listes peuvent
+ * être rechargées pendant le fonctionnement du serveur : les nouveaux automates sont compilés à part, puis mis en
+ * place d'un coup ; les textes en cours de filtrage finissent avec les anciens.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class FiltreContenu {
+
+    /**
+     * Action appliquée aux textes qui contiennent un terme interdit.
+     */
+    public enum Action {
+        /**
+         * Les termes trouvés sont remplacés par des *.
+         */
+        MASQUER,
+        /**
+         * Le texte n'est pas envoyé.
+         */
+        REJETER,
+        /**
+         * Le texte est envoyé tel quel et signalé dans la console du serveur.
+         */
+        SIGNALER
+    }
+
+    //Automate de chaque type de texte filtré :
+    private final AtomicReference<Map<String, Automate>> automates =
+            new AtomicReference<>(Collections.<String, Automate>emptyMap());
+    private final AtomicLong nbMasques = new AtomicLong(), nbRejetes = new AtomicLong(),
+            nbSignales = new AtomicLong();
+
+    /**
+     * Charge les listes du dossier des filtres, un fichier type.txt par type de texte, et remplace d'un coup toutes
+     * les listes en vigueur. Si le dossier n'existe pas, plus aucun texte n'est filtré.
+     *
+     * @param dossier File le dossier des filtres
+     * @return String le résumé des listes chargées : type (action, nombre de termes) ...
+     * @throws IOException si un fichier ne peut pas être lu ; les listes en vigueur sont alors conservées
+     */
+    public String charger(File dossier) throws IOException {
+        Map<String, Automate> nouveaux = new HashMap<>();
+        StringBuilder resume = new StringBuilder();
+        File[] fichiers = dossier.listFiles((d, nom) -> nom.endsWith(".txt"));
+        if (fichiers != null) {
+            Arrays.sort(fichiers);
+            for (File f : fichiers) {
+                String type = f.getName().substring(0, f.getName().length() - 4);
+                Automate a = compiler(Files.readAllLines(f.toPath(), StandardCharsets.UTF_8));
+                nouveaux.put(type, a);
+                resume.append(resume.length() == 0 ? "" : ", ").append(type).append(" (").append(a.action)
+                        .append(", ").append(a.nbTermes).append(" termes)");
+            }
+        }
+        automates.set(nouveaux);
+        return resume.length() == 0 ? "aucune liste" : resume.toString();
+    }
+
+    /**
+     * Filtre un texte envoyé par un client.
+     *
+     * @param type  String le type du texte, par exemple "MSG"
+     * @param alias String l'alias de l'expéditeur, pour le signalement
+     * @param texte String le texte
+     * @return String le texte à envoyer (le même objet s'il ne contient aucun terme interdit), ou null s'il est
+     * rejeté
+     */
+    public String filtrer(String type, String alias, String texte) {
+        Automate a = automates.get().get(type);
+        if (a == null)
+            return texte;
+        char[] masque = null;
+        int etat = 0;
+        for (int i = 0, n = texte.length(); i < n; i++) {
+            etat = a.transitions[etat * a.nbClasses + a.classe(Character.toLowerCase(texte.charAt(i)))];
+            int longueur = a.sorties[etat];
+            if (longueur == 0)
+                continue;
+            switch (a.action) {
+                case REJETER:
+                    nbRejetes.incrementAndGet();
+                    return null;
+                case SIGNALER:
+                    nbSignales.incrementAndGet();
+                    System.out.println("filtre : " + alias + " (" + type + ") " + texte);
+                    return texte;
+                default:
+                    if (masque == null)
+                        masque = texte.toCharArray();
+                    Arrays.fill(masque, i - longueur + 1, i + 1, '*');
+            }
+        }
+        if (masque == null)
+            return texte;
+        nbMasques.incrementAndGet();
+        return new String(masque);
+    }
+
+    /**
+     * Retourne les statistiques du filtre.
+     *
+     * @return String le nombre de textes masqués, rejetés et signalés
+     */
+    public String getStatistiques() {
+        return "masques " + nbMasques.get() + ", rejetes " + nbRejetes.get() + ", signales " + nbSignales.get();
+    }
+
+    /*
+      Compile une liste : lit l'action et les termes, construit le trie des termes, puis calcule les liens d'échec
+      en largeur et en déduit toutes les transitions.
+    */
+    private static Automate compiler(List<String> lignes) throws IOException {
+        Action action = Action.MASQUER;
+        List<String> termes = new ArrayList<>();
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (String ligne : lignes) {
+            String l = ligne.trim();
+            if (l.isEmpty() || l.startsWith("#"))
+                continue;
+            if (l.startsWith("action ")) {
+                try {
+                    action = Action.valueOf(l.substring(7).trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("action inconnue : " + l.substring(7).trim());
+                }
+                continue;
+            }
+            char[] terme = l.toCharArray(); //En minuscules caractère par caractère, comme le texte filtré
+            for (int i = 0; i < terme.length; i++)
+                alphabet.add(terme[i] = Character.toLowerCase(terme[i]));
+            termes.add(new String(terme));
+        }
+        Automate a = new Automate(action, termes.size(), alphabet);
+
+        //Trie : transitions à -1 tant qu'elles ne mènent à aucun nœud
+        int k = a.nbClasses, nbEtats = 1;
+        int[] t = new int[16 * k], sorties = new int[16];
+        Arrays.fill(t, -1);
+        for (String terme : termes) {
+            int etat = 0;
+            for (int i = 0; i < terme.length(); i++) {
+                int c = a.classe(terme.charAt(i));
+                if (t[etat * k + c] < 0) {
+                    if ((nbEtats + 1) * k > t.length) {
+                        int ancienne = t.length;
+                        t = Arrays.copyOf(t, 2 * t.length);
+                        Arrays.fill(t, ancienne, t.length, -1);
+                        sorties = Arrays.copyOf(sorties, t.length / k);
+                    }
+                    t[etat * k + c] = nbEtats++;
+                }
+                etat = t[etat * k + c];
+            }
+            sorties[etat] = Math.max(sorties[etat], terme.length());
+        }
+
+        //Liens d'échec en largeur : un état hérite des transitions manquantes et de la sortie de son lien d'échec
+        int[] echec = new int[nbEtats];
+        ArrayDeque<Integer> file = new ArrayDeque<>();
+        for (int c = 0; c < k; c++) {
+            if (t[c] < 0) {
+                t[c] = 0;
+            } else {
+                echec[t[c]] = 0;
+                file.add(t[c]);
+            }
+        }
+        while (!file.isEmpty()) {
+            int etat = file.poll();
+            sorties[etat] = Math.max(sorties[etat], sorties[echec[etat]]);
+            for (int c = 0; c < k; c++) {
+                int suivant = t[etat * k + c];
+                if (suivant < 0) {
+                    t[etat * k + c] = t[echec[etat] * k + c];
+                } else {
+                    echec[suivant] = t[echec[etat] * k + c];
+                    file.add(suivant);
+                }
+            }
+        }
+        a.transitions = Arrays.copyOf(t, nbEtats * k);
+        a.sorties = Arrays.copyOf(sorties, nbEtats);
+        return a;
+    }
+
+    /*
+      Automate compilé d'une liste. Classe 0 : caractères absents de tous les termes ; classes des caractères ASCII
+      dans un tableau, des autres par recherche dichotomique.
+    */
+    private static final class Automate {
+        private final Action action;
+        private final int nbTermes;
+        private final int[] classesAscii = new int[128];
+        private final char[] autres;
+        private final int[] classesAutres;
+        private final int nbClasses;
+        private int[] transitions;
+        //Longueur du plus long terme qui se termine à chaque état, 0 si aucun :
+        private int[] sorties;
+
+        private Automate(Action action, int nbTermes, TreeSet<Character> alphabet) {
+            this.action = action;
+            this.nbTermes = nbTermes;
+            int nbAutres = 0, classe = 1;
+            for (char c : alphabet)
+                if (c >= 128)
+                    nbAutres++;
+            autres = new char[nbAutres];
+            classesAutres = new int[nbAutres];
+            nbAutres = 0;
+            for (char c : alphabet) {
+                if (c < 128) {
+                    classesAscii[c] = classe++;
+                } else {
+                    autres[nbAutres] = c;
+                    classesAutres[nbAutres++] = classe++;
+                }
+            }
+            nbClasses = classe;
+        }
+
+        private int classe(char c) {
+            if (c < 128)
+                return classesAscii[c];
+            int i = Arrays.binarySearch(autres, c);
+            return (i < 0) ? 0 : classesAutres[i];
+        }
+    }
+}
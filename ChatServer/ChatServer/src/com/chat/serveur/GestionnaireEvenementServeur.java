@@ -1,9 +1,13 @@
 package com.chat.serveur;
 
 import com.commun.evenement.Evenement;
+import com.commun.evenement.EvenementUtil;
 import com.commun.evenement.GestionnaireEvenement;
 import com.commun.net.Connexion;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Cette classe repr�sente un gestionnaire d'�v�nement d'un serveur. Lorsqu'un serveur re�oit un texte d'un client,
  * il cr�e un �v�nement � partir du texte re�u et alerte ce gestionnaire qui r�agit en g�rant l'�v�nement.
@@ -33,7 +37,10 @@ public class GestionnaireEvenementServeur implements GestionnaireEvenement {
     public void traiter(Evenement evenement) {
         Object source = evenement.getSource();
         Connexion cnx;
-        String msg, typeEvenement, aliasExpediteur;
+        String msg, typeEvenement;
+        String[] t;
+        long numero;
+
         ServeurChat serveur = (ServeurChat) this.serveur;
 
         if (source instanceof Connexion) {
@@ -43,23 +50,115 @@ public class GestionnaireEvenementServeur implements GestionnaireEvenement {
             switch (typeEvenement) {
                 case "EXIT": //Ferme la connexion avec le client qui a envoy� "EXIT":
                     cnx.envoyer("END");
+                    serveur.fermerSession(cnx.getAlias());
                     serveur.enlever(cnx);
                     cnx.close();
                     break;
                 case "LIST": //Envoie la liste des alias des personnes connect�es :
-                    cnx.envoyer("LIST " + serveur.list());
+                    repondre(evenement, "LIST " + serveur.list());
+                    break;
+                case "PONG": //Réponse à PING : la réception a déjà été notée par la connexion
+                    break;
+                case "RELIABLE": //Le client demande une connexion fiable (RELIABLE dernierRecu)
+                    serveur.activerFiabilite(cnx, lireNumero(evenement.getArgument()));
+                    break;
+                case "ACK": //Le client a reçu tous les textes numérotés jusqu'à ACK numero
+                    if (cnx.getFenetre() != null)
+                        cnx.getFenetre().acquitter(lireNumero(evenement.getArgument()));
+                    break;
+                case "PRV": //Message privé (PRV alias message), conservé si le destinataire est absent
+                    t = EvenementUtil.extraireInfosEvenement(evenement.getArgument());
+                    if (serveur.envoyerPrive(cnx.getAlias(), t[0], t[1]))
+                        repondre(evenement, "PRVOK " + t[0]);
+                    else
+                        repondre(evenement, "PRVKO " + t[0]);
+                    break;
+                case "IGNORE": //Ne plus recevoir les messages d'un alias (IGNORE alias)
+                    t = EvenementUtil.extraireInfosEvenement(evenement.getArgument());
+                    if (!"".equals(t[0]) && serveur.ignorer(cnx, t[0]))
+                        repondre(evenement, "IGNOREOK " + t[0]);
+                    else
+                        repondre(evenement, "IGNOREKO " + t[0]);
+                    break;
+                case "UNIGNORE": //Recevoir de nouveau les messages d'un alias (UNIGNORE alias)
+                    t = EvenementUtil.extraireInfosEvenement(evenement.getArgument());
+                    serveur.nePlusIgnorer(cnx, t[0]);
+                    repondre(evenement, "UNIGNOREOK " + t[0]);
+                    break;
+                case "SEARCH": //Recherche dans l'historique du chat public (SEARCH mots)
+                    repondre(evenement, "SEARCH " + serveur.rechercher(evenement.getArgument()));
                     break;
                 case "MSG":
-                    aliasExpediteur = cnx.getAlias();
-                    msg = evenement.getArgument();
-                    serveur.envoyerATousSauf(msg, aliasExpediteur);
+                    numero = serveur.envoyerATousSauf(evenement.getArgument(), cnx);
+                    if (evenement.getIdRequete() != null) //Une requête identifiée attend toujours une réponse
+                        repondre(evenement, (numero > 0) ? "MSGOK " + numero : "MSGKO");
+                    break;
 
                 //Ajoutez ici d�autres case pour g�rer d�autres commandes.
 
                 default: //Renvoyer le texte recu convertit en majuscules :
                     msg = (evenement.getType() + " " + evenement.getArgument()).toUpperCase();
-                    cnx.envoyer(msg);
+                    repondre(evenement, msg);
+            }
+        }
+    }
+
+    /**
+     * Gère un lot d'événements envoyés par un même client, dans leur ordre d'arrivée. Les messages du chat public
+     * (MSG) qui se suivent dans le lot sont envoyés ensemble (voir ServeurChat.envoyerATousSauf(List, Connexion)) :
+     * chaque destinataire les reçoit d'un coup, en une seule écriture. Les autres événements sont gérés un par un
+     * avec traiter(). La gestion s'arrête si la connexion est fermée en cours de lot (EXIT, exclusion).
+     *
+     * @param lot Les événements à gérer, qui ont tous la même source.
+     */
+    @Override
+    public void traiterLot(List<Evenement> lot) {
+        int i = 0, j;
+        while (i < lot.size()) {
+            Evenement evenement = lot.get(i);
+            if (!(evenement.getSource() instanceof Connexion))
+                return;
+            Connexion cnx = (Connexion) evenement.getSource();
+            if (cnx.isFermee())
+                return;
+            j = i;
+            while (j < lot.size() && "MSG".equals(lot.get(j).getType()))
+                j++;
+            if (j - i < 2) { //Pas de suite de messages à regrouper
+                traiter(evenement);
+                i++;
+                continue;
             }
+            List<String> textes = new ArrayList<>(j - i);
+            for (int k = i; k < j; k++) {
+                System.out.println("SERVEUR-Recu : MSG " + lot.get(k).getArgument());
+                textes.add(lot.get(k).getArgument());
+            }
+            long[] numeros = ((ServeurChat) serveur).envoyerATousSauf(textes, cnx);
+            for (int k = i; k < j; k++)
+                if (lot.get(k).getIdRequete() != null) //Une requête identifiée attend toujours une réponse
+                    repondre(lot.get(k), (numeros[k - i] > 0) ? "MSGOK " + numeros[k - i] : "MSGKO");
+            i = j;
+        }
+    }
+
+    /*
+      Lit un numéro envoyé par le client, 0 s'il n'est pas valide.
+    */
+    private static long lireNumero(String s) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return 0;
         }
     }
+
+    /*
+      Envoie la réponse à une requête, par la sortie du pipeline du serveur. Si la requête portait un identifiant
+      (#identifiant), la réponse commence par le même identifiant pour que le client puisse l'associer à sa
+      requête.
+    */
+    private void repondre(Evenement evenement, String reponse) {
+        serveur.getPipeline().repondre(evenement, reponse);
+    }
 }
\ No newline at end of file
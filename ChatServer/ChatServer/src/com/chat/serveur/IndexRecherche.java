@@ -0,0 +1,288 @@
+package com.chat.serveur;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cette classe représente un index inversé des messages du chat public : pour chaque mot, la liste croissante des
+ * numéros des messages qui le contiennent. Chaque liste est compressée : on n'y conserve que l'écart avec le numéro
+ * précédent, codé en varint (7 bits par octet), ce qui prend le plus souvent un ou deux octets par message. Une
+ * table de sauts (un numéro tous les TAILLE_BLOC numéros) permet d'avancer dans une liste sans la décoder en entier.
+ * <p>
+ * L'index est mis à jour à chaque message. Il peut être sauvegardé dans un fichier et rechargé : seuls les messages
+ * ajoutés au journal après la sauvegarde sont alors à indexer de nouveau.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class IndexRecherche {
+    private static final int MAGIQUE = 0x43484958; //"CHIX"
+    private static final int VERSION = 1;
+    private static final int TAILLE_BLOC = 128;
+    private static final int LONGUEUR_MAX_MOT = 32;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    //Numéro du dernier message indexé :
+    private long dernierNumero;
+
+    /**
+     * Indexe un message. Les messages doivent être indexés dans l'ordre de leurs numéros.
+     *
+     * @param numero long le numéro du message
+     * @param texte  String le texte du message
+     */
+    public synchronized void indexer(long numero, String texte) {
+        if (numero <= dernierNumero)
+            return;
+        for (String mot : mots(texte)) {
+            Postings p = postings.get(mot);
+            if (p == null)
+                postings.put(mot, p = new Postings());
+            p.ajouter(numero);
+        }
+        dernierNumero = numero;
+    }
+
+    /**
+     * Recherche les messages qui contiennent tous les mots d'une requête.
+     *
+     * @param requete String les mots recherchés
+     * @param max     int nombre maximal de résultats
+     * @return long[] les numéros des messages trouvés les plus récents, du plus ancien au plus récent
+     */
+    public synchronized long[] rechercher(String requete, int max) {
+        List<String> mots = mots(requete);
+        if (mots.isEmpty() || max <= 0)
+            return new long[0];
+        Curseur[] curseurs = new Curseur[mots.size()];
+        for (int i = 0; i < curseurs.length; i++) {
+            Postings p = postings.get(mots.get(i));
+            if (p == null)
+                return new long[0];
+            curseurs[i] = new Curseur(p);
+        }
+        //On parcourt la liste la plus courte à reculons, bloc par bloc, en cherchant chaque numéro dans les
+        //autres listes avec leurs tables de sauts : la recherche s'arrête dès qu'on a les max plus récents.
+        Arrays.sort(curseurs, (a, b) -> Integer.compare(a.postings.nb, b.postings.nb));
+        Postings courte = curseurs[0].postings;
+        long[] resultats = new long[max], bloc = new long[TAILLE_BLOC];
+        int nb = 0;
+        for (int b = courte.nbBlocs() - 1; b >= 0 && nb < max; b--) {
+            for (int i = courte.decoderBloc(b, bloc) - 1; i >= 0 && nb < max; i--) {
+                boolean partout = true;
+                for (int k = 1; k < curseurs.length && partout; k++)
+                    partout = curseurs[k].contient(bloc[i]);
+                if (partout)
+                    resultats[max - 1 - nb++] = bloc[i];
+            }
+        }
+        return Arrays.copyOfRange(resultats, max - nb, max);
+    }
+
+    /**
+     * Retourne le numéro du dernier message indexé.
+     *
+     * @return long le numéro du dernier message indexé, 0 si aucun
+     */
+    public synchronized long getDernierNumero() {
+        return dernierNumero;
+    }
+
+    /**
+     * Sauvegarde l'index dans un fichier. Le fichier est d'abord écrit à côté, puis renommé.
+     *
+     * @param fichier File le fichier de l'index
+     * @throws IOException si l'index ne peut pas être écrit
+     */
+    public synchronized void sauvegarder(File fichier) throws IOException {
+        File temporaire = new File(fichier.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporaire)))) {
+            out.writeInt(MAGIQUE);
+            out.writeInt(VERSION);
+            out.writeLong(dernierNumero);
+            out.writeInt(postings.size());
+            for (Map.Entry<String, Postings> e : postings.entrySet()) {
+                Postings p = e.getValue();
+                out.writeUTF(e.getKey());
+                out.writeInt(p.nb);
+                out.writeLong(p.dernier);
+                out.writeInt(p.taille);
+                out.write(p.octets, 0, p.taille);
+            }
+        }
+        Files.move(temporaire.toPath(), fichier.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Charge un index sauvegardé avec sauvegarder().
+     *
+     * @param fichier File le fichier de l'index
+     * @return IndexRecherche l'index, ou un index vide si le fichier n'existe pas ou n'est pas valide
+     */
+    public static IndexRecherche charger(File fichier) {
+        IndexRecherche index = new IndexRecherche();
+        if (!fichier.isFile())
+            return index;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fichier)))) {
+            if (in.readInt() != MAGIQUE || in.readInt() != VERSION)
+                return index;
+            long dernierNumero = in.readLong();
+            for (int i = in.readInt(); i > 0; i--) {
+                String mot = in.readUTF();
+                Postings p = new Postings();
+                p.nb = in.readInt();
+                p.dernier = in.readLong();
+                p.taille = in.readInt();
+                p.octets = new byte[Math.max(p.taille, 8)];
+                in.readFully(p.octets, 0, p.taille);
+                p.construireSauts();
+                index.postings.put(mot, p);
+            }
+            index.dernierNumero = dernierNumero;
+        } catch (IOException e) {
+            return new IndexRecherche();
+        }
+        return index;
+    }
+
+    /*
+      Découpe un texte en mots : suites de lettres et de chiffres, en minuscules, sans doublons.
+    */
+    private static List<String> mots(String texte) {
+        List<String> mots = new ArrayList<>();
+        int debut = -1;
+        for (int i = 0; i <= texte.length(); i++) {
+            boolean lettre = i < texte.length() && Character.isLetterOrDigit(texte.charAt(i));
+            if (lettre && debut < 0)
+                debut = i;
+            else if (!lettre && debut >= 0) {
+                String mot = texte.substring(debut, Math.min(i, debut + LONGUEUR_MAX_MOT)).toLowerCase();
+                if (!mots.contains(mot))
+                    mots.add(mot);
+                debut = -1;
+            }
+        }
+        return mots;
+    }
+
+    /*
+      Liste compressée des numéros des messages qui contiennent un mot.
+    */
+    private static final class Postings {
+        private byte[] octets = new byte[8];
+        private int taille;
+        private int nb;
+        private long dernier;
+        //Pour chaque bloc de TAILLE_BLOC numéros : le numéro qui précède le bloc et la position du bloc :
+        private long[] sautsNumeros = new long[1];
+        private int[] sautsPositions = new int[1];
+
+        private void ajouter(long numero) {
+            if (nb % TAILLE_BLOC == 0) {
+                int b = nb / TAILLE_BLOC;
+                if (b == sautsNumeros.length) {
+                    sautsNumeros = Arrays.copyOf(sautsNumeros, b * 2);
+                    sautsPositions = Arrays.copyOf(sautsPositions, b * 2);
+                }
+                sautsNumeros[b] = dernier;
+                sautsPositions[b] = taille;
+            }
+            if (taille + 10 > octets.length)
+                octets = Arrays.copyOf(octets, octets.length * 2);
+            long ecart = numero - dernier;
+            while ((ecart & ~0x7FL) != 0) {
+                octets[taille++] = (byte) ((ecart & 0x7F) | 0x80);
+                ecart >>>= 7;
+            }
+            octets[taille++] = (byte) ecart;
+            dernier = numero;
+            nb++;
+        }
+
+        private void construireSauts() {
+            int n = nb, pos = 0;
+            long numero = 0;
+            sautsNumeros = new long[Math.max(1, (n + TAILLE_BLOC - 1) / TAILLE_BLOC)];
+            sautsPositions = new int[sautsNumeros.length];
+            for (int i = 0; i < n; i++) {
+                if (i % TAILLE_BLOC == 0) {
+                    sautsNumeros[i / TAILLE_BLOC] = numero;
+                    sautsPositions[i / TAILLE_BLOC] = pos;
+                }
+                long ecart = 0;
+                int decalage = 0;
+                do {
+                    ecart |= (long) (octets[pos] & 0x7F) << decalage;
+                    decalage += 7;
+                } while (octets[pos++] < 0);
+                numero += ecart;
+            }
+        }
+
+        private int nbBlocs() {
+            return (nb + TAILLE_BLOC - 1) / TAILLE_BLOC;
+        }
+
+        //Retourne le bloc qui peut contenir numero (le dernier bloc précédé d'un numéro inférieur), ou -1.
+        private int bloc(long numero) {
+            int b = Arrays.binarySearch(sautsNumeros, 0, nbBlocs(), numero);
+            return b >= 0 ? b - 1 : -b - 2;
+        }
+
+        //Décode les numéros d'un bloc dans numeros et retourne leur nombre.
+        private int decoderBloc(int b, long[] numeros) {
+            int pos = sautsPositions[b], n = Math.min(TAILLE_BLOC, nb - b * TAILLE_BLOC), decalage;
+            long numero = sautsNumeros[b], ecart;
+            for (int i = 0; i < n; i++) {
+                ecart = 0;
+                decalage = 0;
+                do {
+                    ecart |= (long) (octets[pos] & 0x7F) << decalage;
+                    decalage += 7;
+                } while (octets[pos++] < 0);
+                numeros[i] = numero += ecart;
+            }
+            return n;
+        }
+    }
+
+    /*
+      Cherche des numéros dans une liste, en gardant le dernier bloc décodé : des numéros cherchés les uns après
+      les autres tombent le plus souvent dans le même bloc.
+    */
+    private static final class Curseur {
+        private final Postings postings;
+        private final long[] numeros = new long[TAILLE_BLOC];
+        private int bloc = -1, nb;
+
+        private Curseur(Postings postings) {
+            this.postings = postings;
+        }
+
+        private boolean contient(long numero) {
+            int b = postings.bloc(numero);
+            if (b < 0)
+                return false;
+            if (b != bloc) {
+                nb = postings.decoderBloc(b, numeros);
+                bloc = b;
+            }
+            return Arrays.binarySearch(numeros, 0, nb, numero) >= 0;
+        }
+    }
+}
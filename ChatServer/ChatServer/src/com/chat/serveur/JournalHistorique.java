@@ -0,0 +1,178 @@
+package com.chat.serveur;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Cette classe représente le journal de tous les messages du chat public, conservé sur disque. Les messages sont
+ * ajoutés à la fin du fichier historique.log ; le fichier historique.pos contient la position de chaque message
+ * dans historique.log (8 octets par message, dans l'ordre des numéros). Comme les numéros des messages se suivent
+ * à partir de 1, un message est retrouvé par son numéro avec deux lectures.
+ * <p>
+ * À l'ouverture, les positions manquantes (arrêt entre l'écriture d'un message et celle de sa position) sont
+ * recalculées et un message incomplet à la fin du journal est retiré.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class JournalHistorique {
+    private final FileChannel messages;
+    private final FileChannel positions;
+    private long dernierNumero;
+    private long fin;
+
+    /**
+     * Ouvre le journal conservé dans un dossier, en le créant au besoin.
+     *
+     * @param dossier File le dossier du journal
+     * @throws IOException si le journal ne peut pas être ouvert
+     */
+    public JournalHistorique(File dossier) throws IOException {
+        if (!dossier.isDirectory() && !dossier.mkdirs())
+            throw new IOException("Impossible de creer le dossier " + dossier);
+        messages = FileChannel.open(new File(dossier, "historique.log").toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        positions = FileChannel.open(new File(dossier, "historique.pos").toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recuperer();
+    }
+
+    /**
+     * Ajoute un message à la fin du journal. Son numéro doit suivre celui du dernier message du journal. Le texte
+     * est écrit en UTF-8, précédé de sa longueur : sa taille n'est pas limitée à 64 Ko comme avec writeUTF(). Si
+     * l'écriture échoue, le journal reste tel qu'il était et attend toujours le même numéro.
+     *
+     * @param message MessageChat le message
+     * @throws IOException si le message ne peut pas être écrit
+     */
+    public synchronized void ajouter(MessageChat message) throws IOException {
+        if (message.getNumero() != dernierNumero + 1)
+            throw new IOException("Numero inattendu : " + message.getNumero() + " apres " + dernierNumero);
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(octets);
+        out.writeInt(0);
+        out.writeLong(message.getNumero());
+        out.writeUTF(message.getAlias());
+        byte[] texte = message.getTexte().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(texte.length);
+        out.write(texte);
+        ByteBuffer b = ByteBuffer.wrap(octets.toByteArray());
+        b.putInt(0, b.limit() - 4);
+        ecrire(messages, b, fin);
+        ecrire(positions, ByteBuffer.allocate(8).putLong(0, fin), dernierNumero * 8);
+        fin += b.limit();
+        dernierNumero++;
+    }
+
+    /**
+     * Retourne un message du journal.
+     *
+     * @param numero long le numéro du message
+     * @return MessageChat le message, ou null s'il n'est pas dans le journal
+     * @throws IOException si le message ne peut pas être lu
+     */
+    public synchronized MessageChat lire(long numero) throws IOException {
+        if (numero < 1 || numero > dernierNumero)
+            return null;
+        ByteBuffer position = ByteBuffer.allocate(8);
+        lireTout(positions, position, (numero - 1) * 8);
+        return lireA(position.getLong(0));
+    }
+
+    /**
+     * Retourne le numéro du dernier message du journal.
+     *
+     * @return long le numéro du dernier message, 0 si le journal est vide
+     */
+    public synchronized long getDernierNumero() {
+        return dernierNumero;
+    }
+
+    /**
+     * Ferme les fichiers du journal.
+     */
+    public synchronized void fermer() {
+        try {
+            messages.close();
+            positions.close();
+        } catch (IOException e) {
+        }
+    }
+
+    /*
+      Lit le message qui commence à une position de historique.log, ou retourne null s'il est incomplet.
+    */
+    private MessageChat lireA(long position) throws IOException {
+        ByteBuffer longueur = ByteBuffer.allocate(4);
+        if (messages.read(longueur, position) < 4)
+            return null;
+        int n = longueur.getInt(0);
+        if (n <= 0 || position + 4 + n > messages.size())
+            return null;
+        ByteBuffer octets = ByteBuffer.allocate(n);
+        lireTout(messages, octets, position + 4);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(octets.array()));
+        long numero = in.readLong();
+        String alias = in.readUTF();
+        int reste = in.available();
+        //Texte précédé de sa longueur (int) ou, dans un journal plus ancien, écrit avec writeUTF() :
+        if (reste < 4 || octets.getInt(n - reste) != reste - 4)
+            return new MessageChat(numero, alias, in.readUTF());
+        return new MessageChat(numero, alias, new String(octets.array(), n - reste + 4, reste - 4,
+                StandardCharsets.UTF_8));
+    }
+
+    /*
+      Remet le journal dans un état cohérent après un arrêt brutal.
+    */
+    private void recuperer() throws IOException {
+        long nb = positions.size() / 8;
+        MessageChat m;
+
+        positions.truncate(nb * 8);
+        fin = 0;
+        if (nb > 0) { //Vérifie la dernière position connue
+            ByteBuffer position = ByteBuffer.allocate(8);
+            lireTout(positions, position, (nb - 1) * 8);
+            m = lireA(position.getLong(0));
+            if (m == null || m.getNumero() != nb) { //Positions incohérentes : on les recalcule toutes
+                nb = 0;
+                positions.truncate(0);
+            } else {
+                fin = position.getLong(0) + 4 + longueurA(position.getLong(0));
+            }
+        }
+        dernierNumero = nb;
+        while ((m = lireA(fin)) != null && m.getNumero() == dernierNumero + 1) {
+            ecrire(positions, ByteBuffer.allocate(8).putLong(0, fin), dernierNumero * 8);
+            fin += 4 + longueurA(fin);
+            dernierNumero++;
+        }
+        messages.truncate(fin);
+    }
+
+    private int longueurA(long position) throws IOException {
+        ByteBuffer longueur = ByteBuffer.allocate(4);
+        lireTout(messages, longueur, position);
+        return longueur.getInt(0);
+    }
+
+    private static void lireTout(FileChannel canal, ByteBuffer b, long position) throws IOException {
+        while (b.hasRemaining())
+            if (canal.read(b, position + b.position()) < 0)
+                throw new IOException("Fin de fichier inattendue");
+    }
+
+    private static void ecrire(FileChannel canal, ByteBuffer b, long position) throws IOException {
+        while (b.hasRemaining())
+            canal.write(b, position + b.position());
+    }
+}
@@ -0,0 +1,202 @@
+package com.chat.serveur;
+
+import com.commun.net.Connexion;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cette classe limite le nombre de commandes que chaque client peut envoyer au serveur. Chaque connexion a un seau
+ * de jetons pour l'ensemble de ses commandes et un seau par commande limitée individuellement (par exemple MSG, qui
+ * est renvoyé à tous les connectés). Une commande refusée compte comme une infraction ; un client qui commet trop
+ * d'infractions est exclu. Les limites peuvent être modifiées pendant le fonctionnement du serveur : les seaux de
+ * toutes les connexions sont alors recréés, pleins, avec les nouvelles limites.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class LimiteurDebit {
+
+    /**
+     * Décision prise pour une commande reçue.
+     */
+    public enum Decision {
+        /**
+         * La commande peut être traitée.
+         */
+        ACCEPTER,
+        /**
+         * La commande est ignorée et le client doit être averti qu'il envoie trop de commandes.
+         */
+        AVERTIR,
+        /**
+         * La commande est ignorée (le client a déjà été averti).
+         */
+        REFUSER,
+        /**
+         * Le client a commis trop d'infractions et doit être déconnecté.
+         */
+        EXCLURE
+    }
+
+    private volatile double debit;
+    private volatile int rafale;
+    private volatile int infractionsMax;
+    //Limites propres à certaines commandes : {nombre par seconde, rafale}
+    private final Map<String, double[]> limitesCommandes = new ConcurrentHashMap<>();
+    private final Map<Connexion, EtatConnexion> etats = new ConcurrentHashMap<>();
+
+    /**
+     * Construit un limiteur.
+     *
+     * @param debit          double Nombre moyen de commandes par seconde autorisées pour chaque client
+     * @param rafale         int Nombre maximal de commandes autorisées d'un coup
+     * @param infractionsMax int Nombre de commandes refusées par minute au-delà duquel un client est exclu
+     */
+    public LimiteurDebit(double debit, int rafale, int infractionsMax) {
+        this.debit = debit;
+        this.rafale = rafale;
+        this.infractionsMax = infractionsMax;
+    }
+
+    /**
+     * Ajoute ou modifie la limite propre à une commande, en plus de la limite sur l'ensemble des commandes.
+     *
+     * @param type       String Le type de la commande, par exemple "MSG"
+     * @param parSeconde double Nombre moyen de commandes de ce type par seconde
+     * @param rafale     int Nombre maximal de commandes de ce type d'un coup
+     */
+    public void setLimiteCommande(String type, double parSeconde, int rafale) {
+        verifierLimite(parSeconde, rafale);
+        limitesCommandes.put(type, new double[]{parSeconde, rafale});
+        etats.clear();
+    }
+
+    /**
+     * Retourne la limite propre à une commande.
+     *
+     * @param type String Le type de la commande
+     * @return double[] {nombre moyen de commandes par seconde, rafale}, ou null si la commande n'a pas de limite
+     * propre
+     */
+    public double[] getLimiteCommande(String type) {
+        double[] limite = limitesCommandes.get(type);
+        return (limite == null) ? null : limite.clone();
+    }
+
+    /**
+     * Retourne les types des commandes qui ont une limite propre.
+     *
+     * @return Set les types des commandes
+     */
+    public Set<String> getCommandesLimitees() {
+        return limitesCommandes.keySet();
+    }
+
+    /**
+     * Modifie la limite sur l'ensemble des commandes de chaque client.
+     *
+     * @param debit  double Nombre moyen de commandes par seconde
+     * @param rafale int Nombre maximal de commandes d'un coup
+     */
+    public void setLimite(double debit, int rafale) {
+        verifierLimite(debit, rafale);
+        this.debit = debit;
+        this.rafale = rafale;
+        etats.clear();
+    }
+
+    public double getDebit() {
+        return debit;
+    }
+
+    public int getRafale() {
+        return rafale;
+    }
+
+    /**
+     * Modifie le nombre de commandes refusées par minute au-delà duquel un client est exclu.
+     *
+     * @param infractionsMax int Nombre d'infractions par minute
+     */
+    public void setInfractionsMax(int infractionsMax) {
+        verifierLimite(1, infractionsMax);
+        this.infractionsMax = infractionsMax;
+        etats.clear();
+    }
+
+    public int getInfractionsMax() {
+        return infractionsMax;
+    }
+
+    private static void verifierLimite(double parSeconde, int rafale) {
+        if (parSeconde <= 0 || rafale <= 0)
+            throw new IllegalArgumentException("Limite invalide : " + parSeconde + "/s, rafale " + rafale);
+    }
+
+    /**
+     * Décide si une commande reçue d'un client peut être traitée.
+     *
+     * @param cnx  Connexion la connexion qui a envoyé la commande
+     * @param type String le type de la commande
+     * @return Decision la décision pour cette commande
+     */
+    public Decision verifier(Connexion cnx, String type) {
+        long maintenant = System.nanoTime();
+        EtatConnexion etat = etats.get(cnx);
+        if (etat == null) {
+            etat = new EtatConnexion(new SeauJetons(debit, rafale),
+                    new SeauJetons(infractionsMax / 60.0, infractionsMax));
+            EtatConnexion existant = etats.putIfAbsent(cnx, etat);
+            if (existant != null)
+                etat = existant;
+        }
+        SeauJetons seauCommande = null;
+        double[] limite = limitesCommandes.get(type);
+        if (limite != null) {
+            seauCommande = etat.commandes.get(type);
+            if (seauCommande == null) {
+                seauCommande = new SeauJetons(limite[0], (int) limite[1]);
+                SeauJetons existant = etat.commandes.putIfAbsent(type, seauCommande);
+                if (existant != null)
+                    seauCommande = existant;
+            }
+        }
+        if (etat.global.prendre(maintenant) && (seauCommande == null || seauCommande.prendre(maintenant))) {
+            etat.averti = false;
+            return Decision.ACCEPTER;
+        }
+        if (!etat.infractions.prendre(maintenant))
+            return Decision.EXCLURE;
+        if (etat.averti)
+            return Decision.REFUSER;
+        etat.averti = true;
+        return Decision.AVERTIR;
+    }
+
+    /**
+     * Oublie l'état d'une connexion fermée.
+     *
+     * @param cnx Connexion la connexion fermée
+     */
+    public void oublier(Connexion cnx) {
+        etats.remove(cnx);
+    }
+
+    /*
+      Seaux de jetons d'une connexion.
+    */
+    private static class EtatConnexion {
+        final SeauJetons global;
+        final SeauJetons infractions;
+        final Map<String, SeauJetons> commandes = new ConcurrentHashMap<>();
+        //Indique si le client a déjà été averti depuis sa dernière commande acceptée :
+        volatile boolean averti;
+
+        EtatConnexion(SeauJetons global, SeauJetons infractions) {
+            this.global = global;
+            this.infractions = infractions;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.chat.serveur;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cette classe représente les listes d'alias ignorés (IGNORE) des utilisateurs du chat. Un utilisateur ne reçoit
+ * plus les messages du chat public ni les messages privés des alias qu'il ignore. Les listes sont conservées par
+ * alias, après le départ de l'utilisateur, comme sa session.
+ * <p>
+ * Pour l'envoi à tous, chaque expéditeur ignoré par au moins un membre a un ensemble de bits, indexé par numéro
+ * de membre (voir RegistreMembres), des membres qui l'ignorent : les destinataires sont les présents moins cet
+ * ensemble, calculés mot par mot. Un expéditeur que personne n'ignore n'a pas d'ensemble et son message est envoyé
+ * sans aucun calcul supplémentaire. Les ensembles sont mis à jour quand un membre reçoit ou libère son numéro.
+ * <p>
+ * Les listes ne sont pas synchronisées : elles sont utilisées avec le verrou du serveur.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class ListesIgnores {
+    private final RegistreMembres membres;
+    //Alias ignorés par chaque utilisateur et utilisateurs qui ignorent chaque alias (alias normalisés) :
+    private final Map<String, Set<String>> ignores = new HashMap<>();
+    private final Map<String, Set<String>> ignoresPar = new HashMap<>();
+    //Pour chaque numéro d'expéditeur, numéros des membres qui l'ignorent (null si aucun) :
+    private long[][] muets = new long[64][];
+
+    /**
+     * Construit des listes vides.
+     *
+     * @param membres RegistreMembres le registre qui attribue les numéros des membres
+     */
+    public ListesIgnores(RegistreMembres membres) {
+        this.membres = membres;
+    }
+
+    /**
+     * Ajoute un alias à la liste des alias ignorés par un utilisateur.
+     *
+     * @param alias  String l'alias de l'utilisateur
+     * @param ignore String l'alias à ignorer
+     * @return boolean true si l'alias est ignoré, false si c'est l'alias de l'utilisateur ou si sa liste est
+     * pleine (Config.MAX_IGNORES)
+     */
+    public boolean ignorer(String alias, String ignore) {
+        String a = RegistreMembres.normaliser(alias), i = RegistreMembres.normaliser(ignore);
+        if (a.equals(i))
+            return false;
+        Set<String> liste = ignores.computeIfAbsent(a, k -> new HashSet<>());
+        if (liste.contains(i))
+            return true;
+        if (liste.size() >= Config.MAX_IGNORES)
+            return false;
+        liste.add(i);
+        ignoresPar.computeIfAbsent(i, k -> new HashSet<>()).add(a);
+        modifier(membres.chercher(i), membres.chercher(a), true);
+        return true;
+    }
+
+    /**
+     * Enlève un alias de la liste des alias ignorés par un utilisateur.
+     *
+     * @param alias  String l'alias de l'utilisateur
+     * @param ignore String l'alias qui n'est plus ignoré
+     */
+    public void nePlusIgnorer(String alias, String ignore) {
+        String a = RegistreMembres.normaliser(alias), i = RegistreMembres.normaliser(ignore);
+        if (!enlever(ignores, a, i))
+            return;
+        enlever(ignoresPar, i, a);
+        modifier(membres.chercher(i), membres.chercher(a), false);
+    }
+
+    /**
+     * Indique si un utilisateur ignore un alias.
+     *
+     * @param alias  String l'alias de l'utilisateur
+     * @param ignore String l'alias
+     * @return boolean true si l'utilisateur ignore l'alias
+     */
+    public boolean isIgnore(String alias, String ignore) {
+        Set<String> liste = ignores.get(RegistreMembres.normaliser(alias));
+        return liste != null && liste.contains(RegistreMembres.normaliser(ignore));
+    }
+
+    /**
+     * Retourne les alias ignorés par un utilisateur.
+     *
+     * @param alias String l'alias de l'utilisateur
+     * @return Set l'ensemble des alias ignorés (normalisés), à ne pas modifier
+     */
+    public Set<String> getIgnores(String alias) {
+        Set<String> liste = ignores.get(RegistreMembres.normaliser(alias));
+        return (liste == null) ? Collections.<String>emptySet() : liste;
+    }
+
+    /**
+     * Met à jour les ensembles quand un membre vient de recevoir son numéro : il ne reçoit pas les messages des
+     * alias qu'il ignore et ceux qui l'ignorent ne reçoivent pas les siens.
+     *
+     * @param numero int le numéro du membre
+     */
+    public void arrivee(int numero) {
+        String a = membres.getAliasNormalise(numero);
+        for (String i : getIgnores(a))
+            modifier(membres.chercher(i), numero, true);
+        Set<String> par = ignoresPar.get(a);
+        if (par != null)
+            for (String p : par)
+                modifier(numero, membres.chercher(p), true);
+    }
+
+    /**
+     * Met à jour les ensembles quand un membre va libérer son numéro, qui pourra être attribué à un autre.
+     *
+     * @param numero int le numéro du membre
+     */
+    public void depart(int numero) {
+        for (String i : getIgnores(membres.getAliasNormalise(numero)))
+            modifier(membres.chercher(i), numero, false);
+        if (numero < muets.length)
+            muets[numero] = null;
+    }
+
+    /**
+     * Retourne les numéros des membres qui ignorent un expéditeur : le bit n % 64 du mot n / 64 vaut 1 si le
+     * membre n l'ignore. Le tableau ne doit pas être modifié.
+     *
+     * @param numero int le numéro de l'expéditeur
+     * @return long[] les membres qui l'ignorent, ou null si aucun membre ne l'ignore
+     */
+    public long[] getMuets(int numero) {
+        return (numero >= 0 && numero < muets.length) ? muets[numero] : null;
+    }
+
+    /*
+      Ajoute ou enlève le membre numéroMuet de l'ensemble de l'expéditeur numéro (rien si l'un des deux n'a pas de
+      numéro). Un ensemble vidé est supprimé.
+    */
+    private void modifier(int numero, int numeroMuet, boolean ajout) {
+        if (numero < 0 || numeroMuet < 0)
+            return;
+        if (numero >= muets.length)
+            muets = Arrays.copyOf(muets, Math.max(2 * muets.length, numero + 1));
+        long[] m = muets[numero];
+        int mot = numeroMuet >> 6;
+        if (ajout) {
+            if (m == null)
+                m = new long[mot + 1];
+            else if (mot >= m.length)
+                m = Arrays.copyOf(m, mot + 1);
+            m[mot] |= 1L << numeroMuet;
+        } else if (m != null && mot < m.length) {
+            m[mot] &= ~(1L << numeroMuet);
+            boolean vide = true;
+            for (long l : m)
+                vide &= (l == 0);
+            if (vide)
+                m = null;
+        }
+        muets[numero] = m;
+    }
+
+    private static boolean enlever(Map<String, Set<String>> map, String cle, String valeur) {
+        Set<String> s = map.get(cle);
+        if (s == null || !s.remove(valeur))
+            return false;
+        if (s.isEmpty())
+            map.remove(cle);
+        return true;
+    }
+}
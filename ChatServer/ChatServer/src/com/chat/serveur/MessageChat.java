@@ -0,0 +1,49 @@
+package com.chat.serveur;
+
+/**
+ * Cette classe représente un message du chat public. Chaque message reçoit du serveur un numéro de séquence
+ * croissant qui permet à un client qui se reconnecte de ne recevoir que les messages qu'il n'a pas encore vus.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class MessageChat {
+    private final long numero;
+    private final String alias;
+    private final String texte;
+
+    /**
+     * Construit un message.
+     *
+     * @param numero long Numéro de séquence du message
+     * @param alias  String Alias de l'expéditeur
+     * @param texte  String Texte du message
+     */
+    public MessageChat(long numero, String alias, String texte) {
+        this.numero = numero;
+        this.alias = alias;
+        this.texte = texte;
+    }
+
+    public long getNumero() {
+        return numero;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getTexte() {
+        return texte;
+    }
+
+    /**
+     * Retourne le message dans le format envoyé aux clients : numero alias >> texte
+     *
+     * @return String le message formaté
+     */
+    @Override
+    public String toString() {
+        return numero + " " + alias + " >> " + texte;
+    }
+}
@@ -0,0 +1,82 @@
+package com.chat.serveur;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cette classe regroupe les arrivées et les départs des membres du chat pendant un court délai et les envoie à
+ * tous les connectés dans un seul texte, sous la forme "PRESENCE +alias1:+alias2:-alias3". Un départ suivi d'une
+ * arrivée du même alias pendant le délai (une reconnexion, par exemple) s'annulent : une vague de reconnexions
+ * ne produit que quelques textes au lieu d'une notification par membre et par connecté.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class NotificateurPresence {
+    private final ServeurChat serveur;
+    private final RoueTemporelle roue;
+    //Délai de regroupement, en millisecondes :
+    private final long delai;
+    //Changements pas encore envoyés, par alias en minuscules : l'alias précédé de + (arrivée) ou - (départ) :
+    private final Map<String, String> changements = new LinkedHashMap<>();
+    //Indique si l'envoi des changements est déjà planifié :
+    private boolean planifie;
+
+    /**
+     * Construit un notificateur de présence.
+     *
+     * @param serveur ServeurChat Le serveur dont les connectés reçoivent les changements
+     * @param roue    RoueTemporelle La roue qui planifie l'envoi des changements
+     * @param delai   long Délai de regroupement des changements, en millisecondes
+     */
+    public NotificateurPresence(ServeurChat serveur, RoueTemporelle roue, long delai) {
+        this.serveur = serveur;
+        this.roue = roue;
+        this.delai = delai;
+    }
+
+    /**
+     * Signale l'arrivée d'un membre.
+     *
+     * @param alias String l'alias du membre
+     */
+    public synchronized void arrivee(String alias) {
+        changer(alias, '+');
+    }
+
+    /**
+     * Signale le départ d'un membre.
+     *
+     * @param alias String l'alias du membre
+     */
+    public synchronized void depart(String alias) {
+        changer(alias, '-');
+    }
+
+    private void changer(String alias, char signe) {
+        String cle = alias.toLowerCase(), precedent = changements.remove(cle);
+        if (precedent != null && precedent.charAt(0) != signe) //Le changement annule le précédent
+            return;
+        changements.put(cle, signe + alias);
+        if (!planifie) {
+            planifie = true;
+            roue.planifier(delai, this::publier);
+        }
+    }
+
+    /**
+     * Envoie à tous les connectés les changements en attente, s'il y en a.
+     */
+    public void publier() {
+        StringBuilder s = new StringBuilder("PRESENCE ");
+        synchronized (this) {
+            planifie = false;
+            if (changements.isEmpty())
+                return;
+            for (String changement : changements.values())
+                s.append(changement).append(':');
+            changements.clear();
+        }
+        serveur.diffuser(s.toString());
+    }
+}
@@ -0,0 +1,137 @@
+package com.chat.serveur;
+
+import com.commun.evenement.Evenement;
+import com.commun.evenement.GestionnaireEvenement;
+import com.commun.net.Connexion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cette classe représente le pipeline des événements d'un serveur : une suite d'étapes (voir EtapePipeline) entre
+ * les connexions et le gestionnaire d'événements. Chaque serveur choisit ses étapes (voir
+ * Serveur.configurerPipeline()), ce qui permet d'ajouter une limitation, un filtre ou une mesure sans toucher au
+ * gestionnaire d'événements.
+ * <ul>
+ * <li>En entrée, les événements d'une connexion passent en lot par chaque étape, dans l'ordre d'ajout, puis ceux
+ * qui restent sont donnés d'un coup au gestionnaire d'événements (voir GestionnaireEvenement.traiterLot()),
+ * directement ou par les threads de traitement (voir PoolTraitement).</li>
+ * <li>En sortie, chaque réponse à une requête passe par les étapes dans l'ordre inverse, puis est envoyée.</li>
+ * </ul>
+ * Chaque étape est appelée une fois par lot et non une fois par événement : les appels virtuels aux étapes ne
+ * coûtent presque rien, et la boucle de chaque étape sur les événements de son lot reste monomorphe. Les étapes
+ * sont dans un tableau remplacé à chaque ajout, que les lots en cours finissent de parcourir.
+ * <p>
+ * Les lots d'entrée sont passés par un seul thread à la fois (le thread de lecture du serveur) : les étapes
+ * d'entrée n'ont pas à être synchronisées entre elles. Leurs sorties, elles, sont appelées par les threads qui
+ * répondent.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class PipelineEvenements {
+    private final GestionnaireEvenement gestionnaire;
+    //Threads qui traitent les événements sortis du pipeline, null pour les traiter dans le thread de lecture :
+    private final PoolTraitement traitement;
+    private volatile EtapePipeline[] etapes = new EtapePipeline[0];
+
+    /**
+     * Construit un pipeline sans étape.
+     *
+     * @param gestionnaire GestionnaireEvenement le gestionnaire qui traite les événements sortis du pipeline
+     * @param traitement   PoolTraitement les threads qui appellent le gestionnaire, ou null pour l'appeler
+     *                     directement dans le thread qui passe les lots
+     */
+    public PipelineEvenements(GestionnaireEvenement gestionnaire, PoolTraitement traitement) {
+        this.gestionnaire = gestionnaire;
+        this.traitement = traitement;
+    }
+
+    /**
+     * Ajoute une étape à la fin du pipeline : en entrée, elle reçoit les événements après toutes les autres.
+     *
+     * @param etape EtapePipeline l'étape
+     */
+    public synchronized void ajouter(EtapePipeline etape) {
+        etape.pipeline = this;
+        EtapePipeline[] e = Arrays.copyOf(etapes, etapes.length + 1);
+        e[e.length - 1] = etape;
+        etapes = e;
+    }
+
+    /**
+     * Fait passer les événements arrivés d'une connexion par toutes les étapes, puis donne ceux qui restent au
+     * gestionnaire d'événements (voir transmettre()). Le lot n'est pas traité si la connexion a été fermée
+     * entre-temps (exclusion).
+     *
+     * @param cnx Connexion la connexion
+     * @param lot List les événements dans l'ordre d'arrivée ; la liste est modifiée par les étapes et peut être
+     *            réutilisée au retour
+     * @return boolean true si le lot a été pris, false si la file de la connexion est pleine : les événements
+     * sortis des étapes restent alors dans la liste, et doivent être redonnés avec transmettre()
+     */
+    public boolean recevoir(Connexion cnx, List<Evenement> lot) {
+        EtapePipeline[] e = etapes;
+        for (int i = 0; i < e.length && !lot.isEmpty(); i++) {
+            int n = lot.size();
+            e[i].nbRecus += n;
+            e[i].entree(cnx, lot);
+            e[i].nbRetenus += n - lot.size();
+        }
+        return lot.isEmpty() || transmettre(cnx, lot);
+    }
+
+    /**
+     * Donne des événements déjà passés par les étapes au gestionnaire d'événements, directement ou par la file de
+     * la connexion dans les threads de traitement. N'attend pas si la file est pleine (voir
+     * PoolTraitement.soumettre()).
+     *
+     * @param cnx Connexion la connexion
+     * @param lot List les événements sortis des étapes ; la liste peut être réutilisée au retour
+     * @return boolean true si le lot a été pris, false si la file de la connexion est pleine
+     */
+    public boolean transmettre(Connexion cnx, List<Evenement> lot) {
+        if (traitement == null) {
+            if (!cnx.isFermee())
+                gestionnaire.traiterLot(lot);
+            return true;
+        }
+        return traitement.soumettre(cnx, new ArrayList<>(lot));
+    }
+
+    /**
+     * Envoie la réponse à une requête, après son passage par la sortie de toutes les étapes. Si la requête portait
+     * un identifiant (#identifiant), la réponse commence par le même identifiant pour que le client puisse
+     * l'associer à sa requête.
+     *
+     * @param evenement Evenement l'événement auquel on répond, dont la source est la connexion du client
+     * @param reponse   String la réponse
+     */
+    public void repondre(Evenement evenement, String reponse) {
+        Connexion cnx = (Connexion) evenement.getSource();
+        EtapePipeline[] e = etapes;
+        for (int i = e.length - 1; i >= 0 && reponse != null; i--)
+            reponse = e[i].sortie(cnx, reponse);
+        if (reponse == null)
+            return;
+        if (evenement.getIdRequete() == null)
+            cnx.envoyer(reponse);
+        else
+            cnx.envoyer("#" + evenement.getIdRequete() + " " + reponse);
+    }
+
+    /**
+     * Retourne les statistiques du pipeline : pour chaque étape, le nombre d'événements reçus et retenus.
+     *
+     * @return String les statistiques, une étape par ligne
+     */
+    public String getStatistiques() {
+        EtapePipeline[] e = etapes;
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < e.length; i++)
+            s.append(i == 0 ? "" : "\n").append(e[i].getNom()).append(" : ").append(e[i].nbRecus)
+                    .append(" recus, ").append(e[i].nbRetenus).append(" retenus");
+        return (s.length() == 0) ? "aucune etape" : s.toString();
+    }
+}
@@ -0,0 +1,177 @@
+package com.chat.serveur;
+
+import com.commun.evenement.Evenement;
+import com.commun.evenement.GestionnaireEvenement;
+import com.commun.net.Connexion;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cette classe représente les threads qui traitent les événements des clients, pour que le thread de lecture du
+ * serveur ne soit pas bloqué par un traitement long (un envoi à tous, une recherche dans le journal...).
+ * <p>
+ * Les threads sont répartis en partitions : chaque partition a son thread et sa file de lots d'événements, et les
+ * lots d'une connexion vont toujours dans la même partition (choisie d'après l'identifiant de la connexion). Les
+ * commandes d'un client sont donc traitées dans leur ordre d'arrivée, une à la fois, et celles de clients
+ * différents en parallèle, sur plusieurs processeurs.
+ * <p>
+ * Les files sont bornées : quand la file d'une partition est pleine, le lot est refusé et le thread de lecture le
+ * garde ; il ne lit plus rien de cette connexion tant que le lot n'a pas trouvé de place, mais continue de lire
+ * les autres. Les clients ne peuvent donc pas accumuler dans le serveur plus de travail qu'il n'en traite ; leurs
+ * textes restent dans les tampons du système, puis ils ne peuvent plus envoyer. Un client qui inonde le serveur ne
+ * ralentit que les clients de sa partition, et le thread de lecture n'attend jamais.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class PoolTraitement {
+    private final GestionnaireEvenement gestionnaire;
+    private final Partition[] partitions;
+    private final int capacite;
+    //Lots traités et lots refusés parce que la file de leur partition était pleine :
+    private final AtomicLong nbLots = new AtomicLong(), nbEvenements = new AtomicLong();
+    private volatile long nbRefus;
+
+    /**
+     * Construit et démarre les threads de traitement.
+     *
+     * @param gestionnaire GestionnaireEvenement le gestionnaire qui traite les événements
+     * @param nbPartitions int le nombre de partitions, donc de threads
+     * @param capacite     int le nombre maximal de lots en attente dans chaque partition
+     */
+    public PoolTraitement(GestionnaireEvenement gestionnaire, int nbPartitions, int capacite) {
+        this.gestionnaire = gestionnaire;
+        this.capacite = capacite;
+        partitions = new Partition[nbPartitions];
+        for (int i = 0; i < nbPartitions; i++) {
+            partitions[i] = new Partition(i, capacite);
+            partitions[i].start();
+        }
+    }
+
+    /**
+     * Ajoute un lot d'événements d'une connexion à la file de sa partition, sans attendre. Si la file est pleine,
+     * le lot est refusé : l'appelant le garde et le soumet de nouveau plus tard, sans lire entre-temps d'autres
+     * textes de la connexion (pour qu'ils ne passent pas devant). Appelée par un seul thread à la fois (le thread
+     * de lecture du serveur).
+     *
+     * @param cnx Connexion la connexion qui a envoyé les événements
+     * @param lot List les événements, dans l'ordre d'arrivée ; si le lot est accepté, la liste ne doit plus être
+     *            modifiée
+     * @return boolean true si le lot a été ajouté, false si la file est pleine
+     */
+    public boolean soumettre(Connexion cnx, List<Evenement> lot) {
+        Partition p = partitions[(int) (cnx.getId() % partitions.length)];
+        if (p.file.offer(new Lot(cnx, lot)))
+            return true;
+        nbRefus++;
+        return false;
+    }
+
+    /**
+     * Ajoute une tâche à la file de la partition d'une connexion : elle est exécutée après les lots de la
+     * connexion déjà soumis, même si la connexion a été fermée entre-temps. Contrairement à soumettre(), n'attend
+     * pas si la file est pleine.
+     *
+     * @param cnx   Connexion la connexion
+     * @param tache Runnable la tâche
+     * @return boolean true si la tâche a été ajoutée, false si la file est pleine
+     */
+    public boolean executer(Connexion cnx, Runnable tache) {
+        Partition p = partitions[(int) (cnx.getId() % partitions.length)];
+        return p.file.offer(new Lot(cnx, Collections.emptyList(), tache));
+    }
+
+    /**
+     * Arrête les threads de traitement. Les lots en attente ne sont pas traités.
+     */
+    public void arreter() {
+        for (Partition p : partitions)
+            p.interrupt();
+    }
+
+    /**
+     * Retourne les statistiques du traitement : lots et événements traités, lots en attente dans chaque partition
+     * (profondeur des files), plus grande profondeur atteinte et lots refusés parce que leur file était pleine.
+     *
+     * @return String les statistiques, une par ligne
+     */
+    public String getStatistiques() {
+        StringBuilder files = new StringBuilder();
+        int total = 0, max = 0;
+        for (Partition p : partitions) {
+            int n = p.file.size();
+            total += n;
+            max = Math.max(max, p.profondeurMax);
+            files.append(' ').append(n);
+        }
+        return partitions.length + " threads, " + nbLots.get() + " lots, " + nbEvenements.get() + " evenements"
+                + "\nfiles " + total + " lots en attente :" + files + " (capacite " + capacite + ", max atteint "
+                + max + ")\nlots refuses (file pleine) " + nbRefus;
+    }
+
+    /*
+      Lot d'événements d'une connexion, ou tâche à exécuter après ses lots (voir executer()).
+    */
+    private static final class Lot {
+        private final Connexion connexion;
+        private final List<Evenement> evenements;
+        private final Runnable tache;
+
+        private Lot(Connexion connexion, List<Evenement> evenements) {
+            this(connexion, evenements, null);
+        }
+
+        private Lot(Connexion connexion, List<Evenement> evenements, Runnable tache) {
+            this.connexion = connexion;
+            this.evenements = evenements;
+            this.tache = tache;
+        }
+    }
+
+    /*
+      Thread et file d'une partition. Chaque lot est donné d'un coup au gestionnaire (voir
+      GestionnaireEvenement.traiterLot()). Un lot qui lève une exception n'arrête pas le thread.
+    */
+    private final class Partition extends Thread {
+        private final BlockingQueue<Lot> file;
+        private volatile int profondeurMax;
+
+        private Partition(int numero, int capacite) {
+            super("traitement " + numero);
+            setDaemon(true);
+            file = new ArrayBlockingQueue<>(capacite);
+        }
+
+        @Override
+        public void run() {
+            while (!interrupted()) {
+                Lot lot;
+                try {
+                    int n = file.size();
+                    if (n > profondeurMax)
+                        profondeurMax = n;
+                    lot = file.take();
+                } catch (InterruptedException e) {
+                    break;
+                }
+                try {
+                    if (lot.tache != null)
+                        lot.tache.run();
+                    else if (!lot.connexion.isFermee())
+                        gestionnaire.traiterLot(lot.evenements);
+                } catch (RuntimeException e) {
+                    System.out.println(getName() + " erreur : " + e);
+                }
+                if (lot.tache != null)
+                    continue;
+                nbLots.incrementAndGet();
+                nbEvenements.addAndGet(lot.evenements.size());
+            }
+        }
+    }
+}
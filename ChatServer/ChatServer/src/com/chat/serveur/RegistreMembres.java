@@ -0,0 +1,265 @@
+package com.chat.serveur;
+
+import com.commun.net.Connexion;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Cette classe représente le registre des membres du chat. Chaque membre reçoit, dès que son alias est accepté, un
+ * numéro entier dense (réutilisé après son départ) et son alias normalisé (en minuscules), calculé une seule fois.
+ * Les envois à tous, les exclusions et les recherches par alias se font ensuite sur ces numéros, sans comparer
+ * de chaînes :
+ * <ul>
+ * <li>les connexions sont rangées dans un tableau indexé par numéro ;</li>
+ * <li>les membres présents forment un tableau compact, parcouru lors des envois à tous, et un ensemble de bits
+ * indexé par numéro, combiné aux listes d'ignorés (voir ListesIgnores) ;</li>
+ * <li>les alias normalisés sont rangés dans une table à adressage ouvert qui donne le numéro de chaque alias.</li>
+ * </ul>
+ * Le registre n'est pas synchronisé : il est utilisé avec le verrou du serveur.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class RegistreMembres {
+    private static final int CAPACITE_INITIALE = 64;
+
+    //Connexion et alias normalisé de chaque numéro attribué :
+    private Connexion[] connexions = new Connexion[CAPACITE_INITIALE];
+    private String[] aliasNormalises = new String[CAPACITE_INITIALE];
+    //Position de chaque numéro dans presents, -1 si le membre n'est pas encore présent :
+    private int[] positions = new int[CAPACITE_INITIALE];
+    //Membres présents, les nbPresents premiers du tableau :
+    private Connexion[] presents = new Connexion[CAPACITE_INITIALE];
+    private int nbPresents;
+    //Bit de chaque numéro présent (bit n % 64 du mot n / 64) :
+    private long[] masquePresents = new long[CAPACITE_INITIALE / 64];
+    //Numéros libérés, réutilisés avant d'en attribuer de nouveaux :
+    private int[] libres = new int[CAPACITE_INITIALE];
+    private int nbLibres;
+    //Prochain numéro jamais attribué :
+    private int prochain;
+    //Table des alias normalisés (adressage ouvert, sondage linéaire) et du numéro de chacun :
+    private String[] cles = new String[2 * CAPACITE_INITIALE];
+    private int[] numeros = new int[2 * CAPACITE_INITIALE];
+    private int nbCles;
+
+    /**
+     * Normalise un alias : deux alias qui ne diffèrent que par la casse ont la même forme normalisée.
+     *
+     * @param alias String l'alias
+     * @return String l'alias en minuscules
+     */
+    public static String normaliser(String alias) {
+        return alias.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Réserve un alias pour une connexion et lui attribue un numéro (voir Connexion.getMembre()). Le membre n'est
+     * pas encore présent : il ne reçoit les envois à tous qu'après presenter().
+     *
+     * @param alias     String l'alias demandé
+     * @param connexion Connexion la connexion du membre
+     * @return int le numéro attribué, ou -1 si l'alias est déjà utilisé
+     */
+    public int reserver(String alias, Connexion connexion) {
+        String cle = normaliser(alias);
+        int i = trouver(cle);
+        if (cles[i] != null)
+            return -1;
+        int numero = (nbLibres > 0) ? libres[--nbLibres] : prochain++;
+        if (numero == connexions.length) {
+            int n = 2 * connexions.length;
+            connexions = Arrays.copyOf(connexions, n);
+            aliasNormalises = Arrays.copyOf(aliasNormalises, n);
+            positions = Arrays.copyOf(positions, n);
+        }
+        connexions[numero] = connexion;
+        aliasNormalises[numero] = cle;
+        positions[numero] = -1;
+        cles[i] = cle;
+        numeros[i] = numero;
+        if (++nbCles * 2 > cles.length)
+            agrandirTable();
+        connexion.setMembre(numero);
+        return numero;
+    }
+
+    /**
+     * Rend présent un membre dont l'alias a été réservé : il reçoit désormais les envois à tous.
+     *
+     * @param numero int le numéro du membre
+     */
+    public void presenter(int numero) {
+        if (positions[numero] >= 0)
+            return;
+        if (nbPresents == presents.length)
+            presents = Arrays.copyOf(presents, 2 * presents.length);
+        positions[numero] = nbPresents;
+        presents[nbPresents++] = connexions[numero];
+        if (numero >> 6 >= masquePresents.length)
+            masquePresents = Arrays.copyOf(masquePresents, Math.max(2 * masquePresents.length, (numero >> 6) + 1));
+        masquePresents[numero >> 6] |= 1L << numero;
+    }
+
+    /**
+     * Libère le numéro et l'alias d'un membre, présent ou non.
+     *
+     * @param numero int le numéro du membre
+     */
+    public void liberer(int numero) {
+        Connexion connexion = connexions[numero];
+        if (connexion == null)
+            return;
+        int p = positions[numero];
+        if (p >= 0) { //Le dernier présent prend sa place
+            Connexion dernier = presents[--nbPresents];
+            presents[p] = dernier;
+            positions[dernier.getMembre()] = p;
+            presents[nbPresents] = null;
+            masquePresents[numero >> 6] &= ~(1L << numero);
+        }
+        enleverCle(aliasNormalises[numero]);
+        connexions[numero] = null;
+        aliasNormalises[numero] = null;
+        if (nbLibres == libres.length)
+            libres = Arrays.copyOf(libres, 2 * libres.length);
+        libres[nbLibres++] = numero;
+        connexion.setMembre(-1);
+    }
+
+    /**
+     * Retourne le numéro du membre qui utilise un alias.
+     *
+     * @param alias String l'alias, dans n'importe quelle casse
+     * @return int le numéro du membre, ou -1 si l'alias n'est pas utilisé
+     */
+    public int chercher(String alias) {
+        int i = trouver(normaliser(alias));
+        return (cles[i] == null) ? -1 : numeros[i];
+    }
+
+    /**
+     * Retourne la connexion d'un membre.
+     *
+     * @param numero int le numéro du membre
+     * @return Connexion la connexion, ou null si le numéro n'est pas attribué
+     */
+    public Connexion getConnexion(int numero) {
+        return (numero >= 0 && numero < connexions.length) ? connexions[numero] : null;
+    }
+
+    /**
+     * Retourne l'alias normalisé d'un membre.
+     *
+     * @param numero int le numéro du membre
+     * @return String l'alias normalisé, ou null si le numéro n'est pas attribué
+     */
+    public String getAliasNormalise(int numero) {
+        return (numero >= 0 && numero < aliasNormalises.length) ? aliasNormalises[numero] : null;
+    }
+
+    /**
+     * Retourne la position d'un membre parmi les présents (voir getPresent()).
+     *
+     * @param numero int le numéro du membre
+     * @return int la position du membre, ou -1 s'il n'est pas présent
+     */
+    public int getPosition(int numero) {
+        return (numero >= 0 && numero < positions.length && connexions[numero] != null) ? positions[numero] : -1;
+    }
+
+    /**
+     * Retourne le nombre de membres présents.
+     *
+     * @return int le nombre de présents
+     */
+    public int getNbPresents() {
+        return nbPresents;
+    }
+
+    /**
+     * Retourne la connexion du membre présent à une position. Les positions vont de 0 à getNbPresents() - 1 ; le
+     * départ d'un membre peut changer la position d'un autre.
+     *
+     * @param position int la position
+     * @return Connexion la connexion du membre
+     */
+    public Connexion getPresent(int position) {
+        return presents[position];
+    }
+
+    /**
+     * Retourne l'ensemble des numéros présents : le bit n % 64 du mot n / 64 vaut 1 si le membre n est présent.
+     * Le tableau appartient au registre et ne doit pas être modifié ; il peut être remplacé par un plus grand à
+     * l'arrivée d'un membre.
+     *
+     * @return long[] l'ensemble des présents
+     */
+    public long[] getMasquePresents() {
+        return masquePresents;
+    }
+
+    /**
+     * Retourne le plus grand numéro attribué depuis la création du registre, plus un. Tous les numéros sont
+     * inférieurs à cette valeur.
+     *
+     * @return int la borne des numéros
+     */
+    public int getBorneNumeros() {
+        return prochain;
+    }
+
+    /*
+      Indice de la case de la table qui contient la clé, ou de la case vide où l'ajouter.
+    */
+    private int trouver(String cle) {
+        int masque = cles.length - 1, i = indice(cle, masque);
+        while (cles[i] != null && !cles[i].equals(cle))
+            i = (i + 1) & masque;
+        return i;
+    }
+
+    private static int indice(String cle, int masque) {
+        int h = cle.hashCode();
+        return (h ^ (h >>> 16)) & masque;
+    }
+
+    /*
+      Enlève une clé de la table en ramenant vers leur case d'origine les clés qui la suivent, ce qui évite de
+      marquer les cases vidées.
+    */
+    private void enleverCle(String cle) {
+        int masque = cles.length - 1, i = trouver(cle), j = i, k;
+        if (cles[i] == null)
+            return;
+        while (true) {
+            cles[i] = null;
+            do {
+                j = (j + 1) & masque;
+                if (cles[j] == null) {
+                    nbCles--;
+                    return;
+                }
+                k = indice(cles[j], masque);
+            } while (i <= j ? (i < k && k <= j) : (i < k || k <= j)); //La clé j est bien placée après i
+            cles[i] = cles[j];
+            numeros[i] = numeros[j];
+            i = j;
+        }
+    }
+
+    private void agrandirTable() {
+        String[] anciennesCles = cles;
+        int[] anciensNumeros = numeros;
+        cles = new String[2 * anciennesCles.length];
+        numeros = new int[cles.length];
+        for (int i = 0; i < anciennesCles.length; i++) {
+            if (anciennesCles[i] != null) {
+                int j = trouver(anciennesCles[i]);
+                cles[j] = anciennesCles[i];
+                numeros[j] = anciensNumeros[i];
+            }
+        }
+    }
+}
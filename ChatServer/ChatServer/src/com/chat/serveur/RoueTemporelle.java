@@ -0,0 +1,132 @@
+package com.chat.serveur;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cette classe représente une roue temporelle (« hashed timing wheel ») : un tableau circulaire de cases, chacune
+ * contenant la liste des minuteries qui expirent à un même tick modulo le nombre de cases. Planifier et annuler
+ * une minuterie coûtent O(1), et chaque tick ne parcourt qu'une case, quel que soit le nombre de minuteries.
+ * La roue n'a pas de thread : c'est le propriétaire qui la fait avancer régulièrement avec avancer().
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class RoueTemporelle {
+    //Durée d'un tick, en millisecondes :
+    private final long dureeTick;
+    //Premières minuteries de chaque case (listes doublement chaînées) :
+    private final Minuterie[] cases;
+    private final int masque;
+    //Dernier tick traité :
+    private long tickCourant;
+
+    /**
+     * Construit une roue temporelle.
+     *
+     * @param dureeTick long Durée d'un tick, en millisecondes
+     * @param nbCases   int Nombre de cases de la roue, arrondi à la puissance de 2 supérieure
+     */
+    public RoueTemporelle(long dureeTick, int nbCases) {
+        if (dureeTick <= 0 || nbCases <= 0)
+            throw new IllegalArgumentException("Roue invalide : tick " + dureeTick + " ms, " + nbCases + " cases");
+        int n = Integer.highestOneBit(nbCases);
+        if (n < nbCases)
+            n <<= 1;
+        this.dureeTick = dureeTick;
+        this.cases = new Minuterie[n];
+        this.masque = n - 1;
+        this.tickCourant = System.currentTimeMillis() / dureeTick;
+    }
+
+    /**
+     * Planifie l'exécution d'une tâche après un délai. La tâche est exécutée par le thread qui appelle avancer(),
+     * au plus un tick après l'expiration du délai.
+     *
+     * @param delai long Délai en millisecondes
+     * @param tache Runnable La tâche à exécuter
+     * @return Minuterie la minuterie, qui permet d'annuler la tâche
+     */
+    public synchronized Minuterie planifier(long delai, Runnable tache) {
+        long echeance = (System.currentTimeMillis() + Math.max(delai, 0) + dureeTick - 1) / dureeTick;
+        Minuterie m = new Minuterie(this, Math.max(echeance, tickCourant + 1), tache);
+        int i = (int) (m.echeance & masque);
+        m.suivante = cases[i];
+        if (cases[i] != null)
+            cases[i].precedente = m;
+        cases[i] = m;
+        return m;
+    }
+
+    /**
+     * Fait avancer la roue jusqu'au moment présent et exécute les tâches dont le délai a expiré. Les tâches sont
+     * exécutées hors du verrou de la roue : elles peuvent planifier d'autres tâches.
+     *
+     * @param maintenant long Moment présent (System.currentTimeMillis())
+     */
+    public void avancer(long maintenant) {
+        List<Minuterie> expirees = new ArrayList<>();
+        synchronized (this) {
+            long cible = maintenant / dureeTick;
+            //Après une longue pause, un seul tour de roue suffit pour visiter toutes les cases :
+            long debut = Math.max(tickCourant + 1, cible - masque);
+            for (long tick = debut; tick <= cible; tick++) {
+                Minuterie m = cases[(int) (tick & masque)], suivante;
+                while (m != null) {
+                    suivante = m.suivante;
+                    if (m.echeance <= cible) { //Les autres minuteries de la case expirent à un tour suivant
+                        retirer(m);
+                        expirees.add(m);
+                    }
+                    m = suivante;
+                }
+            }
+            if (cible > tickCourant)
+                tickCourant = cible;
+        }
+        for (Minuterie m : expirees)
+            m.tache.run();
+    }
+
+    /*
+      Retire une minuterie de sa case. Doit être appelée avec le verrou de la roue.
+    */
+    private void retirer(Minuterie m) {
+        int i = (int) (m.echeance & masque);
+        if (m.precedente != null)
+            m.precedente.suivante = m.suivante;
+        else if (cases[i] == m)
+            cases[i] = m.suivante;
+        else
+            return; //Déjà retirée
+        if (m.suivante != null)
+            m.suivante.precedente = m.precedente;
+        m.precedente = null;
+        m.suivante = null;
+    }
+
+    /**
+     * Une tâche planifiée dans une roue temporelle.
+     */
+    public static final class Minuterie {
+        private final RoueTemporelle roue;
+        private final long echeance;
+        private final Runnable tache;
+        private Minuterie precedente, suivante;
+
+        private Minuterie(RoueTemporelle roue, long echeance, Runnable tache) {
+            this.roue = roue;
+            this.echeance = echeance;
+            this.tache = tache;
+        }
+
+        /**
+         * Annule la tâche, si elle n'a pas déjà été exécutée.
+         */
+        public void annuler() {
+            synchronized (roue) {
+                roue.retirer(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.chat.serveur;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cette classe représente un seau de jetons : elle autorise en moyenne un certain nombre d'opérations par seconde,
+ * avec des rafales d'au plus un certain nombre d'opérations. Elle est implémentée sans verrou (algorithme GCRA) :
+ * tout l'état du seau est le moment théorique où le seau sera de nouveau plein, modifié par compare-and-set.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class SeauJetons {
+    //Durée (en nanosecondes) nécessaire pour regagner un jeton :
+    private final long intervalle;
+    //Durée (en nanosecondes) nécessaire pour remplir le seau vide :
+    private final long tolerance;
+    //Moment (System.nanoTime()) où le seau sera plein :
+    private final AtomicLong plein;
+
+    /**
+     * Construit un seau plein.
+     *
+     * @param parSeconde double Nombre moyen d'opérations autorisées par seconde
+     * @param rafale     int Nombre maximal d'opérations autorisées d'un coup
+     */
+    public SeauJetons(double parSeconde, int rafale) {
+        if (parSeconde <= 0 || rafale <= 0)
+            throw new IllegalArgumentException("Debit invalide : " + parSeconde + "/s, rafale " + rafale);
+        intervalle = (long) (1e9 / parSeconde);
+        tolerance = intervalle * rafale;
+        plein = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Prend un jeton dans le seau, s'il en reste.
+     *
+     * @param maintenant long Moment présent (System.nanoTime())
+     * @return boolean true si un jeton a été pris, false si le seau est vide
+     */
+    public boolean prendre(long maintenant) {
+        long p, nouveau;
+        do {
+            p = plein.get();
+            nouveau = Math.max(p, maintenant) + intervalle;
+            if (nouveau - maintenant > tolerance)
+                return false;
+        } while (!plein.compareAndSet(p, nouveau));
+        return true;
+    }
+}
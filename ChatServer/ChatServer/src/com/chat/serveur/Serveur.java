@@ -3,69 +3,150 @@ package com.chat.serveur;
 import com.commun.evenement.Evenement;
 import com.commun.evenement.EvenementUtil;
 import com.commun.evenement.GestionnaireEvenement;
+import com.commun.net.CaptureTrafic;
 import com.commun.net.Connexion;
+import com.commun.net.FabriqueSockets;
+import com.commun.net.ReserveTampons;
+import com.commun.net.TransportCanal;
 import com.commun.thread.Lecteur;
 import com.commun.thread.ThreadEcouteurDeTexte;
 
+import java.io.File;
 import java.io.IOException;
-import java.net.ServerSocket;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Cette classe reprsente un serveur sur lequel des clients peuvent se connecter.
+ * Cette classe représente un serveur sur lequel des clients peuvent se connecter.
  *
- * @author Abdelmoumne Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
+ * @author Abdelmoumène Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
  * @version 1.0
  * @since 2023-09-01
  */
 public class Serveur implements Lecteur {
 
-    //Liste des connects au serveur :
+    //Liste des connectés au serveur :
     protected final Vector<Connexion> connectes = new Vector<>();
 
-    //Nouveaux clients qui ne se sont pas encore "identifis":
+    //Nouveaux clients qui ne se sont pas encore "identifiés":
     private final Vector<Connexion> nouveaux = new Vector<>();
     //Ce thread s'occupe d'interagir avec les nouveaux pour valider leur connexion :
     private Thread threadNouveaux;
     private int port = 8888;
+    //Indique si les connexions sont chiffrées avec TLS :
+    private boolean tls = Config.TLS;
     //Thred qui attend de nouvelles connexions :
     private ThreadEcouteurDeConnexions ecouteurConnexions;
-    //Thread qui coute l'arrive de texte des clients connects :
+    //Thread qui écoute l'arrivée de texte des clients connectés :
     private ThreadEcouteurDeTexte ecouteurTexte;
-    //Le serveur-socket utilis par le serveur pour attendre que les clients se connectent :
-    private ServerSocket serverSocket;
-    //Indique si le serveur est dj dmarr ou non :
+    //Le canal utilisé par le serveur pour attendre que les clients se connectent. Les connexions en clair sont
+    //lues par leur canal non bloquant, qui signale la fin du flux (voir TransportCanal) :
+    private ServerSocketChannel canalEcoute;
+    //Indique si le serveur est déjà démarré ou non :
     private boolean demarre;
-    //couteur qui gre les vnements correspondant  l'arrive de texte de clients :
+    //Écouteur qui gère les événements correspondant à l'arrivée de texte de clients :
     protected GestionnaireEvenement gestionnaireEvenementServeur;
+    //Étapes par lesquelles passent les événements avant le gestionnaire et les réponses avant d'être envoyées :
+    protected PipelineEvenements pipeline;
+    //Threads qui traitent les événements, hors du thread de lecture (null s'ils sont traités par la lecture) :
+    private PoolTraitement traitement;
+    //Limite le nombre de commandes que chaque client peut envoyer :
+    protected final LimiteurDebit limiteur = new LimiteurDebit(Config.DEBIT_COMMANDES, Config.RAFALE_COMMANDES,
+            Config.INFRACTIONS_MAX);
+    //Délais d'identification et d'inactivité des clients, avancée à chaque lecture :
+    protected final RoueTemporelle roue = new RoueTemporelle(Config.DUREE_TICK, Config.NB_CASES_ROUE);
+    //Minuterie de surveillance de l'inactivité de chaque connecté :
+    private final Map<Connexion, RoueTemporelle.Minuterie> surveillances = new HashMap<>();
+    //Threads qui écrivent les textes envoyés aux clients, pour qu'un client qui ne lit pas ne bloque pas le
+    //serveur (un thread par client en cours d'écriture, arrêté après une minute sans écriture). Si le nombre
+    //maximal de threads est atteint, le thread qui envoie écrit lui-même :
+    private ThreadPoolExecutor ecrivain;
+    //Threads qui mènent les poignées de main TLS des connexions acceptées, un par poignée de main en cours (null
+    //si les connexions sont en clair) :
+    private ThreadPoolExecutor poigneesTLS;
+    //Délais réglables pendant le fonctionnement (voir definirParametres()), en millisecondes :
+    private volatile long delaiNouveaux = 10;
+    private volatile long delaiIdentification = Config.DELAI_IDENTIFICATION;
+    private volatile long delaiPing = Config.DELAI_PING;
+    private volatile long delaiInactivite = Config.DELAI_INACTIVITE;
+    //Canal d'administration : statistiques, exclusions et réglage des paramètres :
+    private CanalAdmin admin;
+    //Événements lus d'un connecté, passés d'un coup au pipeline (utilisé par le thread de lecture seulement) :
+    private final List<Evenement> lot = new ArrayList<>();
+    //Lots sortis du pipeline que la file de traitement de leur connexion, pleine, n'a pas encore pris. Ces
+    //connexions ne sont pas lues tant que leur lot attend (utilisé par le thread de lecture seulement) :
+    private final Map<Connexion, List<Evenement>> lotsRetenus = new HashMap<>();
 
     /**
-     * Cre un serveur qui va couter sur le port spcifi.
+     * Crée un serveur qui va écouter sur le port spécifié.
      *
-     * @param port int Port d'coute du serveur
+     * @param port int Port d'écoute du serveur
      */
     public Serveur(int port) {
         this.port = port;
     }
 
     /**
-     * Dmarre le serveur, s'il n'a pas dj t dmarr. Dmarre le thread qui coute l'arrive de clients et le
-     * qui coute l'arrive de texte. Mets en place le gestionnaire des vnements du serveur.
+     * Démarre le serveur, s'il n'a pas déjà été démarré. Démarre le thread qui écoute l'arrivée de clients et le
+     * qui écoute l'arrivée de texte. Mets en place le gestionnaire des événements du serveur.
      *
-     * @return boolean true, si le serveur a t dmarr correctement, false, si le serveur a dj t dmarr ou si
+     * @return boolean true, si le serveur a été démarré correctement, false, si le serveur a déjà été démarré ou si
      */
     public boolean demarrer() {
         if (demarre) //Serveur deja demarre.
             return false;
         try {
-            serverSocket = new ServerSocket(port);
+            canalEcoute = ServerSocketChannel.open();
+            canalEcoute.bind(new InetSocketAddress(port));
+            if (Config.FICHIER_CAPTURE != null)
+                Connexion.setCapture(new CaptureTrafic(new File(Config.FICHIER_CAPTURE)));
+            ecrivain = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    r -> {
+                        Thread t = new Thread(r, "ecrivain");
+                        t.setDaemon(true);
+                        return t;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+            Connexion.setEcrivain(ecrivain);
+            if (tls) {
+                poigneesTLS = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                        new SynchronousQueue<>(), r -> {
+                            Thread t = new Thread(r, "poignee TLS");
+                            t.setDaemon(true);
+                            return t;
+                        });
+            }
+            Connexion.setTailleMaxTrame(Config.TAILLE_MAX_TRAME);
             ecouteurConnexions = new ThreadEcouteurDeConnexions(this);
             ecouteurConnexions.start();
             ecouteurTexte = new ThreadEcouteurDeTexte(this);
             ecouteurTexte.start();
             gestionnaireEvenementServeur = new GestionnaireEvenementServeur(this);
+            if (Config.NB_THREADS_TRAITEMENT > 0)
+                traitement = new PoolTraitement(gestionnaireEvenementServeur, Config.NB_THREADS_TRAITEMENT,
+                        Config.TAILLE_FILE_TRAITEMENT);
+            pipeline = new PipelineEvenements(gestionnaireEvenementServeur, traitement);
+            configurerPipeline(pipeline);
+            admin = new CanalAdmin(this);
+            definirParametres(admin);
+            if (Config.PORT_ADMIN >= 0) {
+                try {
+                    admin.ouvrir(Config.PORT_ADMIN);
+                    System.out.println("Administration sur le port local " + admin.getPort());
+                } catch (IOException e) {
+                    System.out.println("admin erreur : " + e.getMessage());
+                }
+            }
             demarre = true;
             return true;
         } catch (IOException e) {
@@ -75,7 +156,7 @@ public class Serveur implements Lecteur {
     }
 
     /**
-     * Arrte le serveur en arrtant les threads qui coutent l'arrive de client, l'arrive de texte et le traitement
+     * Arrête le serveur en arrêtant les threads qui écoutent l'arrivée de client, l'arrivée de texte et le traitement
      * des nouveaux clients.
      */
     public void arreter() {
@@ -87,141 +168,477 @@ public class Serveur implements Lecteur {
         ecouteurConnexions.interrupt();
         ecouteurTexte.interrupt();
         if (threadNouveaux!=null) threadNouveaux.interrupt();
+        if (traitement != null)
+            traitement.arreter();
+        if (poigneesTLS != null)
+            poigneesTLS.shutdownNow();
+        admin.fermer();
         try {
-            serverSocket.close();
+            canalEcoute.close();
         } catch (IOException e) {
             System.out.println("serveurSocket erreur : " + e.getMessage());
         }
-        //On ferme toutes les connexions aprs avoir envoer "END."  chacun des clients :
+        //On ferme toutes les connexions après avoir envoer "END." à chacun des clients :
         iterateur = connectes.listIterator();
         while (iterateur.hasNext()) {
             cnx = iterateur.next();
             cnx.envoyer("END.");
             cnx.close();
         }
+        Connexion.setEcrivain(null);
+        ecrivain.shutdown();
+        CaptureTrafic capture = Connexion.getCapture();
+        if (capture != null) {
+            Connexion.setCapture(null);
+            capture.fermer();
+        }
+
         demarre = false;
     }
 
     /**
-     * Cette mthode bloque sur le ServerSocket du serveur jusqu' ce qu'un client s'y connecte. Dans ce cas, elle
-     * cre la connexion vers ce client et l'ajoute  la liste des nouveaux connects.
+     * Cette méthode bloque sur le canal d'écoute du serveur jusqu'à ce qu'un client s'y connecte. Dans ce cas, elle
+     * crée la connexion vers ce client et l'accepte (voir accepter()). Une connexion TLS n'est acceptée qu'après
+     * sa poignée de main, menée par un autre thread (voir accepterTLS()).
      */
     public void attendConnexion() {
+        SocketChannel canal;
+        try {
+            canal = canalEcoute.accept();
+        } catch (IOException e) {
+            return;
+        }
+        if (tls) {
+            poigneesTLS.execute(() -> accepterTLS(canal.socket()));
+            return;
+        }
+        try {
+            accepter(new Connexion(new TransportCanal(canal)));
+        } catch (IOException e) {
+            fermer(canal.socket());
+        }
+    }
+
+    /*
+      Chiffre une connexion acceptée et mène sa poignée de main TLS jusqu'au bout avant de l'accepter. Une fois
+      parmi les nouveaux, le socket TLS est lu par le thread des nouveaux pendant qu'un écrivain lui envoie
+      WAIT_FOR alias : aucun des deux ne doit alors avoir à mener la poignée de main. Le socket d'un client qui ne
+      l'a pas terminée après Config.DELAI_POIGNEE_TLS millisecondes est fermé.
+    */
+    private void accepterTLS(Socket sock) {
+        RoueTemporelle.Minuterie limite = roue.planifier(Config.DELAI_POIGNEE_TLS, () -> fermer(sock));
         try {
-            Socket sock = serverSocket.accept();
-            Connexion cnx = new Connexion(sock);
-            nouveaux.add(cnx);
-            System.out.println("Nouveau connecte");
-            cnx.envoyer("WAIT_FOR alias");
-            if (threadNouveaux == null) {
-                threadNouveaux = new Thread() {
-                    @Override
-                    public void run() {
-                        int i;
-                        Connexion connexion;
-                        ListIterator<Connexion> it;
-                        boolean verifOK = true;
-                        String hist;
-
-                        while (!interrupted()) {
+            accepter(new Connexion(FabriqueSockets.securiser(sock), sock));
+        } catch (IOException e) {
+            System.out.println("TLS erreur : " + e.getMessage());
+            fermer(sock);
+        } finally {
+            limite.annuler();
+        }
+    }
+
+    private static void fermer(Socket sock) {
+        try {
+            sock.close();
+        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * Ajoute une nouvelle connexion à la liste des nouveaux connectés, qui doivent s'identifier. La connexion peut
+     * venir du canal d'écoute du serveur ou d'un autre transport, par exemple un TransportMemoire pour faire
+     * fonctionner des clients simulés dans le même programme que le serveur.
+     *
+     * @param cnx Connexion la connexion du nouveau client
+     */
+    public void accepter(Connexion cnx) {
+        nouveaux.add(cnx);
+        System.out.println("Nouveau connecte");
+        cnx.envoyer("WAIT_FOR alias");
+        //Le client qui ne s'identifie pas à temps est déconnecté (le thread des nouveaux le retire ensuite) :
+        roue.planifier(delaiIdentification, () -> {
+            if (nouveaux.contains(cnx)) {
+                System.out.println("Nouveau deconnecte : delai d'identification expire");
+                cnx.envoyer("END");
+                fermerPlusTard(cnx);
+            }
+        });
+        synchronized (nouveaux) {
+            if (threadNouveaux != null)
+                return;
+            threadNouveaux = new Thread() {
+                @Override
+                public void run() {
+                    int i;
+                    Connexion connexion;
+                    ListIterator<Connexion> it;
+                    boolean verifOK = true;
+                    String hist;
+
+                    List<Connexion> valides = new ArrayList<>();
+
+                    while (!interrupted()) {
+                        //Le parcours se fait avec le verrou de la liste : accepter() peut y ajouter un
+                        //client en même temps. Les clients validés sont ajoutés après, hors du verrou.
+                        synchronized (Serveur.this.nouveaux) {
                             it = Serveur.this.nouveaux.listIterator();
                             while (it.hasNext()) {
                                 connexion = it.next();
+                                if (connexion.isFermee() || connexion.isEnErreur()) { //Parti ou exclu
+                                    it.remove();
+                                    fermerPlusTard(connexion);
+                                    continue;
+                                }
 
-                                //Vrifier ici si le client s'est bien identifi, si ncessaire
+                                //Vérifier ici si le client s'est bien identifié, si nécessaire
                                 verifOK = validerConnexion(connexion);
                                 if (verifOK) {
                                     it.remove();
-                                    Serveur.this.ajouter(connexion);
+                                    valides.add(connexion);
                                 }
                             }
-                            try {
-                                Thread.sleep(10);
-                            } catch (InterruptedException e) {
-                                break;
-                            }
                         }
-                    }
-                };
-                threadNouveaux.start();
-            }
-        } catch (IOException e) {
+                        for (Connexion c : valides)
+                            Serveur.this.ajouter(c);
+                        valides.clear();
 
+                        try {
+                            Thread.sleep(delaiNouveaux);
+                        } catch (InterruptedException e) {
+                            break;
+                        }
+                    }
+                }
+            };
+            threadNouveaux.start();
         }
     }
 
     /**
-     * Valide l'arrive d'un nouveau client sur le serveur. Cette implmentation
-     * par dfaut valide automatiquement le client en retournant true.
-     * Cette mthode sera redfinie dans les classes filles, comme ServerChat,
-     * pour implmenter une validation en fonction des besoins de l'application.
-     * Par exemple, ServerChat va vrifier si le nouveau client a fourni un
+     * Valide l'arrivée d'un nouveau client sur le serveur. Cette implémentation
+     * par défaut valide automatiquement le client en retournant true.
+     * Cette méthode sera redéfinie dans les classes filles, comme ServerChat,
+     * pour implémenter une validation en fonction des besoins de l'application.
+     * Par exemple, ServerChat va vérifier si le nouveau client a fourni un
      * alias valide.
      *
-     * @param connexion Connexion la connexion reprsentant le client.
+     * @param connexion Connexion la connexion représentant le client.
      * @return boolean true.
      */
     protected boolean validerConnexion(Connexion connexion) {
         return true;
     }
     /**
-     * Ajoute la connexion d'un nouveau client  la liste des connects.
-     * @param connexion Connexion la connexion reprsentant le client
-     * @return boolean true, si l'ajout a t effectu avec succs, false, sinon
+     * Ajoute la connexion d'un nouveau client à la liste des connectés.
+     * @param connexion Connexion la connexion représentant le client
+     * @return boolean true, si l'ajout a été effectué avec succès, false, sinon
      */
     public synchronized boolean ajouter(Connexion connexion) {
-        System.out.println(connexion.getAlias()+" est arriv!");
+        System.out.println(connexion.getAlias()+" est arrivé!");
         boolean res = this.connectes.add(connexion);
+        surveiller(connexion, delaiPing);
         return res;
     }
 
     public synchronized boolean enlever(Connexion connexion) {
         System.out.println(connexion.getAlias()+" est parti!");
         boolean res = this.connectes.remove(connexion);
+        limiteur.oublier(connexion);
+        RoueTemporelle.Minuterie m = surveillances.remove(connexion);
+        if (m != null)
+            m.annuler();
         return res;
     }
+
+    /*
+      Planifie la prochaine vérification de l'inactivité d'un connecté.
+    */
+    private void surveiller(Connexion connexion, long delai) {
+        surveillances.put(connexion, roue.planifier(delai, () -> verifierInactivite(connexion)));
+    }
+
+    /*
+      Vérifie si un connecté est toujours présent. Un client qui n'a rien envoyé depuis delaiPing reçoit PING,
+      auquel il doit répondre PONG. Un client dont les envois échouent ou qui n'a rien envoyé depuis
+      delaiInactivite est enlevé. La vérification est replanifiée pour le moment où le client aura été inactif
+      pendant delaiPing, ce qui évite de replanifier à chaque texte reçu.
+    */
+    private void verifierInactivite(Connexion connexion) {
+        synchronized (this) {
+            if (!surveillances.containsKey(connexion)) //Enlevé entre-temps
+                return;
+            long inactivite = System.currentTimeMillis() - connexion.getDerniereReception();
+            if (!connexion.isEnErreur() && inactivite < delaiInactivite) {
+                if (inactivite >= delaiPing) {
+                    connexion.envoyer("PING");
+                    surveiller(connexion, delaiPing);
+                } else {
+                    surveiller(connexion, delaiPing - inactivite);
+                }
+                return;
+            }
+        }
+        enleverParti(connexion);
+    }
+
+    /*
+      Enlève un connecté parti sans EXIT (fin de son flux, erreur, inactivité), s'il n'a pas déjà été enlevé. Comme
+      dans exclure(), la connexion est fermée hors du verrou du serveur, et ici aussi hors du thread de lecture
+      (voir fermerPlusTard()) : la fermeture peut attendre que la file prioritaire se vide.
+    */
+    private void enleverParti(Connexion connexion) {
+        synchronized (this) {
+            if (!surveillances.containsKey(connexion)) //Enlevé entre-temps
+                return;
+            System.out.println(connexion.getAlias() + " ne repond plus");
+            enlever(connexion);
+        }
+        fermerPlusTard(connexion);
+    }
+
     /**
-     * Cette mthode scanne tous les clients actuellement connects  ce serveur pour vrifie s'il y a du texte qui
-     * arrive. Pour chaque texte qui arrive, elle cre un vnement contenant les donnes du texte et demande au
-     * gestionnaire d'vnement serveur de traiter l'vnement.
+     * Ferme une connexion hors du thread appelant, pour que le thread de lecture n'attende pas la fermeture (voir
+     * Connexion.close(), qui peut attendre l'envoi des textes prioritaires). La connexion est fermée par son thread
+     * de traitement, après les lots déjà lus de ce client : un EXIT lu juste avant la fin de son flux est donc
+     * traité, au lieu d'être ignoré parce que la connexion serait déjà fermée. Sans threads de traitement, ou si la
+     * file du client est pleine, elle est fermée par un écrivain.
+     *
+     * @param cnx Connexion la connexion à fermer
      */
-    public synchronized void lire() {
-        ListIterator<Connexion> iterateur = connectes.listIterator();
-        Connexion cnx;
-        String[] t;
-        Evenement evenement;
-        for (int i=0;i<connectes.size();i++) {
-            cnx = connectes.get(i);
+    protected void fermerPlusTard(Connexion cnx) {
+        if (traitement == null || !traitement.executer(cnx, cnx::close))
+            ecrivain.execute(cnx::close);
+    }
+
+    /**
+     * Cette méthode scanne tous les clients actuellement connectés à ce serveur pour vérifie s'il y a du texte qui
+     * arrive. Pour chaque client, elle crée un événement par texte arrivé et fait passer le lot de ses événements
+     * par le pipeline du serveur, qui les donne ensuite au gestionnaire d'événement serveur, en général dans les
+     * threads de traitement. Fait aussi avancer la roue temporelle qui surveille l'inactivité des clients. Tout se
+     * fait hors du verrou du serveur : chaque tâche de la roue et chaque traitement prend lui-même les verrous dont
+     * il a besoin, et un traitement long ne bloque pas la lecture des autres clients. Un client dont la file de
+     * traitement est pleine n'est pas lu : son lot est gardé et redonné aux lectures suivantes.
+     */
+    public void lire() {
+        roue.avancer(System.currentTimeMillis());
+        lireConnectes();
+    }
+
+    private void lireConnectes() {
+        String[] t, r;
+
+        //Copie de la liste : les connectés peuvent arriver et partir pendant la lecture
+        for (Connexion cnx : connectes.toArray(new Connexion[0])) {
+            List<Evenement> retenu = lotsRetenus.get(cnx);
+            if (retenu != null) {
+                if (!pipeline.transmettre(cnx, retenu)) //File toujours pleine : on lira ce client plus tard
+                    continue;
+                lotsRetenus.remove(cnx);
+            }
+            //Traite d'un coup tous les textes déjà arrivés, pour qu'un client qui envoie plusieurs requêtes à la
+            //suite n'attende pas un tour de lecture par requête :
             String texte = cnx.getAvailableText();
-            if (!"".equals(texte)) {
-                t = EvenementUtil.extraireInfosEvenement(texte);
-                evenement = new Evenement(cnx, t[0], t[1]);
-                gestionnaireEvenementServeur.traiter(evenement);
+            while (!"".equals(texte)) {
+                r = EvenementUtil.extraireIdRequete(texte);
+                t = EvenementUtil.extraireInfosEvenement(r[1]);
+                lot.add(new Evenement(cnx, t[0], t[1], r[0]));
+                texte = cnx.getAvailableText();
             }
+            if (!lot.isEmpty()) {
+                if (!pipeline.recevoir(cnx, lot))
+                    lotsRetenus.put(cnx, new ArrayList<>(lot));
+                lot.clear();
+            }
+            //Fin du flux ou erreur : le client est parti sans EXIT, une fois son dernier lot pris
+            if (cnx.isEnErreur() && !lotsRetenus.containsKey(cnx))
+                enleverParti(cnx);
         }
+        if (!lotsRetenus.isEmpty()) //Lots des clients partis entre-temps
+            lotsRetenus.keySet().removeIf(Connexion::isFermee);
+    }
+
+    /**
+     * Ajoute les étapes du pipeline des événements, au démarrage du serveur. Par défaut, le pipeline limite le
+     * nombre de commandes de chaque client (voir EtapeLimiteur). Une classe fille peut y ajouter ses étapes.
+     *
+     * @param pipeline PipelineEvenements le pipeline du serveur
+     */
+    protected void configurerPipeline(PipelineEvenements pipeline) {
+        pipeline.ajouter(new EtapeLimiteur(this, limiteur));
     }
 
     /**
-     * Retourne le port d'coute de ce serveur
+     * Retourne le pipeline des événements du serveur.
      *
-     * @return int Le port d'coute
+     * @return PipelineEvenements le pipeline, ou null si le serveur n'a pas été démarré
+     */
+    public PipelineEvenements getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * Définit les paramètres réglables par le canal d'administration. Une classe fille peut y ajouter les siens.
+     *
+     * @param admin CanalAdmin le canal d'administration
+     */
+    protected void definirParametres(CanalAdmin admin) {
+        admin.definir("lecture.delai", "attente entre deux lectures des connectes, ms", 0, 10000,
+                ecouteurTexte::getDelai, ecouteurTexte::setDelai);
+        admin.definir("nouveaux.delai", "attente entre deux lectures des nouveaux clients, ms", 1, 10000,
+                () -> delaiNouveaux, v -> delaiNouveaux = v);
+        admin.definir("identification.delai", "delai laisse aux nouveaux pour fournir leur alias, ms", 1000,
+                Long.MAX_VALUE, () -> delaiIdentification, v -> delaiIdentification = v);
+        admin.definir("ping.delai", "inactivite apres laquelle un client recoit PING, ms", 1000, Long.MAX_VALUE,
+                () -> delaiPing, v -> delaiPing = v);
+        admin.definir("inactivite.delai", "inactivite apres laquelle un client est deconnecte, ms", 1000,
+                Long.MAX_VALUE, () -> delaiInactivite, v -> delaiInactivite = v);
+        admin.definir("ecrivains.max", "nombre maximal de threads ecrivains", 1, Integer.MAX_VALUE,
+                ecrivain::getMaximumPoolSize, v -> ecrivain.setMaximumPoolSize((int) v));
+        admin.definir("masse.max", "textes de masse en attente par connexion", 1, Integer.MAX_VALUE,
+                Connexion::getTailleMaxMasse, v -> Connexion.setTailleMaxMasse((int) v));
+        admin.definir("prioritaire.max", "textes prioritaires en attente par connexion", 1, Integer.MAX_VALUE,
+                Connexion::getTailleMaxPrioritaire, v -> Connexion.setTailleMaxPrioritaire((int) v));
+        admin.definir("trame.max", "longueur maximale d'un texte recu d'un client, octets", 2048,
+                Integer.MAX_VALUE, Connexion::getTailleMaxTrame, v -> Connexion.setTailleMaxTrame((int) v));
+        admin.definir("prioritaire.poids", "textes prioritaires envoyes avant un texte de masse", 1,
+                Integer.MAX_VALUE, Connexion::getPoidsPrioritaire, v -> Connexion.setPoidsPrioritaire((int) v));
+        admin.definirReel("commandes.debit", "commandes par seconde par client", limiteur::getDebit,
+                v -> limiteur.setLimite(v, limiteur.getRafale()));
+        admin.definir("commandes.rafale", "commandes d'un coup par client", 1, Integer.MAX_VALUE,
+                limiteur::getRafale, v -> limiteur.setLimite(limiteur.getDebit(), (int) v));
+        admin.definir("infractions.max", "commandes refusees par minute avant exclusion", 1, Integer.MAX_VALUE,
+                limiteur::getInfractionsMax, v -> limiteur.setInfractionsMax((int) v));
+        for (String type : limiteur.getCommandesLimitees()) {
+            admin.definirReel(type + ".debit", "commandes " + type + " par seconde par client",
+                    () -> limiteur.getLimiteCommande(type)[0],
+                    v -> limiteur.setLimiteCommande(type, v, (int) limiteur.getLimiteCommande(type)[1]));
+            admin.definir(type + ".rafale", "commandes " + type + " d'un coup par client", 1, Integer.MAX_VALUE,
+                    () -> (long) limiteur.getLimiteCommande(type)[1],
+                    v -> limiteur.setLimiteCommande(type, limiteur.getLimiteCommande(type)[0], (int) v));
+        }
+    }
+
+    /**
+     * Retourne le canal d'administration du serveur.
+     *
+     * @return CanalAdmin le canal d'administration, ou null si le serveur n'a pas été démarré
+     */
+    public CanalAdmin getAdmin() {
+        return admin;
+    }
+
+    /**
+     * Retourne les statistiques du serveur, une par ligne : nombre de connectés et de nouveaux, textes en attente
+     * et abandonnés, threads écrivains, mémoire, réserve de tampons, étapes du pipeline et threads de traitement.
+     *
+     * @return String les statistiques
+     */
+    public String getStatistiques() {
+        long attente = 0, abandonnes = 0;
+        List<Connexion> l = getConnectes();
+        for (Connexion cnx : l) {
+            attente += cnx.getNbEnAttente();
+            abandonnes += cnx.getNbAbandonnes();
+        }
+        Runtime r = Runtime.getRuntime();
+        StringBuilder s = new StringBuilder();
+        s.append("connectes ").append(l.size())
+                .append("\nnouveaux ").append(nouveaux.size())
+                .append("\ntextes en attente ").append(attente)
+                .append("\ntextes abandonnes ").append(abandonnes)
+                .append("\necrivains ").append(ecrivain.getActiveCount()).append(" actifs, ")
+                .append(ecrivain.getPoolSize()).append(" threads")
+                .append("\nmemoire ").append((r.totalMemory() - r.freeMemory()) >> 20).append(" Mo utilises / ")
+                .append(r.maxMemory() >> 20).append(" Mo")
+                .append("\ntampons ").append(ReserveTampons.PARTAGEE.getStatistiques().replace("\n", "\ntampons "))
+                .append("\npipeline ").append(pipeline.getStatistiques().replace("\n", "\npipeline "));
+        if (traitement != null)
+            s.append("\ntraitement ").append(traitement.getStatistiques().replace("\n", "\ntraitement "));
+        return s.toString();
+    }
+
+    /**
+     * Retourne une copie de la liste des connectés.
+     *
+     * @return List les connectés
+     */
+    public synchronized List<Connexion> getConnectes() {
+        return new ArrayList<>(connectes);
+    }
+
+    /**
+     * Retourne le connecté qui a un alias (sans tenir compte de la casse) ou un identifiant de connexion.
+     *
+     * @param cible String l'alias ou l'identifiant (voir Connexion.getId())
+     * @return Connexion le connecté, ou null s'il n'y en a pas
+     */
+    protected synchronized Connexion trouverConnecte(String cible) {
+        for (Connexion cnx : connectes)
+            if (cible.equalsIgnoreCase(cnx.getAlias()) || cible.equals(String.valueOf(cnx.getId())))
+                return cnx;
+        return null;
+    }
+
+    /**
+     * Déconnecte un client, à la demande de l'administrateur : il reçoit END, puis sa connexion est fermée.
+     *
+     * @param cible String l'alias ou l'identifiant de connexion du client
+     * @return boolean true si le client a été déconnecté, false s'il n'est pas connecté
+     */
+    public boolean exclure(String cible) {
+        Connexion cnx;
+        synchronized (this) {
+            cnx = trouverConnecte(cible);
+            if (cnx == null)
+                return false;
+            System.out.println(cnx.getAlias() + " exclu par l'administrateur");
+            cnx.envoyer("END");
+            enlever(cnx);
+        }
+        cnx.close();
+        return true;
+    }
+
+    /**
+     * Retourne le port d'écoute de ce serveur
+     *
+     * @return int Le port d'écoute
      */
     public int getPort() {
         return port;
     }
 
     /**
-     * Spcifie le port d'coute du serveur.
+     * Spécifie le port d'écoute du serveur.
      *
-     * @param port int Le port d'coute
+     * @param port int Le port d'écoute
      */
     public void setPort(int port) {
         this.port = port;
     }
+
+    /**
+     * Indique si les connexions des clients sont chiffrées avec TLS.
+     *
+     * @return boolean true si les connexions sont chiffrées et false sinon
+     */
+    public boolean isTls() {
+        return tls;
+    }
+
+    /**
+     * Spécifie si les connexions des clients sont chiffrées avec TLS. N'a d'effet qu'au prochain démarrage.
+     *
+     * @param tls boolean true pour chiffrer les connexions
+     */
+    public void setTls(boolean tls) {
+        this.tls = tls;
+    }
+
     /**
-     * Indique si le serveur a t dmarr.
+     * Indique si le serveur a été démarré.
      *
-     * @return boolean true si le serveur est dmarr et false sinon
+     * @return boolean true si le serveur est démarré et false sinon
      */
     public boolean isDemarre() {
         return demarre;
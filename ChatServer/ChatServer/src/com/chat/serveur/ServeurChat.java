@@ -2,6 +2,18 @@ package com.chat.serveur;
 
 import com.commun.net.Connexion;
 
+import java.io.File;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Cette classe �tend (h�rite) la classe abstraite Serveur et y ajoute le n�cessaire pour que le
  * serveur soit un serveur de chat.
@@ -12,6 +24,31 @@ import com.commun.net.Connexion;
  */
 public class ServeurChat extends Serveur {
 
+    //Historique des messages du chat public, du plus ancien au plus récent :
+    private final Deque<MessageChat> historique = new ArrayDeque<>();
+    //Numéro du dernier message ajouté à l'historique :
+    private long dernierNumero = 0;
+    //Sessions des utilisateurs, par jeton de reprise et par alias (en minuscules) :
+    private final Map<String, SessionChat> sessions = new HashMap<>();
+    private final Map<String, SessionChat> sessionsParAlias = new HashMap<>();
+    private long dernierePurgeSessions = 0;
+    //Numéro du dernier message déjà reçu par les clients qui reprennent leur session :
+    private final Map<Connexion, Long> reprises = new HashMap<>();
+    private final SecureRandom generateurJetons = new SecureRandom();
+    //Numéro et alias normalisé de chaque membre, attribués dès que son alias est accepté :
+    private final RegistreMembres membres = new RegistreMembres();
+    //Alias ignorés par chaque utilisateur :
+    private final ListesIgnores ignores = new ListesIgnores(membres);
+    //Envoie aux connectés les arrivées et départs des membres, regroupés :
+    private final NotificateurPresence presence = new NotificateurPresence(this, roue, Config.DELAI_PRESENCE);
+    //Messages privés envoyés aux utilisateurs absents, null si le dossier des boîtes n'a pas pu être ouvert :
+    private BoitesAuxLettres boites;
+    //Journal de tous les messages du chat public (null s'il n'a pas pu être ouvert) et index de recherche :
+    private JournalHistorique journal;
+    private IndexRecherche index = new IndexRecherche();
+    //Termes interdits dans les messages :
+    private final FiltreContenu filtre = new FiltreContenu();
+
     /**
      * Cr�e un serveur de chat qui va �couter sur le port sp�cifi�.
      *
@@ -19,18 +56,342 @@ public class ServeurChat extends Serveur {
      */
     public ServeurChat(int port) {
         super(port);
+        //Chaque message est renvoyé à tous les connectés : il a sa propre limite, plus basse.
+        limiteur.setLimiteCommande("MSG", Config.DEBIT_MSG, Config.RAFALE_MSG);
+        try {
+            boites = new BoitesAuxLettres(new File(Config.DOSSIER_BOITES), Config.TAILLE_SEGMENT_BOITES,
+                    Config.TAILLE_BOITE);
+        } catch (IOException e) {
+            System.out.println("boites aux lettres erreur : " + e.getMessage());
+        }
+        //Une recherche coûte plus qu'une commande ordinaire :
+        limiteur.setLimiteCommande("SEARCH", Config.DEBIT_RECHERCHE, Config.RAFALE_RECHERCHE);
+        ouvrirJournal();
+        try {
+            System.out.println("filtres : " + filtre.charger(new File(Config.DOSSIER_FILTRES)));
+        } catch (IOException e) {
+            System.out.println("filtres erreur : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ajoute aux paramètres du serveur la commande d'administration FILTRES, qui recharge les listes de termes
+     * interdits du dossier Config.DOSSIER_FILTRES.
+     *
+     * @param admin CanalAdmin le canal d'administration
+     */
+    @Override
+    protected void definirParametres(CanalAdmin admin) {
+        super.definirParametres(admin);
+        admin.definirCommande("FILTRES", arguments -> {
+            try {
+                return "filtres : " + filtre.charger(new File(Config.DOSSIER_FILTRES));
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Ajoute au pipeline du serveur, après la limitation du débit, le filtre des termes interdits dans les messages
+     * (voir EtapeFiltre) : les messages refusés par le limiteur ne sont pas filtrés.
+     *
+     * @param pipeline PipelineEvenements le pipeline du serveur
+     */
+    @Override
+    protected void configurerPipeline(PipelineEvenements pipeline) {
+        super.configurerPipeline(pipeline);
+        pipeline.ajouter(new EtapeFiltre(filtre));
+    }
+
+    /**
+     * Retourne le filtre des termes interdits dans les messages.
+     *
+     * @return FiltreContenu le filtre
+     */
+    public FiltreContenu getFiltre() {
+        return filtre;
+    }
+
+    /*
+      Ouvre le journal des messages et recharge les derniers messages dans l'historique. L'index de recherche
+      sauvegardé est rechargé, puis les messages ajoutés au journal après sa sauvegarde sont indexés.
+    */
+    private void ouvrirJournal() {
+        File dossier = new File(Config.DOSSIER_HISTORIQUE);
+        try {
+            journal = new JournalHistorique(dossier);
+            dernierNumero = journal.getDernierNumero();
+            for (long n = Math.max(1, dernierNumero - Config.TAILLE_HISTORIQUE + 1); n <= dernierNumero; n++)
+                historique.addLast(journal.lire(n));
+            index = IndexRecherche.charger(new File(dossier, "recherche.idx"));
+            if (index.getDernierNumero() > dernierNumero) //Index plus récent que le journal : on le refait
+                index = new IndexRecherche();
+            for (long n = index.getDernierNumero() + 1; n <= dernierNumero; n++)
+                index.indexer(n, journal.lire(n).getTexte());
+        } catch (IOException e) {
+            System.out.println("historique erreur : " + e.getMessage());
+            journal = null;
+        }
+    }
+
+    /**
+     * Arrête le serveur, ferme les boîtes aux lettres et sauvegarde l'index de recherche à côté du journal des
+     * messages.
+     */
+    @Override
+    public void arreter() {
+        super.arreter();
+        if (boites != null)
+            boites.fermer();
+        if (journal == null)
+            return;
+        try {
+            index.sauvegarder(new File(Config.DOSSIER_HISTORIQUE, "recherche.idx"));
+        } catch (IOException e) {
+            System.out.println("historique erreur : " + e.getMessage());
+        }
     }
 
+
+    /**
+     * Ajoute un client au chat. Le client reçoit l'historique (seulement les messages qu'il n'a pas encore vus
+     * s'il reprend sa session), le jeton qui lui permettra de reprendre sa session, puis les messages privés
+     * reçus pendant son absence.
+     *
+     * @param connexion Connexion la connexion représentant le client
+     * @return boolean true, si l'ajout a été effectué avec succès, false, sinon
+     */
     @Override
     public synchronized boolean ajouter(Connexion connexion) {
-        String hist = this.historique();
+        Long depuis = reprises.remove(connexion);
+        String hist = (depuis == null) ? this.historique() : this.historique(depuis);
         if ("".equals(hist)) {
             connexion.envoyer("OK");
         }
         else {
             connexion.envoyer("HIST " + hist);
         }
-        return super.ajouter(connexion);
+        connexion.envoyer("TOKEN " + ouvrirSession(connexion.getAlias(), depuis != null).getJeton());
+        presence.arrivee(connexion.getAlias());
+        if (connexion.getMembre() >= 0) //Sinon, remplacée par une reprise de session pendant son arrivée
+            membres.presenter(connexion.getMembre());
+        boolean res = super.ajouter(connexion);
+        livrerBoite(connexion);
+        return res;
+    }
+
+    /*
+      Envoie à un client qui arrive les messages de sa boîte aux lettres, par lots de Config.LOT_BOITE messages
+      sous la forme "OFFLINE moment1 alias1 >> message1\nmoment2 alias2 >> message2 ...". Les lots passent par
+      la file prioritaire. La boîte n'est notée comme livrée qu'une fois tous les lots écrits : si la connexion
+      tombe avant, les messages restent dans la boîte pour la prochaine arrivée du client.
+    */
+    private void livrerBoite(Connexion connexion) {
+        List<MessageChat> messages;
+        if (boites == null)
+            return;
+        String alias = connexion.getAlias();
+        try {
+            messages = boites.consulter(alias);
+        } catch (IOException e) {
+            System.out.println("boites aux lettres erreur : " + e.getMessage());
+            return;
+        }
+        StringBuilder lot = new StringBuilder();
+        for (int i = 0; i < messages.size(); i++) {
+            lot.append(lot.length() == 0 ? "OFFLINE " : "\n").append(messages.get(i));
+            if ((i + 1) % Config.LOT_BOITE == 0 || i == messages.size() - 1) {
+                connexion.envoyer(lot.toString());
+                lot.setLength(0);
+            }
+        }
+        if (messages.isEmpty())
+            return;
+        long dernier = messages.get(messages.size() - 1).getNumero();
+        connexion.apresEnvoi(() -> {
+            try {
+                boites.livrer(alias, dernier);
+            } catch (IOException e) {
+                System.out.println("boites aux lettres erreur : " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Envoie un message privé, sous la forme "PRV expediteur message". Si le destinataire n'est pas connecté,
+     * le message est déposé dans sa boîte aux lettres et lui sera envoyé à sa prochaine arrivée.
+     *
+     * @param expediteur   String l'alias de l'expéditeur
+     * @param destinataire String l'alias du destinataire
+     * @param texte        String le message
+     * @return boolean true si le message a été envoyé ou déposé, false si la boîte du destinataire est pleine
+     */
+    public synchronized boolean envoyerPrive(String expediteur, String destinataire, String texte) {
+        //Le dépôt se fait avec le verrou du serveur : le destinataire ne peut pas arriver entre la recherche
+        //et le dépôt sans recevoir le message.
+        if (ignores.isIgnore(destinataire, expediteur)) //L'expéditeur n'est pas prévenu
+            return true;
+        int numero = membres.chercher(destinataire);
+        if (numero >= 0 && membres.getPosition(numero) >= 0) {
+            membres.getConnexion(numero).envoyer("PRV " + expediteur + " " + texte);
+            return true;
+        }
+        try {
+            return boites != null && boites.deposer(destinataire, expediteur, texte);
+        } catch (IOException e) {
+            System.out.println("boites aux lettres erreur : " + e.getMessage());
+            return false;
+        }
+    }
+
+
+    /**
+     * Déconnecte un client à la demande de l'administrateur. Sa session est fermée : il ne peut pas la reprendre.
+     *
+     * @param cible String l'alias ou l'identifiant de connexion du client
+     * @return boolean true si le client a été déconnecté, false s'il n'est pas connecté
+     */
+    @Override
+    public boolean exclure(String cible) {
+        Connexion cnx = trouverConnecte(cible);
+        if (cnx != null)
+            fermerSession(cnx.getAlias());
+        return super.exclure(cible);
+    }
+
+    /**
+     * Retourne les statistiques du serveur, avec celles du chat : membres présents, sessions et messages.
+     *
+     * @return String les statistiques, une par ligne
+     */
+    @Override
+    public String getStatistiques() {
+        String s = super.getStatistiques();
+        synchronized (this) {
+            return s + "\nmembres presents " + membres.getNbPresents() + "\nsessions " + sessions.size()
+                    + "\nmessages " + dernierNumero + "\nfiltre " + filtre.getStatistiques();
+        }
+    }
+
+    /**
+     * Enlève un client du chat. Sa session reste valide pendant Config.DUREE_SESSION, ce qui lui laisse le
+     * temps de se reconnecter.
+     *
+     * @param connexion Connexion la connexion représentant le client
+     * @return boolean true, si le client a été enlevé, false, sinon
+     */
+    @Override
+    public synchronized boolean enlever(Connexion connexion) {
+        if (!connectes.contains(connexion)) //Déjà enlevé (EXIT, exclusion, départ détecté par la lecture)
+            return false;
+        SessionChat session = sessionsParAlias.get(connexion.getAlias().toLowerCase());
+        if (session != null)
+            session.prolonger(System.currentTimeMillis() + Config.DUREE_SESSION);
+        presence.depart(connexion.getAlias());
+        if (connexion.getMembre() >= 0) {
+            ignores.depart(connexion.getMembre());
+            membres.liberer(connexion.getMembre());
+        }
+        return super.enlever(connexion);
+    }
+
+    /**
+     * Termine la session d'un utilisateur qui quitte volontairement le chat : son jeton n'est plus accepté.
+     *
+     * @param alias String l'alias de l'utilisateur
+     */
+    public synchronized void fermerSession(String alias) {
+        SessionChat session = sessionsParAlias.remove(alias.toLowerCase());
+        if (session != null)
+            sessions.remove(session.getJeton());
+    }
+
+    /*
+      Crée une nouvelle session pour l'alias, en remplaçant celle qu'il avait déjà. Lors d'une reprise, la
+      nouvelle session garde la fenêtre de retransmission de l'ancienne. Les sessions expirées sont purgées au
+      plus une fois par minute.
+    */
+    private SessionChat ouvrirSession(String alias, boolean reprise) {
+        long maintenant = System.currentTimeMillis();
+        SessionChat session, precedente = sessionsParAlias.get(alias.toLowerCase());
+
+        fermerSession(alias);
+        if (maintenant - dernierePurgeSessions > 60000) {
+            Iterator<SessionChat> it = sessions.values().iterator();
+            while (it.hasNext()) {
+                session = it.next();
+                if (session.isExpiree(maintenant)) {
+                    it.remove();
+                    sessionsParAlias.remove(session.getAlias().toLowerCase());
+                }
+            }
+            dernierePurgeSessions = maintenant;
+        }
+        session = new SessionChat(Long.toHexString(generateurJetons.nextLong())
+                + Long.toHexString(generateurJetons.nextLong()), alias, Long.MAX_VALUE);
+        if (reprise && precedente != null)
+            session.reprendreFenetre(precedente);
+        sessions.put(session.getJeton(), session);
+        sessionsParAlias.put(alias.toLowerCase(), session);
+        return session;
+    }
+
+    /**
+     * Rend fiable la connexion d'un client qui l'a demandé avec "RELIABLE dernierRecu" : les textes que le client
+     * n'a pas reçus avant une reconnexion lui sont renvoyés, puis tous les textes qui lui sont envoyés sont
+     * numérotés et conservés jusqu'à ce qu'il les acquitte avec "ACK numero".
+     *
+     * @param connexion   Connexion la connexion du client
+     * @param dernierRecu long le numéro du dernier texte numéroté reçu par le client
+     * @return boolean true si la connexion est devenue fiable, false si le client n'a pas de session
+     */
+    public synchronized boolean activerFiabilite(Connexion connexion, long dernierRecu) {
+        SessionChat session = sessionsParAlias.get(connexion.getAlias().toLowerCase());
+        if (session == null)
+            return false;
+        connexion.activerFiabilite(session.getFenetre(Config.TAILLE_FENETRE), dernierRecu);
+        return true;
+    }
+
+
+    /*
+      Reprise de session demandée par un client qui se reconnecte avec "RESUME jeton dernierNumero".
+      Si le jeton est valide, le client retrouve son alias ; l'ancienne connexion, si le serveur ne l'a pas
+      encore enlevée, est fermée. La reprise est refusée si un autre client a pris l'alias entre-temps.
+    */
+    private boolean reprendreSession(Connexion connexion, String arguments) {
+        String[] t = arguments.split(" ");
+        Connexion ancienne = null;
+        SessionChat session;
+        long depuis;
+
+        try {
+            depuis = (t.length > 1) ? Long.parseLong(t[1]) : 0;
+        } catch (NumberFormatException e) {
+            depuis = 0;
+        }
+        synchronized (this) {
+            session = sessions.get(t[0]);
+            if (session == null || session.isExpiree(System.currentTimeMillis())) {
+                connexion.envoyer("REFUSED");
+                connexion.envoyer("WAIT_FOR alias");
+                return false;
+            }
+            ancienne = membres.getConnexion(membres.chercher(session.getAlias()));
+            if (ancienne != null)
+                enlever(ancienne);
+            if (reserverAlias(session.getAlias(), connexion) < 0) {
+                connexion.envoyer("REFUSED");
+                connexion.envoyer("WAIT_FOR alias");
+                return false;
+            }
+            reprises.put(connexion, depuis);
+        }
+        if (ancienne != null)
+            ancienne.close();
+        connexion.setAlias(session.getAlias());
+        return true;
     }
     /**
      * Valide l'arriv�e d'un nouveau client sur le serveur. Cette red�finition
@@ -50,6 +411,9 @@ public class ServeurChat extends Serveur {
         if ("".equals(aliasFourni)) {
             return false;
         }
+        if (aliasFourni.startsWith("RESUME ")) {
+            return reprendreSession(connexion, aliasFourni.substring(7).trim());
+        }
         taille = aliasFourni.length();
         for (int i=0;i<taille;i++) {
             c = aliasFourni.charAt(i);
@@ -61,25 +425,53 @@ public class ServeurChat extends Serveur {
         }
         if (!res)
             return false;
-        for (Connexion cnx:connectes) {
-            if (aliasFourni.equalsIgnoreCase(cnx.getAlias())) { //alias d�j� utilis�
-                res = false;
-                break;
-            }
+        synchronized (this) {
+            if (reserverAlias(aliasFourni, connexion) < 0) //alias d�j� utilis�
+                return false;
         }
-        if (!res)
-            return false;
         connexion.setAlias(aliasFourni);
         return true;
     }
 
+    /*
+      Réserve un alias et un numéro de membre pour une connexion (voir RegistreMembres.reserver()).
+    */
+    private int reserverAlias(String alias, Connexion connexion) {
+        int numero = membres.reserver(alias, connexion);
+        if (numero >= 0)
+            ignores.arrivee(numero);
+        return numero;
+    }
+
+    /**
+     * Ajoute un alias à la liste des alias ignorés par un client : le client ne reçoit plus ses messages, publics
+     * ou privés.
+     *
+     * @param connexion Connexion la connexion du client
+     * @param alias     String l'alias à ignorer
+     * @return boolean true si l'alias est ignoré, false si c'est celui du client ou si sa liste est pleine
+     */
+    public synchronized boolean ignorer(Connexion connexion, String alias) {
+        return ignores.ignorer(connexion.getAlias(), alias);
+    }
+
+    /**
+     * Enlève un alias de la liste des alias ignorés par un client.
+     *
+     * @param connexion Connexion la connexion du client
+     * @param alias     String l'alias qui n'est plus ignoré
+     */
+    public synchronized void nePlusIgnorer(Connexion connexion, String alias) {
+        ignores.nePlusIgnorer(connexion.getAlias(), alias);
+    }
+
     /**
      * Retourne la liste des alias des connect�s au serveur dans une cha�ne de caract�res.
      *
      * @return String cha�ne de caract�res contenant la liste des alias des membres connect�s sous la
      * forme alias1:alias2:alias3 ...
      */
-    public String list() {
+    public synchronized String list() {
         String s = "";
         for (Connexion cnx:connectes)
             s+=cnx.getAlias()+":";
@@ -93,18 +485,173 @@ public class ServeurChat extends Serveur {
      * forme message1\nmessage2\nmessage3 ...
      */
     public String historique() {
-        String s = "";
-        return s;
+        return historique(0);
     }
 
-    public void envoyerATousSauf(String str,String aliasExpediteur){
-        String s = "";
-        for (Connexion cnx:connectes){
-            if (cnx.getAlias().equalsIgnoreCase(aliasExpediteur)){
+    /**
+     * Retourne les messages de l'historique dont le numéro est supérieur à depuis, dans le format
+     * numero1 alias1 >> message1\nnumero2 alias2 >> message2 ...
+     *
+     * @param depuis long Numéro du dernier message déjà reçu par le client
+     * @return String les messages plus récents que depuis, ou la chaîne vide s'il n'y en a pas
+     */
+    public synchronized String historique(long depuis) {
+        StringBuilder s = new StringBuilder();
+        for (MessageChat m : historique) {
+            if (m.getNumero() <= depuis)
+                continue;
+            if (s.length() > 0)
+                s.append('\n');
+            s.append(m);
+        }
+        return s.toString();
+    }
+
+    /*
+      Numérote le message et l'ajoute à l'historique, en oubliant les plus anciens au-delà de
+      Config.TAILLE_HISTORIQUE messages. Retourne null, sans utiliser de numéro, si le message ne peut pas être
+      ajouté au journal : les numéros reçus par les clients restent ceux du journal, même après un redémarrage.
+    */
+    private synchronized MessageChat ajouterHistorique(String alias, String texte) {
+        MessageChat message = new MessageChat(dernierNumero + 1, alias, texte);
+        if (journal != null) {
+            try {
+                journal.ajouter(message);
+            } catch (IOException e) {
+                System.out.println("historique erreur : " + e.getMessage());
+                return null;
+            }
+        }
+        dernierNumero++;
+        historique.addLast(message);
+        if (historique.size() > Config.TAILLE_HISTORIQUE)
+            historique.removeFirst();
+        index.indexer(message.getNumero(), texte);
+        return message;
+    }
+
+    /**
+     * Recherche les messages du chat public qui contiennent tous les mots d'une requête.
+     *
+     * @param requete String les mots recherchés
+     * @return String les Config.RESULTATS_RECHERCHE messages trouvés les plus récents, dans le format
+     * numero1 alias1 >> message1\nnumero2 alias2 >> message2 ..., ou la chaîne vide si aucun message n'est trouvé
+     */
+    public String rechercher(String requete) {
+        StringBuilder s = new StringBuilder();
+        MessageChat m;
+        for (long numero : index.rechercher(requete, Config.RESULTATS_RECHERCHE)) {
+            try {
+                m = (journal != null) ? journal.lire(numero) : messageRecent(numero);
+            } catch (IOException e) {
+                m = null;
+            }
+            if (m == null)
+                continue;
+            if (s.length() > 0)
+                s.append('\n');
+            s.append(m);
+        }
+        return s.toString();
+    }
+
+    /*
+      Retrouve un message dans l'historique en mémoire, quand le journal n'est pas disponible.
+    */
+    private synchronized MessageChat messageRecent(long numero) {
+        for (MessageChat m : historique)
+            if (m.getNumero() == numero)
+                return m;
+        return null;
+    }
+
+
+    /**
+     * Ajoute un message à l'historique et l'envoie, sous la forme "MSG numero alias >> message", à tous les
+     * connectés sauf à son expéditeur, par leur voie de masse.
+     *
+     * @param str String le message
+     * @param aliasExpediteur String l'alias de l'expéditeur
+     * @return long le numéro attribué au message, ou 0 s'il n'a pas pu être ajouté au journal (il n'est alors pas
+     * envoyé)
+     */
+    public synchronized long envoyerATousSauf(String str,String aliasExpediteur){
+        return envoyerATousSauf(Collections.singletonList(str), aliasExpediteur, membres.chercher(aliasExpediteur))[0];
+    }
+
+    /**
+     * Ajoute un message à l'historique et l'envoie, sous la forme "MSG numero alias >> message", à tous les
+     * connectés sauf à son expéditeur et à ceux qui l'ignorent, par leur voie de masse.
+     *
+     * @param str        String le message
+     * @param expediteur Connexion la connexion de l'expéditeur
+     * @return long le numéro attribué au message, ou 0 s'il n'a pas pu être ajouté au journal (il n'est alors pas
+     * envoyé)
+     */
+    public synchronized long envoyerATousSauf(String str, Connexion expediteur) {
+        return envoyerATousSauf(Collections.singletonList(str), expediteur.getAlias(), expediteur.getMembre())[0];
+    }
+
+    /**
+     * Ajoute plusieurs messages d'un même expéditeur à l'historique et les envoie, chacun sous la forme
+     * "MSG numero alias >> message", à tous les connectés sauf à leur expéditeur et à ceux qui l'ignorent. Chaque
+     * destinataire reçoit tous les messages d'un coup (voir Connexion.envoyerEnMasse(List)), ce qui lui évite une
+     * écriture par message.
+     *
+     * @param textes     List les messages, dans l'ordre ; au moins un
+     * @param expediteur Connexion la connexion de l'expéditeur
+     * @return long[] le numéro attribué à chaque message, ou 0 pour un message qui n'a pas pu être ajouté au
+     * journal (il n'est alors pas envoyé)
+     */
+    public synchronized long[] envoyerATousSauf(List<String> textes, Connexion expediteur) {
+        return envoyerATousSauf(textes, expediteur.getAlias(), expediteur.getMembre());
+    }
 
-            }else {
-                cnx.envoyer(aliasExpediteur + " >> " + str);
+    /*
+      Envoie les messages à tous les présents sauf l'expéditeur (numéro -1 : aucun) et ceux qui l'ignorent. Si
+      personne ne l'ignore, les présents sont parcourus directement ; sinon, les destinataires sont les présents
+      moins ceux qui l'ignorent, calculés mot par mot sur les ensembles de bits.
+    */
+    private long[] envoyerATousSauf(List<String> textes, String aliasExpediteur, int numero) {
+        List<String> s = new ArrayList<>(textes.size());
+        long[] numeros = new long[textes.size()];
+        for (int i = 0; i < numeros.length; i++) {
+            MessageChat message = ajouterHistorique(aliasExpediteur, textes.get(i));
+            if (message != null) {
+                numeros[i] = message.getNumero();
+                s.add("MSG " + message);
+            }
+        }
+        if (s.isEmpty())
+            return numeros;
+        long[] muets = ignores.getMuets(numero);
+        if (muets == null) {
+            int exclu = membres.getPosition(numero);
+            for (int i = 0, n = membres.getNbPresents(); i < n; i++)
+                if (i != exclu)
+                    membres.getPresent(i).envoyerEnMasse(s);
+            return numeros;
+        }
+        long[] presents = membres.getMasquePresents();
+        for (int mot = 0; mot < presents.length; mot++) {
+            long destinataires = presents[mot] & ~(mot < muets.length ? muets[mot] : 0);
+            if (mot == numero >> 6)
+                destinataires &= ~(1L << numero);
+            while (destinataires != 0) {
+                membres.getConnexion(mot << 6 | Long.numberOfTrailingZeros(destinataires)).envoyerEnMasse(s);
+                destinataires &= destinataires - 1;
             }
         }
+        return numeros;
+    }
+
+    /**
+     * Envoie un texte à tous les connectés par leur voie de masse, sans l'ajouter à l'historique.
+     *
+     * @param texte String le texte à envoyer
+     */
+    public synchronized void diffuser(String texte) {
+        for (int i = 0, n = membres.getNbPresents(); i < n; i++)
+            membres.getPresent(i).envoyerEnMasse(texte);
     }
 }
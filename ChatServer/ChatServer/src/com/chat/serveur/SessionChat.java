@@ -0,0 +1,81 @@
+package com.chat.serveur;
+
+import com.commun.net.FenetreEmission;
+
+/**
+ * Cette classe représente la session d'un utilisateur du chat. Le jeton de la session est remis au client
+ * lors de son arrivée. Un client qui perd sa connexion peut reprendre sa session (même alias) en présentant
+ * ce jeton avant son expiration.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class SessionChat {
+    private final String jeton;
+    private final String alias;
+    private long expiration;
+    //Textes envoyés au client et pas encore acquittés, si le client a demandé une connexion fiable :
+    private FenetreEmission fenetre;
+
+    /**
+     * Construit une session.
+     *
+     * @param jeton      String Jeton de reprise de la session
+     * @param alias      String Alias de l'utilisateur
+     * @param expiration long Moment (en millisecondes) à partir duquel le jeton n'est plus accepté
+     */
+    public SessionChat(String jeton, String alias, long expiration) {
+        this.jeton = jeton;
+        this.alias = alias;
+        this.expiration = expiration;
+    }
+
+    public String getJeton() {
+        return jeton;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    /**
+     * Indique si le jeton de la session a expiré.
+     *
+     * @param maintenant long Moment présent, en millisecondes
+     * @return boolean true si la session a expiré, false sinon
+     */
+    public boolean isExpiree(long maintenant) {
+        return maintenant >= expiration;
+    }
+
+    /**
+     * Repousse l'expiration de la session.
+     *
+     * @param expiration long Nouveau moment d'expiration, en millisecondes
+     */
+    public void prolonger(long expiration) {
+        this.expiration = expiration;
+    }
+
+    /**
+     * Retourne la fenêtre de retransmission de la session, en la créant si nécessaire.
+     *
+     * @param capacite int Taille de la fenêtre à créer, en octets
+     * @return FenetreEmission la fenêtre de la session
+     */
+    public FenetreEmission getFenetre(int capacite) {
+        if (fenetre == null)
+            fenetre = new FenetreEmission(capacite);
+        return fenetre;
+    }
+
+    /**
+     * Reprend la fenêtre de retransmission d'une session précédente du même utilisateur.
+     *
+     * @param precedente SessionChat la session précédente
+     */
+    public void reprendreFenetre(SessionChat precedente) {
+        this.fenetre = precedente.fenetre;
+    }
+
+}
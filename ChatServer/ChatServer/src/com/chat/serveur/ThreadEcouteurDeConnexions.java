@@ -3,10 +3,10 @@ package com.chat.serveur;
 import com.chat.serveur.Serveur;
 
 /**
- * Cette classe permet de crer des threads capables d'couter continuellement sur un objet de type Serveur
- * l'arrive de nouveaux clients.
+ * Cette classe permet de créer des threads capables d'écouter continuellement sur un objet de type Serveur
+ * l'arrivée de nouveaux clients.
  *
- * @author Abdelmoumne Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
+ * @author Abdelmoumène Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
  * @version 1.0
  * @since 2023-09-01
  */
@@ -17,23 +17,20 @@ public class ThreadEcouteurDeConnexions extends Thread {
     /**
      * Construit un thread sur un serveur.
      *
-     * @param s Serveur Le serveur sur lequel le thread va couter.
+     * @param s Serveur Le serveur sur lequel le thread va écouter.
      */
     public ThreadEcouteurDeConnexions(Serveur s) {
         serveur = s;
     }
 
     /**
-     * Mthode principale du thread. Cette mthode appelle continuellement la mthode attendConnexion() du serveur.
+     * Méthode principale du thread. Cette méthode appelle continuellement la méthode attendConnexion() du serveur,
+     * qui bloque jusqu'à l'arrivée d'un client : une vague de connexions est acceptée sans délai.
      */
     public void run() {
         while (!interrupted()) {
             serveur.attendConnexion();
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                break;
-            }
         }
     }
+
 }
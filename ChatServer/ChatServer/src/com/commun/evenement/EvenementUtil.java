@@ -1,19 +1,22 @@
 package com.commun.evenement;
 
 /**
- * Classe utilitaire fournissant des mthodes pour manipuler des vnements.
+ * Classe utilitaire fournissant des méthodes pour manipuler des événements.
  */
 public class EvenementUtil {
+    //Nombre maximal de chiffres d'un identifiant de requête (il tient dans un long) :
+    private static final int CHIFFRES_MAX_ID = 18;
+
     /*
-      Contructeur priv pour empcher l'instanciation (inutile) de la classe.
+      Contructeur privé pour empêcher l'instanciation (inutile) de la classe.
     */
     private EvenementUtil() {
     }
     /**
-     * Mthode utilitaire qui extrait  partir d'une chaine de caractres le type et l'argument d'un vnement.
+     * Méthode utilitaire qui extrait à partir d'une chaine de caractères le type et l'argument d'un événement.
      *
-     * @param str chaine de caractres dcrivant l'vnement
-     * @return String[] tableau de taille 2 contenant le type et l'argument de l'vnement
+     * @param str chaine de caractères décrivant l'événement
+     * @return String[] tableau de taille 2 contenant le type et l'argument de l'événement
      */
     public static String[] extraireInfosEvenement(String str) {
 
@@ -29,4 +32,24 @@ public class EvenementUtil {
                 return new String[]{str.substring(0, i), str.substring(i).trim()};
         }
     }
+
+    /**
+     * Méthode utilitaire qui sépare l'identifiant de requête (texte de la forme "#identifiant reste") du reste
+     * du texte. Un client qui envoie plusieurs requêtes sans attendre les réponses utilise cet identifiant pour
+     * associer chaque réponse à sa requête. L'identifiant est un nombre d'au plus CHIFFRES_MAX_ID chiffres : un
+     * texte tapé par un utilisateur comme "#sujet salut" n'a pas d'identifiant et reste entier.
+     *
+     * @param str chaine de caractères reçue
+     * @return String[] tableau de taille 2 contenant l'identifiant (null s'il n'y en a pas) et le reste du texte
+     */
+    public static String[] extraireIdRequete(String str) {
+        if (!str.startsWith("#"))
+            return new String[]{null, str};
+        int i = 1;
+        while (i < str.length() && i <= CHIFFRES_MAX_ID && str.charAt(i) >= '0' && str.charAt(i) <= '9')
+            i++;
+        if (i == 1 || (i < str.length() && str.charAt(i) != ' ')) //Pas un identifiant
+            return new String[]{null, str};
+        return new String[]{str.substring(1, i), (i < str.length()) ? str.substring(i + 1) : ""};
+    }
 }
\ No newline at end of file
@@ -1,18 +1,32 @@
 package com.commun.evenement;
 
+import java.util.List;
+
 /**
- * Cette interface reprsente un gestionnaire d'vnement.
+ * Cette interface représente un gestionnaire d'événement.
  *
- * @author Abdelmoumne Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
+ * @author Abdelmoumène Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
  * @version 1.0
  * @since 2023-09-01
  */
 @FunctionalInterface
 public interface GestionnaireEvenement {
     /**
-     * Mthode de gestion de l'vnement.
+     * Méthode de gestion de l'événement.
      *
-     * @param evenement L'vnement  grer.
+     * @param evenement L'événement à gérer.
      */
     void traiter(Evenement evenement);
+
+    /**
+     * Méthode de gestion d'un lot d'événements arrivés ensemble, dans leur ordre d'arrivée. Un gestionnaire peut
+     * la redéfinir pour traiter plusieurs événements d'un coup ; par défaut, elle les traite un par un avec
+     * traiter().
+     *
+     * @param lot Les événements à gérer.
+     */
+    default void traiterLot(List<Evenement> lot) {
+        for (Evenement evenement : lot)
+            traiter(evenement);
+    }
 }
@@ -0,0 +1,129 @@
+package com.commun.net;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cette classe représente la fenêtre de retransmission d'une connexion fiable : elle numérote les textes envoyés
+ * et conserve ceux que l'autre bout n'a pas encore acquittés, pour pouvoir les renvoyer après une reconnexion.
+ * Les textes sont conservés hors du tas (ByteBuffer direct) dans un tampon circulaire de taille fixe, sous la forme
+ * longueur (int) suivie du texte en UTF-8 : le nombre de connexions ne pèse pas sur le ramasse-miettes. Quand le
+ * tampon est plein, les textes les plus anciens sont oubliés ; l'autre bout le voit au saut dans les numéros.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class FenetreEmission {
+    private final ByteBuffer tampon;
+    //Position du texte le plus ancien et nombre d'octets utilisés dans le tampon :
+    private int debut, nbOctets;
+    //Numéro du dernier texte numéroté et du plus ancien texte conservé :
+    private long dernierNumero, premierConserve = 1;
+
+    /**
+     * Construit une fenêtre vide.
+     *
+     * @param capacite int Taille du tampon, en octets
+     */
+    public FenetreEmission(int capacite) {
+        tampon = ByteBuffer.allocateDirect(capacite);
+    }
+
+    /**
+     * Numérote un texte et le conserve jusqu'à son acquittement, en oubliant au besoin les plus anciens.
+     *
+     * @param texte String le texte envoyé
+     * @return long le numéro du texte
+     */
+    public synchronized long ajouter(String texte) {
+        byte[] octets = texte.getBytes(StandardCharsets.UTF_8);
+        int taille = 4 + octets.length;
+
+        dernierNumero++;
+        if (taille > tampon.capacity()) { //Le texte ne tiendra jamais dans le tampon
+            vider();
+            return dernierNumero;
+        }
+        while (tampon.capacity() - nbOctets < taille)
+            oublierPremier();
+        int fin = (debut + nbOctets) % tampon.capacity();
+        ecrire(fin, ByteBuffer.allocate(4).putInt(octets.length).array());
+        ecrire((fin + 4) % tampon.capacity(), octets);
+        nbOctets += taille;
+        return dernierNumero;
+    }
+
+    /**
+     * Oublie les textes acquittés par l'autre bout.
+     *
+     * @param numero long le numéro du dernier texte reçu par l'autre bout ; tous les précédents ont été reçus
+     */
+    public synchronized void acquitter(long numero) {
+        while (nbOctets > 0 && premierConserve <= numero)
+            oublierPremier();
+    }
+
+    /**
+     * Retourne les textes conservés dont le numéro est supérieur à depuis, précédés de leur numéro (@numero texte),
+     * du plus ancien au plus récent.
+     *
+     * @param depuis long le numéro du dernier texte reçu par l'autre bout
+     * @return List&lt;String&gt; les textes à renvoyer
+     */
+    public synchronized List<String> rejouer(long depuis) {
+        List<String> textes = new ArrayList<>();
+        int pos = debut, restant = nbOctets, longueur;
+        byte[] entete = new byte[4], octets;
+
+        for (long numero = premierConserve; restant > 0; numero++) {
+            lire(pos, entete);
+            longueur = ByteBuffer.wrap(entete).getInt();
+            if (numero > depuis) {
+                octets = new byte[longueur];
+                lire((pos + 4) % tampon.capacity(), octets);
+                textes.add("@" + numero + " " + new String(octets, StandardCharsets.UTF_8));
+            }
+            pos = (pos + 4 + longueur) % tampon.capacity();
+            restant -= 4 + longueur;
+        }
+        return textes;
+    }
+
+    private void oublierPremier() {
+        byte[] entete = new byte[4];
+        lire(debut, entete);
+        int taille = 4 + ByteBuffer.wrap(entete).getInt();
+        debut = (debut + taille) % tampon.capacity();
+        nbOctets -= taille;
+        premierConserve++;
+    }
+
+    private void vider() {
+        debut = 0;
+        nbOctets = 0;
+        premierConserve = dernierNumero + 1;
+    }
+
+    /*
+      Copie des octets dans le tampon circulaire à partir de pos, en revenant au début du tampon au besoin.
+    */
+    private void ecrire(int pos, byte[] octets) {
+        ByteBuffer b = tampon.duplicate();
+        int n = Math.min(octets.length, b.capacity() - pos);
+        b.position(pos);
+        b.put(octets, 0, n);
+        b.position(0);
+        b.put(octets, n, octets.length - n);
+    }
+
+    private void lire(int pos, byte[] octets) {
+        ByteBuffer b = tampon.duplicate();
+        int n = Math.min(octets.length, b.capacity() - pos);
+        b.position(pos);
+        b.get(octets, 0, n);
+        b.position(0);
+        b.get(octets, n, octets.length - n);
+    }
+}
@@ -0,0 +1,84 @@
+package com.commun.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Transport des octets d'une connexion en clair par un canal de socket non bloquant. Le flux d'un Socket ne signale
+ * la fermeture de la connexion par l'autre bout qu'à une lecture bloquante ; le canal la signale aussi à
+ * lireDisponible(), qui retourne -1 : un serveur qui lit tous ses clients dans un même thread voit donc partir un
+ * client dès la fin de son flux. Les octets sont lus et écrits directement dans les tampons de la connexion, sans
+ * tableau d'échange.
+ * <p>
+ * Une lecture ou une écriture qui doit attendre (lire(), ou ecrire() vers un client qui ne lit pas assez vite)
+ * attend le canal avec un sélecteur ouvert pour l'occasion, en vérifiant régulièrement que le canal n'a pas été
+ * fermé entre-temps.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class TransportCanal implements Transport {
+    //Attente maximale, en millisecondes, entre deux vérifications de la fermeture du canal pendant une attente :
+    private static final long ATTENTE_MAX = 100;
+
+    private final SocketChannel canal;
+
+    /**
+     * Construit le transport d'un canal de socket connecté, qui passe en mode non bloquant.
+     *
+     * @param canal SocketChannel le canal
+     * @throws IOException si le canal ne peut pas passer en mode non bloquant
+     */
+    public TransportCanal(SocketChannel canal) throws IOException {
+        canal.configureBlocking(false);
+        this.canal = canal;
+    }
+
+    @Override
+    public int lire(ByteBuffer b) throws IOException {
+        int n;
+        while ((n = canal.read(b)) == 0)
+            attendre(SelectionKey.OP_READ);
+        return n;
+    }
+
+    @Override
+    public int lireDisponible(ByteBuffer b) throws IOException {
+        return canal.read(b);
+    }
+
+    @Override
+    public void ecrire(ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) {
+            if (canal.write(b) == 0) //Tampon d'envoi du système plein
+                attendre(SelectionKey.OP_WRITE);
+        }
+    }
+
+    /*
+      Attend que le canal soit prêt pour une opération (lecture ou écriture).
+    */
+    private void attendre(int operation) throws IOException {
+        try (Selector s = Selector.open()) {
+            canal.register(s, operation);
+            while (s.select(ATTENTE_MAX) == 0) {
+                if (!canal.isOpen())
+                    throw new ClosedChannelException();
+            }
+        }
+    }
+
+    @Override
+    public void fermer() throws IOException {
+        canal.close();
+    }
+
+    @Override
+    public boolean isFerme() {
+        return !canal.isOpen();
+    }
+}
@@ -0,0 +1,119 @@
+package com.commun.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+
+/**
+ * Transport des octets d'une connexion par un socket, en clair ou chiffré avec TLS. Les flux d'un socket ne
+ * lisent et n'écrivent que des tableaux d'octets : les octets passent par un tableau d'échange propre à chaque
+ * thread, pour que le transport n'en garde aucun.
+ *
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class TransportSocket implements Transport {
+    private static final int TAILLE_ECHANGE = 8192;
+    //Attente maximale, en millisecondes, d'une lecture sur un socket TLS dont le flux brut a reçu des données :
+    private static final int ATTENTE_TLS = 1;
+    private static final ThreadLocal<byte[]> echange = ThreadLocal.withInitial(() -> new byte[TAILLE_ECHANGE]);
+
+    private final Socket socket;
+    private final InputStream entree;
+    private final OutputStream sortie;
+    //Flux brut (chiffré) d'une connexion TLS : le flux déchiffré ne connaît le nombre d'octets arrivés qu'après
+    //les avoir déchiffrés, le flux brut permet de savoir sans bloquer si des données sont arrivées.
+    private final InputStream brut;
+
+    /**
+     * Construit le transport d'un socket.
+     *
+     * @param s Socket le socket
+     * @throws IOException si les flux du socket ne peuvent pas être obtenus
+     */
+    public TransportSocket(Socket s) throws IOException {
+        this(s, null);
+    }
+
+    /**
+     * Construit le transport d'un socket TLS créé par-dessus un socket brut. La poignée de main TLS doit être
+     * terminée (voir FabriqueSockets.securiser()) : l'attente des lectures du socket TLS est fixée ici une fois
+     * pour toutes, et n'est plus modifiée par les threads qui lisent.
+     *
+     * @param s    Socket le socket TLS
+     * @param brut Socket le socket sous-jacent au socket TLS, ou null si s n'est pas chiffré
+     * @throws IOException si les flux des sockets ne peuvent pas être obtenus
+     */
+    public TransportSocket(Socket s, Socket brut) throws IOException {
+        socket = s;
+        entree = s.getInputStream();
+        sortie = s.getOutputStream();
+        this.brut = (brut == null) ? null : brut.getInputStream();
+        if (brut != null)
+            s.setSoTimeout(ATTENTE_TLS);
+    }
+
+    @Override
+    public int lire(ByteBuffer b) throws IOException {
+        while (true) {
+            try {
+                return lireUneFois(b);
+            } catch (SocketTimeoutException e) { //Socket TLS : on attend encore
+            }
+        }
+    }
+
+    private int lireUneFois(ByteBuffer b) throws IOException {
+        byte[] e = echange.get();
+        int n = entree.read(e, 0, Math.min(e.length, b.remaining()));
+        if (n > 0)
+            b.put(e, 0, n);
+        return n;
+    }
+
+    /**
+     * Lit les octets déjà reçus, sans bloquer. Sur une connexion TLS dont le flux brut a reçu des données, ces
+     * données peuvent être un enregistrement TLS incomplet : la lecture attend alors au plus ATTENTE_TLS ms.
+     */
+    @Override
+    public int lireDisponible(ByteBuffer b) throws IOException {
+        if (entree.available() > 0)
+            return lireUneFois(b);
+        if (brut == null || brut.available() <= 0)
+            return 0;
+        try {
+            return lireUneFois(b);
+        } catch (SocketTimeoutException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void ecrire(ByteBuffer b) throws IOException {
+        if (b.hasArray()) {
+            sortie.write(b.array(), b.arrayOffset() + b.position(), b.remaining());
+            b.position(b.limit());
+            return;
+        }
+        byte[] e = echange.get();
+        while (b.hasRemaining()) {
+            int n = Math.min(e.length, b.remaining());
+            b.get(e, 0, n);
+            sortie.write(e, 0, n);
+        }
+    }
+
+    @Override
+    public void fermer() throws IOException {
+        entree.close();
+        socket.close();
+    }
+
+    @Override
+    public boolean isFerme() {
+        return socket.isClosed();
+    }
+}
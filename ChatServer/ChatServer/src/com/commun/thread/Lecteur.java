@@ -1,15 +1,15 @@
 package com.commun.thread;
 
 /**
- * Cette interface reprsente un objet qui fournit une mthode de lecture, typiquement un client ou un serveur.
+ * Cette interface représente un objet qui fournit une méthode de lecture, typiquement un client ou un serveur.
  *
- * @author Abdelmoumne Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
+ * @author Abdelmoumène Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
  * @version 1.0
  * @since 2023-09-01
  */
 public interface Lecteur {
     /**
-     * Mthode de lecture
+     * Méthode de lecture
      */
     void lire();
 }
@@ -1,14 +1,15 @@
 package com.commun.thread;
 
 /**
- * Cette classe permet de crer des threads capables de lire continuellement sur un un objet de type Lecteur.
+ * Cette classe permet de créer des threads capables de lire continuellement sur un un objet de type Lecteur.
  *
- * @author Abdelmoumne Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
+ * @author Abdelmoumène Toudeft (Abdelmoumene.Toudeft@etsmtl.ca)
  * @version 1.0
  * @since 2023-09-01
  */
 public class ThreadEcouteurDeTexte extends Thread {
     Lecteur lecteur;
+    volatile long delai;
 
     /**
      * Construit un thread sur un lecteur
@@ -16,17 +17,48 @@ public class ThreadEcouteurDeTexte extends Thread {
      * @param lecteur Le lecteur sur lequel le thread va lire
      */
     public ThreadEcouteurDeTexte(Lecteur lecteur) {
+        this(lecteur, 100);
+    }
+
+    /**
+     * Construit un thread sur un lecteur avec un délai entre deux lectures
+     *
+     * @param lecteur Le lecteur sur lequel le thread va lire
+     * @param delai   Délai en millisecondes entre deux lectures, 0 si la méthode lire() du lecteur est bloquante
+     */
+    public ThreadEcouteurDeTexte(Lecteur lecteur, long delai) {
         this.lecteur = lecteur;
+        this.delai = delai;
+    }
+
+    /**
+     * Retourne le délai entre deux lectures.
+     *
+     * @return long le délai en millisecondes
+     */
+    public long getDelai() {
+        return delai;
+    }
+
+    /**
+     * Spécifie le délai entre deux lectures. Le nouveau délai s'applique après la prochaine lecture.
+     *
+     * @param delai Délai en millisecondes entre deux lectures, 0 si la méthode lire() du lecteur est bloquante
+     */
+    public void setDelai(long delai) {
+        this.delai = delai;
     }
 
     /**
-     * Mthode principale du thread. Cette mthode appelle continuellement la mthode lire() du lecteur (client ou serveur)
+     * Méthode principale du thread. Cette méthode appelle continuellement la méthode lire() du lecteur (client ou serveur)
      */
     public void run() {
         while (!interrupted()) {
             lecteur.lire();
+            if (delai <= 0)
+                continue;
             try {
-                Thread.sleep(100);
+                Thread.sleep(delai);
             } catch (InterruptedException e) {
                 break;
             }
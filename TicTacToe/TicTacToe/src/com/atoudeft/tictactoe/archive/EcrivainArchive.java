@@ -0,0 +1,122 @@
+package com.atoudeft.tictactoe.archive;
+
+import com.atoudeft.tictactoe.classes.Partie;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Ajoute des parties à la fin d'un fichier d'archive (voir {@link FormatArchive}) et tient son index à jour.
+ */
+public final class EcrivainArchive implements Closeable {
+    private final DataOutputStream os;
+    private final DataOutputStream index;
+    private long position;
+    private long nombreParties;
+
+    /**
+     * Ouvre une archive en ajout. L'archive et son index sont créés s'ils n'existent pas.
+     *
+     * @param fichier File le fichier d'archive
+     * @throws IOException si l'archive ne peut pas être ouverte ou n'est pas une archive valide
+     */
+    public EcrivainArchive(File fichier) throws IOException {
+        File fichierIndex = new File(fichier.getPath() + FormatArchive.EXTENSION_INDEX);
+        boolean nouvelle = !fichier.exists() || fichier.length() == 0;
+
+        if (nouvelle) {
+            position = FormatArchive.TAILLE_ENTETE;
+            nombreParties = 0;
+            fichierIndex.delete();
+        } else {
+            compter(fichier, fichierIndex);
+        }
+        os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fichier, true), 1 << 16));
+        index = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fichierIndex, true)));
+        if (nouvelle) {
+            os.writeInt(FormatArchive.MAGIQUE);
+            os.writeByte(FormatArchive.VERSION);
+        }
+    }
+
+    /*
+      Retrouve le nombre de parties d'une archive existante : la dernière entrée de l'index donne la position
+      d'une partie connue, il ne reste qu'à sauter les entêtes des parties suivantes.
+      L'index et l'archive sont vidés séparément : après un arrêt brutal, l'index peut pointer au-delà de la fin de
+      l'archive ou lui manquer des entrées. Les entrées en trop sont enlevées, celles qui manquent sont ajoutées
+      pendant le parcours des entêtes (toutes, si l'index a disparu). Une dernière partie incomplète est retirée
+      de l'archive.
+    */
+    private void compter(File fichier, File fichierIndex) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(fichier, "rw");
+             RandomAccessFile idx = new RandomAccessFile(fichierIndex, "rw")) {
+            if (raf.readInt() != FormatArchive.MAGIQUE || raf.readByte() != FormatArchive.VERSION)
+                throw new IOException("Archive invalide : " + fichier);
+            long taille = raf.length(), entrees = idx.length() / 8, debut = FormatArchive.TAILLE_ENTETE;
+            for (; entrees > 0; entrees--) {
+                idx.seek((entrees - 1) * 8);
+                long p = idx.readLong();
+                if (p < taille) {
+                    debut = p;
+                    break;
+                }
+            }
+            ByteArrayOutputStream manquantes = new ByteArrayOutputStream();
+            DataOutputStream ajouts = new DataOutputStream(manquantes);
+            long n = Math.max(0, entrees - 1) * FormatArchive.INTERVALLE_INDEX;
+            position = debut;
+            while (position < taille) {
+                raf.seek(position);
+                long suivante = position + 1 + FormatArchive.tailleCoups(raf.readByte() & 0x0F);
+                if (suivante > taille)
+                    break;
+                if (n % FormatArchive.INTERVALLE_INDEX == 0 && n / FormatArchive.INTERVALLE_INDEX >= entrees)
+                    ajouts.writeLong(position);
+                position = suivante;
+                n++;
+            }
+            if (entrees > 0 && position == debut)
+                entrees--; //La partie de la dernière entrée est incomplète
+            idx.setLength(entrees * 8);
+            idx.seek(entrees * 8);
+            idx.write(manquantes.toByteArray());
+            if (position < taille)
+                raf.setLength(position);
+            nombreParties = n;
+        }
+    }
+
+    public void ecrire(Partie partie) throws IOException {
+        ecrire(EnregistrementPartie.de(partie));
+    }
+
+    public void ecrire(EnregistrementPartie partie) throws IOException {
+        int n = partie.getNombreCoups();
+        if (nombreParties % FormatArchive.INTERVALLE_INDEX == 0)
+            index.writeLong(position);
+        os.writeByte((partie.getPremierJoueur().ordinal() << 7) | (partie.getStatut().ordinal() << 5) | n);
+        for (int i = 0; i < n; i += 2)
+            os.writeByte(partie.getCase(i) | (i + 1 < n ? partie.getCase(i + 1) << 4 : 0));
+        position += 1 + FormatArchive.tailleCoups(n);
+        nombreParties++;
+    }
+
+    public long getNombreParties() {
+        return nombreParties;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            os.close();
+        } finally {
+            index.close();
+        }
+    }
+}
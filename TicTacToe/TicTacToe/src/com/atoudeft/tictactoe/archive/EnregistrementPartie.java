@@ -0,0 +1,74 @@
+package com.atoudeft.tictactoe.archive;
+
+import com.atoudeft.tictactoe.classes.Coup;
+import com.atoudeft.tictactoe.classes.Partie;
+import com.atoudeft.tictactoe.classes.Position;
+import com.atoudeft.tictactoe.classes.StatutPartie;
+import com.atoudeft.tictactoe.classes.Symbole;
+
+import java.util.List;
+
+/**
+ * Partie archivée : le joueur qui a commencé, le statut final et la suite des cases jouées
+ * (case = ligne*3+colonne). Les symboles alternent à partir du premier joueur.
+ */
+public final class EnregistrementPartie {
+    private final Symbole premierJoueur;
+    private final StatutPartie statut;
+    private final byte[] cases;
+
+    public EnregistrementPartie(Symbole premierJoueur, StatutPartie statut, byte[] cases) {
+        if (cases.length > 9) {
+            throw new IllegalArgumentException("Trop de coups: " + cases.length);
+        }
+        this.premierJoueur = premierJoueur;
+        this.statut = statut;
+        this.cases = cases;
+    }
+
+    /**
+     * Construit l'enregistrement d'une partie à partir de son historique de coups.
+     *
+     * @param partie Partie la partie à archiver
+     * @return EnregistrementPartie l'enregistrement de la partie
+     */
+    public static EnregistrementPartie de(Partie partie) {
+        List<Coup> coups = partie.getCoups();
+        byte[] cases = new byte[coups.size()];
+        for (int i = 0; i < cases.length; i++) {
+            Position p = coups.get(i).getPosition();
+            cases[i] = (byte) (p.getLigne() * 3 + p.getColonne());
+        }
+        return new EnregistrementPartie(partie.getPremierJoueur(), partie.getStatut(), cases);
+    }
+
+    public Symbole getPremierJoueur() { return premierJoueur; }
+    public StatutPartie getStatut()   { return statut; }
+    public int getNombreCoups()       { return cases.length; }
+    public int getCase(int i)         { return cases[i]; }
+    public Coup getCoup(int i) {
+        Symbole s = (i % 2 == 0) ? premierJoueur : (premierJoueur == Symbole.X ? Symbole.O : Symbole.X);
+        return new Coup(new Position(cases[i] / 3, cases[i] % 3), s);
+    }
+
+    /**
+     * Rejoue les coups enregistrés sur une nouvelle partie.
+     *
+     * @return Partie la partie rejouée
+     */
+    public Partie rejouer() {
+        Partie partie = new Partie(premierJoueur);
+        for (int i = 0; i < cases.length; i++) {
+            Coup coup = getCoup(i);
+            partie.jouer(coup.getSymbole(), coup.getPosition());
+        }
+        return partie;
+    }
+
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cases.length; i++)
+            sb.append(getCoup(i)).append(' ');
+        return sb.append("=> ").append(statut).toString();
+    }
+}
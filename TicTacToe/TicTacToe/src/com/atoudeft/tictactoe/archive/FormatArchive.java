@@ -0,0 +1,27 @@
+package com.atoudeft.tictactoe.archive;
+
+/**
+ * Constantes du format binaire des archives de parties.
+ * <p>
+ * Fichier de parties : un entête (entier magique "TTTA" puis un octet de version) suivi des parties, ajoutées
+ * les unes après les autres. Chaque partie commence par un octet :
+ * bit 7 = premier joueur (0 pour X, 1 pour O), bits 5-6 = ordinal du statut, bits 0-3 = nombre de coups.
+ * Viennent ensuite les coups, une case (0 à 8) par demi-octet, le premier coup dans le demi-octet de poids faible.
+ * <p>
+ * Fichier d'index (même nom suivi de ".idx") : la position (long) de la partie numéro k*INTERVALLE_INDEX,
+ * pour k = 0, 1, 2...
+ */
+final class FormatArchive {
+    static final int MAGIQUE = 0x54545441; //"TTTA"
+    static final int VERSION = 1;
+    static final int TAILLE_ENTETE = 5;
+    static final int INTERVALLE_INDEX = 1024;
+    static final String EXTENSION_INDEX = ".idx";
+
+    private FormatArchive() {
+    }
+
+    static int tailleCoups(int nbCoups) {
+        return (nbCoups + 1) / 2;
+    }
+}
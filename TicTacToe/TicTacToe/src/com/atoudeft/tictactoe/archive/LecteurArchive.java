@@ -0,0 +1,95 @@
+package com.atoudeft.tictactoe.archive;
+
+import com.atoudeft.tictactoe.classes.StatutPartie;
+import com.atoudeft.tictactoe.classes.Symbole;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Relit séquentiellement les parties d'une archive (voir {@link FormatArchive}) sans les charger toutes
+ * en mémoire. {@link #allerA(long)} utilise l'index pour se placer directement sur une partie.
+ */
+public final class LecteurArchive implements Closeable {
+    private static final StatutPartie[] STATUTS = StatutPartie.values();
+
+    private final File fichierIndex;
+    private final FileInputStream fis;
+    private DataInputStream is;
+
+    public LecteurArchive(File fichier) throws IOException {
+        fichierIndex = new File(fichier.getPath() + FormatArchive.EXTENSION_INDEX);
+        fis = new FileInputStream(fichier);
+        is = new DataInputStream(new BufferedInputStream(fis, 1 << 16));
+        if (is.readInt() != FormatArchive.MAGIQUE || is.readByte() != FormatArchive.VERSION) {
+            close();
+            throw new IOException("Archive invalide : " + fichier);
+        }
+    }
+
+    /**
+     * Lit la partie suivante.
+     *
+     * @return EnregistrementPartie la partie lue, ou null à la fin de l'archive
+     * @throws IOException si l'archive ne peut pas être lue
+     */
+    public EnregistrementPartie suivante() throws IOException {
+        int entete = is.read();
+        if (entete < 0)
+            return null;
+        int n = entete & 0x0F;
+        byte[] cases = new byte[n];
+        try {
+            for (int i = 0; i < n; i += 2) {
+                int b = is.readUnsignedByte();
+                cases[i] = (byte) (b & 0x0F);
+                if (i + 1 < n)
+                    cases[i + 1] = (byte) (b >> 4);
+            }
+        } catch (EOFException e) {
+            return null; //derniere partie tronquee
+        }
+        return new EnregistrementPartie((entete & 0x80) == 0 ? Symbole.X : Symbole.O,
+                STATUTS[(entete >> 5) & 0x03], cases);
+    }
+
+    /**
+     * Se place sur la partie numéro n (la première partie a le numéro 0).
+     *
+     * @param n long le numéro de la partie
+     * @return boolean true si la partie existe, false sinon
+     * @throws IOException si l'archive ou son index ne peut pas être lu
+     */
+    public boolean allerA(long n) throws IOException {
+        long entree = n / FormatArchive.INTERVALLE_INDEX, position;
+        try (RandomAccessFile index = new RandomAccessFile(fichierIndex, "r")) {
+            if ((entree + 1) * 8 > index.length())
+                return false;
+            index.seek(entree * 8);
+            position = index.readLong();
+        }
+        fis.getChannel().position(position);
+        is = new DataInputStream(new BufferedInputStream(fis, 1 << 16));
+        for (long i = entree * FormatArchive.INTERVALLE_INDEX; i < n; i++) {
+            int entete = is.read();
+            if (entete < 0)
+                return false;
+            is.skipBytes(FormatArchive.tailleCoups(entete & 0x0F));
+        }
+        is.mark(1);
+        boolean existe = is.read() >= 0;
+        is.reset();
+        return existe;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fis.close();
+    }
+}
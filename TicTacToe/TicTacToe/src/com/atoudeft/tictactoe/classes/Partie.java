@@ -1,9 +1,13 @@
 package com.atoudeft.tictactoe.classes;
 
-import com.atoudeft.tictactoe.MethodeNonImplementeeException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public final class Partie {
     private final Plateau plateau = new Plateau();
+    private final Symbole premierJoueur;
+    private final List<Coup> coups = new ArrayList<>(9);
     private Symbole joueurCourant;
     private StatutPartie statut;
 
@@ -16,9 +20,16 @@ public final class Partie {
     public StatutPartie getStatut()   {
         return statut;
     }
+    public Symbole getPremierJoueur() {
+        return premierJoueur;
+    }
+    public List<Coup> getCoups()      {
+        return Collections.unmodifiableList(coups);
+    }
 
     public Partie(Symbole joueurCourant) {
         this.joueurCourant = joueurCourant;
+        this.premierJoueur = joueurCourant;
         statut = StatutPartie.EN_COURS;
     }
     public Partie() {
@@ -26,9 +37,15 @@ public final class Partie {
     }
 
     public boolean jouer(Symbole symbole, Position position) {
-        throw new MethodeNonImplementeeException("***** Vous n'avez pas encore implemente la methode : "
-                +Thread.currentThread().getStackTrace()[1].getMethodName()
-                +"() de la classe "+this.getClass().getName());
+        if (!isPartieEnCours() || symbole != joueurCourant || position == null)
+            return false;
+        Coup coup = new Coup(position, symbole);
+        if (!plateau.placer(coup))
+            return false;
+        coups.add(coup);
+        mettreAJourStatutApresCoup();
+        joueurCourant = (joueurCourant == Symbole.X) ? Symbole.O : Symbole.X;
+        return true;
     }
     public boolean isPartieEnCours() {
         if (statut != StatutPartie.EN_COURS) {
@@ -36,10 +53,18 @@ public final class Partie {
         }
         return true;
     }
+    /**
+     * Retourne le meilleur coup pour le joueur courant, lu dans la TableFinale.
+     *
+     * @return Position la case à jouer, ou null si la partie est terminée.
+     */
+    public Position meilleurCoup() {
+        if (!isPartieEnCours())
+            return null;
+        return TableFinale.getInstance().getMeilleurCoup(plateau.getCode(), joueurCourant);
+    }
     private void mettreAJourStatutApresCoup() {
-        throw new MethodeNonImplementeeException("***** Vous n'avez pas encore implemente la methode : "
-                +Thread.currentThread().getStackTrace()[1].getMethodName()
-                +"() de la classe "+this.getClass().getName());
+        statut = TableFinale.getInstance().getStatut(plateau.getCode());
     }
 
     @Override
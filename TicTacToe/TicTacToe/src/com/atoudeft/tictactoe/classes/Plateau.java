@@ -1,28 +1,44 @@
 package com.atoudeft.tictactoe.classes;
 
-import com.atoudeft.tictactoe.MethodeNonImplementeeException;
-
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 public final class Plateau {
+    static final int[][][] LIGNES = {
+        {{0,0},{0,1},{0,2}}, {{1,0},{1,1},{1,2}}, {{2,0},{2,1},{2,2}},
+        {{0,0},{1,0},{2,0}}, {{0,1},{1,1},{2,1}}, {{0,2},{1,2},{2,2}},
+        {{0,0},{1,1},{2,2}}, {{0,2},{1,1},{2,0}}
+    };
+    //Poids de chaque case dans l'encodage en base 3 du plateau (case = ligne*3+colonne) :
+    static final int[] PUISSANCES_3 = {1, 3, 9, 27, 81, 243, 729, 2187, 6561};
+
     private final Symbole[][] grille = new Symbole[3][3];
     private int casesRemplies = 0;
+    //Encodage du plateau en base 3 (0 = vide, 1 = X, 2 = O), utilisé comme indice dans la TableFinale :
+    private int code = 0;
     public Symbole get(int ligne, int colonne) { return grille[ligne][colonne]; }
     public boolean estVide(Position p) { return grille[p.getLigne()][p.getColonne()] == null; }
     public int getNombreCasesRemplies() { return casesRemplies; }
     public boolean estPlein() { return casesRemplies == 9; }
+    public int getCode() { return code; }
     public boolean placer(Coup coup) {
-        throw new MethodeNonImplementeeException("***** Vous n'avez pas encore implemente la methode : "
-                +Thread.currentThread().getStackTrace()[1].getMethodName()
-                +"() de la classe "+this.getClass().getName());
+        if (coup == null || coup.getSymbole() == null || coup.getPosition() == null)
+            return false;
+        Position p = coup.getPosition();
+        if (!estVide(p))
+            return false;
+        grille[p.getLigne()][p.getColonne()] = coup.getSymbole();
+        casesRemplies++;
+        code += (coup.getSymbole() == Symbole.X ? 1 : 2) * PUISSANCES_3[p.getLigne()*3 + p.getColonne()];
+        return true;
     }
     public List<Position> ligneGagnante() {
-        int[][][] lignes = {
-            {{0,0},{0,1},{0,2}}, {{1,0},{1,1},{1,2}}, {{2,0},{2,1},{2,2}},
-            {{0,0},{1,0},{2,0}}, {{0,1},{1,1},{2,1}}, {{0,2},{1,2},{2,2}},
-            {{0,0},{1,1},{2,2}}, {{0,2},{1,1},{2,0}}
-        };
-        throw new MethodeNonImplementeeException("***** Vous n'avez pas encore implemente la methode : "
-                +Thread.currentThread().getStackTrace()[1].getMethodName()
-                +"() de la classe "+this.getClass().getName());
+        int indice = TableFinale.getInstance().getLigneGagnante(code);
+        if (indice < 0)
+            return Collections.emptyList();
+        List<Position> ligne = new ArrayList<>(3);
+        for (int[] c : LIGNES[indice])
+            ligne.add(new Position(c[0], c[1]));
+        return ligne;
     }
 }
\ No newline at end of file
@@ -0,0 +1,240 @@
+package com.atoudeft.tictactoe.classes;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Table précalculée de toutes les positions du TicTacToe. Chaque plateau est identifié par son encodage
+ * en base 3 (voir {@link Plateau#getCode()}), ce qui donne 3^9 = 19683 entrées de 4 octets :
+ * <ul>
+ *     <li>octet 0 : statut de la partie (ordinal de {@link StatutPartie}, bits 0-1) et position légale (bit 2)</li>
+ *     <li>octet 1 : indice de la ligne gagnante dans {@link Plateau#LIGNES}, ou 0xFF</li>
+ *     <li>octet 2 : meilleur coup pour X (case = ligne*3+colonne), ou 0xFF</li>
+ *     <li>octet 3 : meilleur coup pour O, ou 0xFF</li>
+ * </ul>
+ * Le fichier (généré par le programme GenerateurTableFinale) est projeté en mémoire avec un MappedByteBuffer :
+ * le système d'exploitation ne charge les pages qu'au besoin. Si le fichier est absent, la table est calculée
+ * en mémoire au premier accès.
+ */
+public final class TableFinale {
+    /**
+     * Nom du fichier utilisé par défaut. Peut être remplacé par la propriété système "tictactoe.table".
+     */
+    public static final String FICHIER_DEFAUT = "tictactoe.tbl";
+    static final int NB_POSITIONS = 19683;
+    private static final int MAGIQUE = 0x54545442; //"TTTB"
+    private static final int VERSION = 1;
+    private static final int TAILLE_ENTETE = 12;
+    private static final int TAILLE_ENTREE = 4;
+    private static final int LEGALE = 0x04;
+    private static final int AUCUN = 0xFF;
+    private static final StatutPartie[] STATUTS = StatutPartie.values();
+
+    private static volatile TableFinale instance;
+
+    private final ByteBuffer table;
+
+    private TableFinale(ByteBuffer table) {
+        this.table = table;
+    }
+
+    /**
+     * Retourne la table partagée, en projetant le fichier de la table s'il existe ou en la calculant sinon.
+     *
+     * @return TableFinale la table partagée
+     */
+    public static TableFinale getInstance() {
+        TableFinale t = instance;
+        if (t == null) {
+            synchronized (TableFinale.class) {
+                t = instance;
+                if (t == null) {
+                    File fichier = new File(System.getProperty("tictactoe.table", FICHIER_DEFAUT));
+                    try {
+                        t = fichier.isFile() ? charger(fichier) : null;
+                    } catch (IOException e) {
+                        t = null;
+                    }
+                    if (t == null)
+                        t = new TableFinale(generer());
+                    instance = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Projette en mémoire un fichier de table.
+     *
+     * @param fichier File le fichier généré par {@link #ecrire(File)}
+     * @return TableFinale la table, ou null si le fichier n'est pas une table valide
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public static TableFinale charger(File fichier) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier.toPath(), StandardOpenOption.READ)) {
+            long taille = TAILLE_ENTETE + (long) NB_POSITIONS * TAILLE_ENTREE;
+            if (canal.size() != taille)
+                return null;
+            ByteBuffer buf = canal.map(FileChannel.MapMode.READ_ONLY, 0, taille);
+            if (buf.getInt(0) != MAGIQUE || buf.getInt(4) != VERSION || buf.getInt(8) != NB_POSITIONS)
+                return null;
+            return new TableFinale(buf);
+        }
+    }
+
+    /**
+     * Calcule la table et l'écrit dans un fichier.
+     *
+     * @param fichier File le fichier à créer
+     * @throws IOException si le fichier ne peut pas être écrit
+     */
+    public static void ecrire(File fichier) throws IOException {
+        ByteBuffer buf = generer();
+        try (OutputStream os = new FileOutputStream(fichier)) {
+            os.write(buf.array(), 0, buf.limit());
+        }
+    }
+
+    public boolean estLegale(int code) {
+        return (table.get(TAILLE_ENTETE + code * TAILLE_ENTREE) & LEGALE) != 0;
+    }
+    public StatutPartie getStatut(int code) {
+        return STATUTS[table.get(TAILLE_ENTETE + code * TAILLE_ENTREE) & 0x03];
+    }
+    /**
+     * @return int l'indice de la ligne gagnante dans Plateau.LIGNES, ou -1 s'il n'y en a pas
+     */
+    public int getLigneGagnante(int code) {
+        int l = table.get(TAILLE_ENTETE + code * TAILLE_ENTREE + 1) & 0xFF;
+        return l == AUCUN ? -1 : l;
+    }
+    /**
+     * @return Position le meilleur coup de joueur sur le plateau code, ou null si joueur ne peut pas jouer
+     */
+    public Position getMeilleurCoup(int code, Symbole joueur) {
+        int c = getMeilleureCase(code, joueur);
+        return c < 0 ? null : new Position(c / 3, c % 3);
+    }
+    /**
+     * @return int la case (ligne*3+colonne) du meilleur coup de joueur sur le plateau code, ou -1
+     */
+    public int getMeilleureCase(int code, Symbole joueur) {
+        int c = table.get(TAILLE_ENTETE + code * TAILLE_ENTREE + (joueur == Symbole.X ? 2 : 3)) & 0xFF;
+        return c == AUCUN ? -1 : c;
+    }
+
+    /*
+      Calcule toutes les entrées de la table. Les meilleurs coups sont obtenus par un negamax mémorisé
+      qui préfère les victoires les plus rapides et les défaites les plus lentes.
+    */
+    static ByteBuffer generer() {
+        ByteBuffer buf = ByteBuffer.allocate(TAILLE_ENTETE + NB_POSITIONS * TAILLE_ENTREE);
+        int[][] scores = new int[2][NB_POSITIONS];
+        boolean[][] calcules = new boolean[2][NB_POSITIONS];
+        int[] cases = new int[9];
+        int code, nbX, nbO, ligneX, ligneO, statut;
+
+        buf.putInt(MAGIQUE).putInt(VERSION).putInt(NB_POSITIONS);
+        for (code = 0; code < NB_POSITIONS; code++) {
+            decoder(code, cases);
+            nbX = 0;
+            nbO = 0;
+            for (int v : cases) {
+                if (v == 1) nbX++;
+                else if (v == 2) nbO++;
+            }
+            ligneX = ligneGagnante(cases, 1);
+            ligneO = ligneGagnante(cases, 2);
+            if (ligneX >= 0) statut = StatutPartie.X_GAGNE.ordinal();
+            else if (ligneO >= 0) statut = StatutPartie.O_GAGNE.ordinal();
+            else if (nbX + nbO == 9) statut = StatutPartie.NULLE.ordinal();
+            else statut = StatutPartie.EN_COURS.ordinal();
+
+            //Le joueur qui commence peut être X ou O : les deux joueurs ont au plus un coup d'écart.
+            boolean legale = Math.abs(nbX - nbO) <= 1
+                    && !(ligneX >= 0 && ligneO >= 0)
+                    && !(ligneX >= 0 && nbX < nbO)
+                    && !(ligneO >= 0 && nbO < nbX);
+            int i = TAILLE_ENTETE + code * TAILLE_ENTREE;
+            buf.put(i, (byte) (statut | (legale ? LEGALE : 0)));
+            buf.put(i + 1, (byte) (ligneX >= 0 ? ligneX : ligneO >= 0 ? ligneO : AUCUN));
+            buf.put(i + 2, (byte) AUCUN);
+            buf.put(i + 3, (byte) AUCUN);
+            if (legale && statut == StatutPartie.EN_COURS.ordinal()) {
+                if (nbX <= nbO)
+                    buf.put(i + 2, (byte) meilleurCoup(code, 1, scores, calcules));
+                if (nbO <= nbX)
+                    buf.put(i + 3, (byte) meilleurCoup(code, 2, scores, calcules));
+            }
+        }
+        buf.rewind();
+        return buf;
+    }
+
+    private static void decoder(int code, int[] cases) {
+        for (int i = 0; i < 9; i++) {
+            cases[i] = code % 3;
+            code /= 3;
+        }
+    }
+
+    private static int ligneGagnante(int[] cases, int v) {
+        for (int l = 0; l < Plateau.LIGNES.length; l++) {
+            int[][] ligne = Plateau.LIGNES[l];
+            if (cases[ligne[0][0]*3 + ligne[0][1]] == v
+                    && cases[ligne[1][0]*3 + ligne[1][1]] == v
+                    && cases[ligne[2][0]*3 + ligne[2][1]] == v)
+                return l;
+        }
+        return -1;
+    }
+
+    private static int meilleurCoup(int code, int joueur, int[][] scores, boolean[][] calcules) {
+        int meilleur = AUCUN, meilleurScore = Integer.MIN_VALUE, s, c = code;
+        for (int i = 0; i < 9; i++, c /= 3) {
+            if (c % 3 != 0)
+                continue;
+            s = -score(code + joueur * Plateau.PUISSANCES_3[i], 3 - joueur, scores, calcules);
+            if (s > meilleurScore) {
+                meilleurScore = s;
+                meilleur = i;
+            }
+        }
+        return meilleur;
+    }
+
+    /*
+      Score du plateau du point de vue de joueur (1 = X, 2 = O), qui doit jouer : positif s'il gagne,
+      négatif s'il perd, 0 pour une nulle. La valeur absolue est d'autant plus grande que la fin est proche.
+    */
+    private static int score(int code, int joueur, int[][] scores, boolean[][] calcules) {
+        int j = joueur - 1;
+        if (calcules[j][code])
+            return scores[j][code];
+        int[] cases = new int[9];
+        int vides = 0, s;
+        decoder(code, cases);
+        for (int v : cases)
+            if (v == 0) vides++;
+        if (ligneGagnante(cases, 3 - joueur) >= 0)
+            s = -(vides + 1);
+        else if (vides == 0)
+            s = 0;
+        else {
+            s = Integer.MIN_VALUE;
+            for (int i = 0; i < 9; i++) {
+                if (cases[i] == 0)
+                    s = Math.max(s, -score(code + joueur * Plateau.PUISSANCES_3[i], 3 - joueur, scores, calcules));
+            }
+        }
+        scores[j][code] = s;
+        calcules[j][code] = true;
+        return s;
+    }
+}
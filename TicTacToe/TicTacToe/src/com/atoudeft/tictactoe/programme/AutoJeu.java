@@ -0,0 +1,51 @@
+package com.atoudeft.tictactoe.programme;
+
+import com.atoudeft.tictactoe.simulation.SimulateurAutoJeu;
+import com.atoudeft.tictactoe.simulation.Statistiques;
+import com.atoudeft.tictactoe.simulation.Strategie;
+import com.atoudeft.tictactoe.simulation.StrategieAleatoire;
+import com.atoudeft.tictactoe.simulation.StrategieMCTS;
+import com.atoudeft.tictactoe.simulation.StrategieSolveur;
+
+/**
+ * Programme de simulation de parties entre joueurs automatiques.
+ * Usage : AutoJeu strategieX strategieO [nombreParties] [nombreThreads]
+ * ou les stratégies sont aleatoire, solveur ou mcts[:iterations].
+ */
+public class AutoJeu {
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage : AutoJeu strategieX strategieO [nombreParties] [nombreThreads]");
+            System.out.println("Strategies : aleatoire, solveur, mcts[:iterations]");
+            return;
+        }
+        try {
+            Strategie x = strategie(args[0]), o = strategie(args[1]);
+            long n = args.length > 2 ? Long.parseLong(args[2]) : 1000000;
+            SimulateurAutoJeu simulateur = new SimulateurAutoJeu(x, o)
+                    .setAlternerPremierJoueur(true)
+                    .setIntervalleVerification(1000);
+            if (args.length > 3)
+                simulateur.setNombreThreads(Integer.parseInt(args[3]));
+            System.out.println(x + " (X) contre " + o + " (O) :");
+            Statistiques s = simulateur.simuler(n);
+            System.out.println(s);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Mauvaise saisie : " + e.getMessage());
+        }
+    }
+
+    private static Strategie strategie(String nom) {
+        String[] t = nom.toLowerCase().split(":");
+        switch (t[0]) {
+            case "aleatoire":
+                return new StrategieAleatoire();
+            case "solveur":
+                return new StrategieSolveur();
+            case "mcts":
+                return new StrategieMCTS(t.length > 1 ? Integer.parseInt(t[1]) : 500);
+            default:
+                throw new IllegalArgumentException("strategie inconnue " + nom);
+        }
+    }
+}
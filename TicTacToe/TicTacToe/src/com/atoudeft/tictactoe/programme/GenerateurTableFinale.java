@@ -0,0 +1,24 @@
+package com.atoudeft.tictactoe.programme;
+
+import com.atoudeft.tictactoe.classes.TableFinale;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Programme qui précalcule toutes les positions du TicTacToe et les écrit dans le fichier de la TableFinale.
+ * Usage : GenerateurTableFinale [fichier]
+ */
+public class GenerateurTableFinale {
+    public static void main(String[] args) {
+        File fichier = new File(args.length > 0 ? args[0] : TableFinale.FICHIER_DEFAUT);
+        long debut = System.currentTimeMillis();
+        try {
+            TableFinale.ecrire(fichier);
+            System.out.println("Table ecrite dans " + fichier.getAbsolutePath() + " (" + fichier.length()
+                    + " octets) en " + (System.currentTimeMillis() - debut) + " ms");
+        } catch (IOException e) {
+            System.out.println("Erreur d'ecriture de la table : " + e.getMessage());
+        }
+    }
+}
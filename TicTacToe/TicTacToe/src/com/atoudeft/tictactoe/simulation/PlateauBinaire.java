@@ -0,0 +1,53 @@
+package com.atoudeft.tictactoe.simulation;
+
+/**
+ * Représentation d'un plateau par deux masques de 9 bits (un par joueur, bit i = case ligne*3+colonne).
+ * Toutes les opérations sont des opérations bit à bit sur des int, sans allocation.
+ */
+public final class PlateauBinaire {
+    public static final int PLEIN = 0x1FF;
+    static final int[] LIGNES = {
+        0007, 0070, 0700,   //lignes
+        0111, 0222, 0444,   //colonnes
+        0421, 0124          //diagonales
+    };
+    //Encodage en base 3 de chaque masque de 9 bits, pour passer à l'indice de la TableFinale :
+    private static final int[] BASE_3 = new int[512];
+    static {
+        for (int m = 0; m < 512; m++) {
+            int v = 0, p = 1;
+            for (int i = 0; i < 9; i++, p *= 3)
+                if ((m & (1 << i)) != 0) v += p;
+            BASE_3[m] = v;
+        }
+    }
+
+    private PlateauBinaire() {
+    }
+
+    public static boolean gagne(int masque) {
+        for (int l : LIGNES)
+            if ((masque & l) == l) return true;
+        return false;
+    }
+
+    public static int vides(int x, int o) {
+        return ~(x | o) & PLEIN;
+    }
+
+    /**
+     * @return int l'indice du plateau dans la TableFinale (même encodage que Plateau.getCode())
+     */
+    public static int code(int x, int o) {
+        return BASE_3[x] + 2 * BASE_3[o];
+    }
+
+    /**
+     * @return int l'indice du k-ième bit à 1 de masque (k commence à 0)
+     */
+    public static int kiemeBit(int masque, int k) {
+        for (; k > 0; k--)
+            masque &= masque - 1;
+        return Integer.numberOfTrailingZeros(masque);
+    }
+}
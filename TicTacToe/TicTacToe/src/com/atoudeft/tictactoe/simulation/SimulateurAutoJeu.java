@@ -0,0 +1,142 @@
+package com.atoudeft.tictactoe.simulation;
+
+import com.atoudeft.tictactoe.classes.Partie;
+import com.atoudeft.tictactoe.classes.Position;
+import com.atoudeft.tictactoe.classes.StatutPartie;
+import com.atoudeft.tictactoe.classes.Symbole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fait jouer deux stratégies l'une contre l'autre sur des plateaux binaires, en répartissant les parties
+ * sur plusieurs threads. Chaque thread accumule ses propres statistiques, fusionnées à la fin.
+ * <p>
+ * Une partie sur intervalleVerification est rejouée sur une Partie, et le statut obtenu est comparé à celui
+ * du plateau binaire pour vérifier les règles de Partie/Plateau.
+ */
+public final class SimulateurAutoJeu {
+    private final Strategie strategieX, strategieO;
+    private int nombreThreads = Runtime.getRuntime().availableProcessors();
+    private long intervalleVerification = 0;
+    private boolean alternerPremierJoueur = false;
+    private long graine = System.nanoTime();
+
+    public SimulateurAutoJeu(Strategie strategieX, Strategie strategieO) {
+        this.strategieX = strategieX;
+        this.strategieO = strategieO;
+    }
+
+    public SimulateurAutoJeu setNombreThreads(int nombreThreads) {
+        this.nombreThreads = Math.max(1, nombreThreads);
+        return this;
+    }
+    /**
+     * @param intervalleVerification long rejoue une partie sur intervalleVerification sur une Partie (0 : jamais)
+     */
+    public SimulateurAutoJeu setIntervalleVerification(long intervalleVerification) {
+        this.intervalleVerification = intervalleVerification;
+        return this;
+    }
+    public SimulateurAutoJeu setAlternerPremierJoueur(boolean alternerPremierJoueur) {
+        this.alternerPremierJoueur = alternerPremierJoueur;
+        return this;
+    }
+    public SimulateurAutoJeu setGraine(long graine) {
+        this.graine = graine;
+        return this;
+    }
+
+    /**
+     * Joue nombreParties parties et retourne les statistiques agrégées.
+     *
+     * @param nombreParties long le nombre de parties à jouer
+     * @return Statistiques les résultats de la simulation
+     */
+    public Statistiques simuler(long nombreParties) {
+        ExecutorService executeur = Executors.newFixedThreadPool(nombreThreads);
+        List<Future<Statistiques>> resultats = new ArrayList<>(nombreThreads);
+        SplittableRandom hasard = new SplittableRandom(graine);
+        Statistiques total = new Statistiques();
+        long debut = System.nanoTime(), premiere = 0, part;
+
+        try {
+            for (int t = 0; t < nombreThreads; t++) {
+                part = nombreParties / nombreThreads + (t < nombreParties % nombreThreads ? 1 : 0);
+                final long p = premiere, n = part;
+                final SplittableRandom h = hasard.split();
+                resultats.add(executeur.submit(() -> jouerParties(p, n, h)));
+                premiere += part;
+            }
+            for (Future<Statistiques> f : resultats)
+                total.ajouter(f.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erreur pendant la simulation", e.getCause());
+        } finally {
+            executeur.shutdownNow();
+        }
+        total.setDureeNanos(System.nanoTime() - debut);
+        return total;
+    }
+
+    private Statistiques jouerParties(long premiere, long nombre, SplittableRandom hasard) {
+        Statistiques s = new Statistiques();
+        int x, o, c, n;
+        long coups;
+        boolean tourX, premierX;
+
+        for (long p = premiere; p < premiere + nombre; p++) {
+            x = 0;
+            o = 0;
+            n = 0;
+            coups = 0;
+            premierX = !alternerPremierJoueur || (p & 1) == 0;
+            tourX = premierX;
+            while (true) {
+                c = (tourX ? strategieX : strategieO).choisir(x, o, tourX, hasard);
+                if (tourX) x |= 1 << c; else o |= 1 << c;
+                coups |= (long) c << (4 * n++);
+                if (tourX && PlateauBinaire.gagne(x)) {
+                    s.victoiresX++;
+                    break;
+                }
+                if (!tourX && PlateauBinaire.gagne(o)) {
+                    s.victoiresO++;
+                    break;
+                }
+                if ((x | o) == PlateauBinaire.PLEIN) {
+                    s.nulles++;
+                    break;
+                }
+                tourX = !tourX;
+            }
+            s.coups += n;
+            if (intervalleVerification > 0 && p % intervalleVerification == 0
+                    && !verifier(premierX, coups, n, x, o))
+                s.erreursRegles++;
+        }
+        return s;
+    }
+
+    /*
+      Rejoue les n coups (une case par demi-octet) sur une Partie et compare son statut au plateau binaire.
+    */
+    private static boolean verifier(boolean premierX, long coups, int n, int x, int o) {
+        Partie partie = new Partie(premierX ? Symbole.X : Symbole.O);
+        StatutPartie attendu = PlateauBinaire.gagne(x) ? StatutPartie.X_GAGNE
+                : PlateauBinaire.gagne(o) ? StatutPartie.O_GAGNE : StatutPartie.NULLE;
+        for (int i = 0; i < n; i++) {
+            int c = (int) (coups >>> (4 * i)) & 0x0F;
+            if (!partie.jouer(partie.getJoueurCourant(), new Position(c / 3, c % 3)))
+                return false;
+        }
+        return partie.getStatut() == attendu;
+    }
+}
@@ -0,0 +1,53 @@
+package com.atoudeft.tictactoe.simulation;
+
+/**
+ * Résultats agrégés d'une simulation.
+ */
+public final class Statistiques {
+    long victoiresX, victoiresO, nulles, coups, erreursRegles;
+    private long dureeNanos;
+
+    void ajouter(Statistiques s) {
+        victoiresX += s.victoiresX;
+        victoiresO += s.victoiresO;
+        nulles += s.nulles;
+        coups += s.coups;
+        erreursRegles += s.erreursRegles;
+    }
+
+    void setDureeNanos(long dureeNanos) {
+        this.dureeNanos = dureeNanos;
+    }
+
+    public long getVictoiresX()    { return victoiresX; }
+    public long getVictoiresO()    { return victoiresO; }
+    public long getNulles()        { return nulles; }
+    public long getNombreParties() { return victoiresX + victoiresO + nulles; }
+    public long getErreursRegles() { return erreursRegles; }
+    public long getDureeNanos()    { return dureeNanos; }
+
+    public double getLongueurMoyenne() {
+        long n = getNombreParties();
+        return n == 0 ? 0 : (double) coups / n;
+    }
+
+    public double getPartiesParSeconde() {
+        return dureeNanos == 0 ? 0 : getNombreParties() * 1e9 / dureeNanos;
+    }
+
+    private String pourcentage(long v) {
+        long n = getNombreParties();
+        return String.format("%d (%.2f%%)", v, n == 0 ? 0.0 : 100.0 * v / n);
+    }
+
+    @Override
+    public String toString() {
+        return "Parties      : " + getNombreParties() + "\n"
+                + "X gagne      : " + pourcentage(victoiresX) + "\n"
+                + "O gagne      : " + pourcentage(victoiresO) + "\n"
+                + "Nulles       : " + pourcentage(nulles) + "\n"
+                + String.format("Longueur moy.: %.3f coups%n", getLongueurMoyenne())
+                + String.format("Debit        : %.0f parties/s (%d ms)%n", getPartiesParSeconde(), dureeNanos / 1000000)
+                + "Erreurs regles Partie/Plateau : " + erreursRegles;
+    }
+}
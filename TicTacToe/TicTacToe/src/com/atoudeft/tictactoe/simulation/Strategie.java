@@ -0,0 +1,20 @@
+package com.atoudeft.tictactoe.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Politique de jeu d'un joueur automatique. Une stratégie est partagée par tous les threads du simulateur :
+ * elle ne doit pas avoir d'état modifiable.
+ */
+public interface Strategie {
+    /**
+     * Choisit le coup à jouer.
+     *
+     * @param x int masque des cases de X
+     * @param o int masque des cases de O
+     * @param tourX boolean true si c'est à X de jouer
+     * @param hasard SplittableRandom générateur propre au thread appelant
+     * @return int la case jouée (ligne*3+colonne), qui doit être vide
+     */
+    int choisir(int x, int o, boolean tourX, SplittableRandom hasard);
+}
@@ -0,0 +1,16 @@
+package com.atoudeft.tictactoe.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Joue une case vide au hasard.
+ */
+public final class StrategieAleatoire implements Strategie {
+    @Override
+    public int choisir(int x, int o, boolean tourX, SplittableRandom hasard) {
+        int vides = PlateauBinaire.vides(x, o);
+        return PlateauBinaire.kiemeBit(vides, hasard.nextInt(Integer.bitCount(vides)));
+    }
+
+    @Override public String toString() { return "aleatoire"; }
+}
@@ -0,0 +1,101 @@
+package com.atoudeft.tictactoe.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Recherche arborescente Monte-Carlo (UCT) : chaque itération descend dans l'arbre selon la borne UCB1,
+ * ajoute un noeud, termine la partie au hasard et remonte le résultat.
+ */
+public final class StrategieMCTS implements Strategie {
+    private static final double EXPLORATION = 1.41;
+    private final int iterations;
+
+    public StrategieMCTS(int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Nombre d'iterations invalide: " + iterations);
+        }
+        this.iterations = iterations;
+    }
+
+    @Override
+    public int choisir(int x, int o, boolean tourX, SplittableRandom hasard) {
+        Noeud racine = new Noeud(x, o, tourX, -1, null), n;
+        for (int i = 0; i < iterations; i++) {
+            n = racine;
+            while (!n.terminal && n.nonExplores == 0)
+                n = n.meilleurEnfant();
+            if (!n.terminal)
+                n = n.developper(hasard);
+            int resultat = simuler(n.x, n.o, n.tourX, hasard);
+            for (; n != null; n = n.parent) {
+                n.visites++;
+                //Gain du point de vue du joueur qui a joué le coup menant à n :
+                n.gains += resultat == 0 ? 0.5 : ((resultat > 0) != n.tourX ? 1 : 0);
+            }
+        }
+        Noeud meilleur = null;
+        for (Noeud e : racine.enfants)
+            if (meilleur == null || e.visites > meilleur.visites) meilleur = e;
+        return meilleur.coup;
+    }
+
+    /*
+      Termine la partie au hasard. Retourne 1 si X gagne, -1 si O gagne et 0 pour une nulle.
+    */
+    private static int simuler(int x, int o, boolean tourX, SplittableRandom hasard) {
+        int vides;
+        while (true) {
+            if (PlateauBinaire.gagne(x)) return 1;
+            if (PlateauBinaire.gagne(o)) return -1;
+            vides = PlateauBinaire.vides(x, o);
+            if (vides == 0) return 0;
+            int c = 1 << PlateauBinaire.kiemeBit(vides, hasard.nextInt(Integer.bitCount(vides)));
+            if (tourX) x |= c; else o |= c;
+            tourX = !tourX;
+        }
+    }
+
+    private static final class Noeud {
+        final int x, o, coup;
+        final boolean tourX, terminal;
+        final Noeud parent;
+        final List<Noeud> enfants = new ArrayList<>(9);
+        int nonExplores, visites;
+        double gains;
+
+        Noeud(int x, int o, boolean tourX, int coup, Noeud parent) {
+            this.x = x;
+            this.o = o;
+            this.tourX = tourX;
+            this.coup = coup;
+            this.parent = parent;
+            terminal = PlateauBinaire.gagne(x) || PlateauBinaire.gagne(o) || PlateauBinaire.vides(x, o) == 0;
+            nonExplores = terminal ? 0 : PlateauBinaire.vides(x, o);
+        }
+
+        Noeud developper(SplittableRandom hasard) {
+            int c = PlateauBinaire.kiemeBit(nonExplores, hasard.nextInt(Integer.bitCount(nonExplores)));
+            nonExplores &= ~(1 << c);
+            Noeud e = tourX ? new Noeud(x | 1 << c, o, false, c, this) : new Noeud(x, o | 1 << c, true, c, this);
+            enfants.add(e);
+            return e;
+        }
+
+        Noeud meilleurEnfant() {
+            Noeud meilleur = null;
+            double meilleurScore = -1, s, logN = Math.log(visites);
+            for (Noeud e : enfants) {
+                s = e.gains / e.visites + EXPLORATION * Math.sqrt(logN / e.visites);
+                if (s > meilleurScore) {
+                    meilleurScore = s;
+                    meilleur = e;
+                }
+            }
+            return meilleur;
+        }
+    }
+
+    @Override public String toString() { return "mcts(" + iterations + ")"; }
+}
@@ -0,0 +1,20 @@
+package com.atoudeft.tictactoe.simulation;
+
+import com.atoudeft.tictactoe.classes.Symbole;
+import com.atoudeft.tictactoe.classes.TableFinale;
+
+import java.util.SplittableRandom;
+
+/**
+ * Joue le coup parfait lu dans la TableFinale.
+ */
+public final class StrategieSolveur implements Strategie {
+    private final TableFinale table = TableFinale.getInstance();
+
+    @Override
+    public int choisir(int x, int o, boolean tourX, SplittableRandom hasard) {
+        return table.getMeilleureCase(PlateauBinaire.code(x, o), tourX ? Symbole.X : Symbole.O);
+    }
+
+    @Override public String toString() { return "solveur"; }
+}